@@ -1,9 +1,23 @@
 package com.worldedu.worldeducation.admin.controller;
 
 import com.worldedu.worldeducation.admin.dto.*;
+import com.worldedu.worldeducation.admin.service.AdminExportService;
 import com.worldedu.worldeducation.admin.service.AdminService;
+import com.worldedu.worldeducation.admin.service.BulkSubscriptionService;
+import com.worldedu.worldeducation.admin.service.CatalogDeleteService;
+import com.worldedu.worldeducation.admin.service.CatalogImportService;
+import com.worldedu.worldeducation.audit.dto.PlanHistoryDTO;
+import com.worldedu.worldeducation.audit.dto.UserSubscriptionHistoryDTO;
+import com.worldedu.worldeducation.audit.service.AuditLogService;
 import com.worldedu.worldeducation.auth.entity.User;
+import com.worldedu.worldeducation.cache.dto.EntityCacheStatsDTO;
+import com.worldedu.worldeducation.cache.service.EntityCacheService;
 import com.worldedu.worldeducation.common.ApiResponse;
+import com.worldedu.worldeducation.enums.ExportFormat;
+import com.worldedu.worldeducation.enums.SignUpMethod;
+import com.worldedu.worldeducation.enums.UserCategory;
+import com.worldedu.worldeducation.metrics.dto.DashboardMetricsDTO;
+import com.worldedu.worldeducation.metrics.service.DashboardMetricsService;
 import com.worldedu.worldeducation.subject.dto.ClassDTO;
 import com.worldedu.worldeducation.subject.dto.SubjectDTO;
 import com.worldedu.worldeducation.subscription.dto.CreateSubscriptionPlanRequest;
@@ -14,12 +28,20 @@ import com.worldedu.worldeducation.topic.dto.TopicContentDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -30,6 +52,71 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AdminExportService adminExportService;
+    private final CatalogImportService catalogImportService;
+    private final BulkSubscriptionService bulkSubscriptionService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final CatalogDeleteService catalogDeleteService;
+    private final AuditLogService auditLogService;
+    private final EntityCacheService entityCacheService;
+
+    // ============ Dashboard ============
+
+    // Served from in-memory counters kept current on subscribe, toggle and signup
+    @GetMapping("/dashboard/metrics")
+    public ResponseEntity<ApiResponse<DashboardMetricsDTO>> getDashboardMetrics() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Dashboard metrics retrieved successfully", dashboardMetricsService.getDashboard())
+        );
+    }
+
+    @PostMapping("/dashboard/metrics/rebuild")
+    public ResponseEntity<ApiResponse<DashboardMetricsDTO>> rebuildDashboardMetrics(
+            @AuthenticationPrincipal User user) {
+        
+        log.info("Admin {} rebuilding dashboard metrics", user.getUserId());
+        
+        dashboardMetricsService.rebuild();
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Dashboard metrics rebuilt successfully", dashboardMetricsService.getDashboard())
+        );
+    }
+
+    // ============ Entity Cache ============
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<EntityCacheStatsDTO>> getEntityCacheStats() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Cache statistics retrieved successfully", entityCacheService.getStats())
+        );
+    }
+
+    @PostMapping("/cache/stats/reset")
+    public ResponseEntity<ApiResponse<EntityCacheStatsDTO>> resetEntityCacheStats(
+            @AuthenticationPrincipal User user) {
+        
+        log.info("Admin {} resetting cache statistics", user.getUserId());
+        
+        entityCacheService.resetStats();
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Cache statistics reset successfully", entityCacheService.getStats())
+        );
+    }
+
+    // For rows changed directly in the database
+    @PostMapping("/cache/evict")
+    public ResponseEntity<ApiResponse<Void>> evictEntityCache(@AuthenticationPrincipal User user) {
+        
+        log.info("Admin {} evicting the entity cache", user.getUserId());
+        
+        entityCacheService.evictAll();
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Entity cache evicted successfully", null)
+        );
+    }
 
     // ============ Class Management ============
     
@@ -62,17 +149,18 @@ public class AdminController {
         );
     }
 
+    // Removal of the subtree runs in the background; poll GET /catalog/delete-jobs/{jobId} for progress
     @DeleteMapping("/classes/{classId}")
-    public ResponseEntity<ApiResponse<Void>> deleteClass(
+    public ResponseEntity<ApiResponse<CatalogDeleteJobDTO>> deleteClass(
             @PathVariable Long classId,
             @AuthenticationPrincipal User user) {
         
         log.info("Admin {} deleting class: {}", user.getUserId(), classId);
         
-        adminService.deleteClass(classId);
+        CatalogDeleteJobDTO job = adminService.deleteClass(classId, user.getUserId());
         
-        return ResponseEntity.ok(
-            ApiResponse.success("Class deleted successfully", null)
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+            ApiResponse.success("Class delete queued", job)
         );
     }
 
@@ -121,17 +209,18 @@ public class AdminController {
         );
     }
 
+    // Removal of the subtree runs in the background; poll GET /catalog/delete-jobs/{jobId} for progress
     @DeleteMapping("/subjects/{subjectId}")
-    public ResponseEntity<ApiResponse<Void>> deleteSubject(
+    public ResponseEntity<ApiResponse<CatalogDeleteJobDTO>> deleteSubject(
             @PathVariable Long subjectId,
             @AuthenticationPrincipal User user) {
         
         log.info("Admin {} deleting subject: {}", user.getUserId(), subjectId);
         
-        adminService.deleteSubject(subjectId);
+        CatalogDeleteJobDTO job = adminService.deleteSubject(subjectId, user.getUserId());
         
-        return ResponseEntity.ok(
-            ApiResponse.success("Subject deleted successfully", null)
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+            ApiResponse.success("Subject delete queued", job)
         );
     }
 
@@ -180,17 +269,18 @@ public class AdminController {
         );
     }
 
+    // Removal of the subtree runs in the background; poll GET /catalog/delete-jobs/{jobId} for progress
     @DeleteMapping("/topics/{topicId}")
-    public ResponseEntity<ApiResponse<Void>> deleteTopic(
+    public ResponseEntity<ApiResponse<CatalogDeleteJobDTO>> deleteTopic(
             @PathVariable Long topicId,
             @AuthenticationPrincipal User user) {
         
         log.info("Admin {} deleting topic: {}", user.getUserId(), topicId);
         
-        adminService.deleteTopic(topicId);
+        CatalogDeleteJobDTO job = adminService.deleteTopic(topicId, user.getUserId());
         
-        return ResponseEntity.ok(
-            ApiResponse.success("Topic deleted successfully", null)
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+            ApiResponse.success("Topic delete queued", job)
         );
     }
 
@@ -212,17 +302,38 @@ public class AdminController {
 
     // ============ User Management ============
     
+    // Filtered, keyset-paginated; pass the returned nextCursor (with the same filters and sort) to get the next page
     @GetMapping("/users")
-    public ResponseEntity<ApiResponse<List<UserDetailsDTO>>> getAllUsers(
+    public ResponseEntity<ApiResponse<UserPageResponse>> getAllUsers(
             @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) UserCategory category,
+            @RequestParam(required = false) SignUpMethod signUpMethod,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
             @AuthenticationPrincipal User user) {
         
-        log.info("Admin {} fetching all users. Active filter: {}", user.getUserId(), active);
+        log.info("Admin {} fetching users. Active filter: {}, category: {}, sort: {}", 
+                user.getUserId(), active, category, sort);
         
-        List<UserDetailsDTO> users = adminService.getAllUsers(active);
+        UserSearchCriteria criteria = UserSearchCriteria.builder()
+                .accountLocked(active != null ? !active : null)
+                .userCategory(category)
+                .signUpMethod(signUpMethod)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .namePrefix(name)
+                .emailPrefix(email)
+                .build();
+        UserPageResponse page = adminService.searchUsers(criteria, sort, direction, limit, cursor);
         
         return ResponseEntity.ok(
-            ApiResponse.success("Users retrieved successfully", users)
+            ApiResponse.success("Users retrieved successfully", page)
         );
     }
 
@@ -299,17 +410,34 @@ public class AdminController {
         );
     }
 
+    // Filtered, newest first, keyset-paginated; pass the returned nextCursor (with the same filters) to get the next page
     @GetMapping("/subscriptions/user-subscriptions")
-    public ResponseEntity<ApiResponse<List<UserSubscriptionDTO>>> getAllUserSubscriptions(
+    public ResponseEntity<ApiResponse<UserSubscriptionPageResponse>> getAllUserSubscriptions(
+            @RequestParam(required = false) String type,
             @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) Long targetId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime subscribedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime subscribedTo,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
             @AuthenticationPrincipal User user) {
         
-        log.info("Admin {} fetching user subscriptions. Active filter: {}", user.getUserId(), active);
+        log.info("Admin {} fetching user subscriptions. Type: {}, active: {}, customer: {}", 
+                user.getUserId(), type, active, customerId);
         
-        List<UserSubscriptionDTO> subscriptions = adminService.getAllUserSubscriptions(active);
+        UserSubscriptionSearchCriteria criteria = UserSubscriptionSearchCriteria.builder()
+                .type(type)
+                .active(active)
+                .customerId(customerId)
+                .targetId(targetId)
+                .subscribedFrom(subscribedFrom)
+                .subscribedTo(subscribedTo)
+                .build();
+        UserSubscriptionPageResponse page = adminService.searchUserSubscriptions(criteria, limit, cursor);
         
         return ResponseEntity.ok(
-            ApiResponse.success("User subscriptions retrieved successfully", subscriptions)
+            ApiResponse.success("User subscriptions retrieved successfully", page)
         );
     }
 
@@ -327,4 +455,140 @@ public class AdminController {
             ApiResponse.success("Subscription status updated successfully", updated)
         );
     }
+
+    // Grant / activate / deactivate / toggle many subscriptions at once, applied in bounded batches
+    @PostMapping("/subscriptions/user-subscriptions/bulk")
+    public ResponseEntity<ApiResponse<BulkSubscriptionResult>> bulkUpdateUserSubscriptions(
+            @Valid @RequestBody BulkSubscriptionRequest request,
+            @AuthenticationPrincipal User user) {
+        
+        log.info("Admin {} running bulk {} on {} subscriptions", user.getUserId(), request.getAction(), request.getType());
+        
+        BulkSubscriptionResult result = bulkSubscriptionService.apply(request);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Bulk subscription update completed", result)
+        );
+    }
+
+    // ============ Bulk Catalog Import ============
+
+    // JSON tree of classes > subjects > topics, each optionally with a plan; dryRun validates without writing
+    @PostMapping(value = "/catalog/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<CatalogImportResult>> importCatalog(
+            @RequestBody CatalogImportRequest request,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            @AuthenticationPrincipal User user) {
+        
+        log.info("Admin {} importing catalog tree. Dry run: {}", user.getUserId(), dryRun);
+        
+        CatalogImportResult result = catalogImportService.importTree(request, dryRun);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Catalog import completed", result)
+        );
+    }
+
+    // CSV with record_type CLASS / SUBJECT / TOPIC / PLAN per row (see CatalogImportService.CSV_COLUMNS)
+    @PostMapping(value = "/catalog/import", consumes = "text/csv")
+    public ResponseEntity<ApiResponse<CatalogImportResult>> importCatalogCsv(
+            InputStream body,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            @AuthenticationPrincipal User user) throws IOException {
+        
+        log.info("Admin {} importing catalog CSV. Dry run: {}", user.getUserId(), dryRun);
+        
+        CatalogImportResult result = catalogImportService.importCsv(body, dryRun);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Catalog import completed", result)
+        );
+    }
+
+    // ============ Catalog Delete Jobs ============
+
+    @GetMapping("/catalog/delete-jobs")
+    public ResponseEntity<ApiResponse<List<CatalogDeleteJobDTO>>> getCatalogDeleteJobs() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Delete jobs retrieved successfully", catalogDeleteService.getRecentJobs())
+        );
+    }
+
+    @GetMapping("/catalog/delete-jobs/{jobId}")
+    public ResponseEntity<ApiResponse<CatalogDeleteJobDTO>> getCatalogDeleteJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(
+            ApiResponse.success("Delete job retrieved successfully", catalogDeleteService.getJob(jobId))
+        );
+    }
+
+    // ============ Audit Log ============
+
+    @GetMapping("/audit/plans")
+    public ResponseEntity<ApiResponse<List<PlanHistoryDTO>>> getPlanHistory(
+            @RequestParam(required = false) Long subscriptionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        List<PlanHistoryDTO> history = auditLogService.getPlanHistory(subscriptionId, from, to, limit);
+        return ResponseEntity.ok(
+            ApiResponse.success("Plan history retrieved successfully", history)
+        );
+    }
+
+    @GetMapping("/audit/user-subscriptions")
+    public ResponseEntity<ApiResponse<List<UserSubscriptionHistoryDTO>>> getUserSubscriptionHistory(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long subscriptionId,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        List<UserSubscriptionHistoryDTO> history = auditLogService.getUserSubscriptionHistory(
+                type, subscriptionId, customerId, from, to, limit);
+        return ResponseEntity.ok(
+            ApiResponse.success("User subscription history retrieved successfully", history)
+        );
+    }
+
+    // ============ Data Export ============
+
+    // Full dump, streamed row by row; format is csv (default) or ndjson
+    @GetMapping("/export/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) String format,
+            @AuthenticationPrincipal User user) {
+        
+        ExportFormat exportFormat = adminExportService.parseFormat(format);
+        log.info("Admin {} exporting users as {}", user.getUserId(), exportFormat);
+        
+        return exportResponse("users", exportFormat,
+                output -> adminExportService.exportUsers(exportFormat, output));
+    }
+
+    // type is SUBJECT, TOPIC, or omitted for both
+    @GetMapping("/export/subscriptions")
+    public ResponseEntity<StreamingResponseBody> exportSubscriptions(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String format,
+            @AuthenticationPrincipal User user) {
+        
+        // Both parameters are validated before the 200 and its headers go out
+        ExportFormat exportFormat = adminExportService.parseFormat(format);
+        String subscriptionType = adminExportService.parseSubscriptionType(type);
+        log.info("Admin {} exporting {} subscriptions as {}", user.getUserId(),
+                subscriptionType != null ? subscriptionType : "all", exportFormat);
+        
+        return exportResponse("subscriptions", exportFormat,
+                output -> adminExportService.exportSubscriptions(subscriptionType, exportFormat, output));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportFormat format, StreamingResponseBody body) {
+        boolean csv = format == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
 }
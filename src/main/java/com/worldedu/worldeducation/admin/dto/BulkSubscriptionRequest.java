@@ -0,0 +1,41 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import com.worldedu.worldeducation.enums.BulkSubscriptionAction;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Bulk grant / activate / deactivate / toggle of user subscriptions of one type.
+ *
+ * GRANT needs targetId and customerIds. The other actions match subscriptions by any combination
+ * of subscriptionIds, customerIds, targetId and the subscribed date range; at least one is required
+ * so a request can never touch a whole table by accident.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkSubscriptionRequest {
+    @NotNull(message = "Action is required")
+    private BulkSubscriptionAction action;
+
+    @NotBlank(message = "Subscription type is required")
+    private String type;
+
+    private Long targetId;
+
+    private Set<Long> customerIds;
+
+    private Set<Long> subscriptionIds;
+
+    private LocalDateTime subscribedFrom;
+
+    private LocalDateTime subscribedTo;
+}
@@ -0,0 +1,26 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import com.worldedu.worldeducation.enums.BulkSubscriptionAction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk subscription operation.
+ * For GRANT, created counts new rows and reactivated counts existing inactive rows switched on;
+ * for the other actions, updated counts rows whose is_active changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkSubscriptionResult {
+    private BulkSubscriptionAction action;
+    private String type;
+    private Integer created;
+    private Integer reactivated;
+    private Integer updated;
+    private Integer batches;
+    private Long durationMs;
+}
@@ -0,0 +1,35 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a background class / subject / topic delete.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogDeleteJobDTO {
+    private Long jobId;
+    private String targetType;
+    private Long targetId;
+    private String targetName;
+    private String requestedBy;
+    private String status;
+    private String phase;
+    private Long subjectsDeleted;
+    private Long topicsDeleted;
+    private Long contentsDeleted;
+    private Long plansDeleted;
+    private Long subscriptionsArchived;
+    private Long batches;
+    private Long throttledMs;
+    private String lastError;
+    private String createdAt;
+    private String startedAt;
+    private String updatedAt;
+    private String completedAt;
+}
@@ -0,0 +1,45 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class in a catalog import. A class that already exists (matched by name, case-insensitive)
+ * is reused as the parent of the nested subjects and only className is needed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportClass {
+    @NotBlank(message = "Class name is required")
+    @Size(min = 2, max = 100, message = "Class name must be between 2 and 100 characters")
+    private String className;
+
+    @NotNull(message = "Class number is required")
+    @Positive(message = "Class number must be positive")
+    private Integer classNumber;
+
+    @Size(max = 500, message = "Description must not exceed 500 characters")
+    private String description;
+
+    @Builder.Default
+    private Boolean isActive = true;
+
+    private CatalogImportPlan plan;
+
+    @Builder.Default
+    private List<CatalogImportSubject> subjects = new ArrayList<>();
+
+    /** Source line for CSV imports; null for JSON. */
+    private Integer line;
+}
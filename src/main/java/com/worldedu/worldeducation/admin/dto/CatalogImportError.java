@@ -0,0 +1,18 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected import row. source is "line N" for CSV or a JSON path such as "classes[0].subjects[2]".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportError {
+    private String source;
+    private String message;
+}
@@ -0,0 +1,52 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Subscription plan attached to a class, subject or topic in a catalog import.
+ * The target is the node the plan sits on.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportPlan {
+    @NotBlank(message = "Plan name is required")
+    @Size(min = 3, max = 100, message = "Plan name must be between 3 and 100 characters")
+    private String planName;
+
+    @NotNull(message = "Duration days is required")
+    @Positive(message = "Duration days must be positive")
+    private Integer durationDays;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    private BigDecimal price;
+
+    @NotBlank(message = "Currency is required")
+    @Size(min = 3, max = 3, message = "Currency must be 3 characters (e.g., USD, PKR)")
+    private String currency;
+
+    @Min(value = 0, message = "Grace period days cannot be negative")
+    private Integer gracePeriodDays;
+
+    @Min(value = 0, message = "Free days cannot be negative")
+    private Integer freeDays;
+
+    @Builder.Default
+    private Boolean isActive = true;
+
+    /** Source line for CSV imports; null for JSON. */
+    private Integer line;
+}
@@ -0,0 +1,21 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog tree for bulk import: classes > subjects > topics, each optionally carrying a plan.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportRequest {
+    @Builder.Default
+    private List<CatalogImportClass> classes = new ArrayList<>();
+}
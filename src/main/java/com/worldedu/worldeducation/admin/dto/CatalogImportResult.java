@@ -0,0 +1,28 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a catalog import. Valid rows are written even when others fail;
+ * with dryRun nothing is written and the counts are what would have been created.
+ * errors is capped — errorCount is the full total.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportResult {
+    private Boolean dryRun;
+    private Integer classesCreated;
+    private Integer subjectsCreated;
+    private Integer topicsCreated;
+    private Integer plansCreated;
+    private Integer errorCount;
+    private List<CatalogImportError> errors;
+    private Long durationMs;
+}
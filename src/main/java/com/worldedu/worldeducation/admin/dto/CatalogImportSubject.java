@@ -0,0 +1,39 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Subject in a catalog import. A subject that already exists under its class
+ * (matched by name, case-insensitive) is reused as the parent of the nested topics.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportSubject {
+    @NotBlank(message = "Subject name is required")
+    @Size(min = 2, max = 100, message = "Subject name must be between 2 and 100 characters")
+    private String subjectName;
+
+    @Size(max = 500, message = "Description must not exceed 500 characters")
+    private String description;
+
+    @Builder.Default
+    private Boolean isActive = true;
+
+    private CatalogImportPlan plan;
+
+    @Builder.Default
+    private List<CatalogImportTopic> topics = new ArrayList<>();
+
+    /** Source line for CSV imports; null for JSON. */
+    private Integer line;
+}
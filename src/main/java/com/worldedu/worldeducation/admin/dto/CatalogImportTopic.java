@@ -0,0 +1,36 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Topic in a catalog import. Must not already exist under its subject.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogImportTopic {
+    @NotBlank(message = "Topic name is required")
+    @Size(min = 2, max = 100, message = "Topic name must be between 2 and 100 characters")
+    private String topicName;
+
+    @Size(max = 500, message = "Description must not exceed 500 characters")
+    private String description;
+
+    private LocalDateTime publishDate;
+
+    @Builder.Default
+    private Boolean isActive = true;
+
+    private CatalogImportPlan plan;
+
+    /** Source line for CSV imports; null for JSON. */
+    private Integer line;
+}
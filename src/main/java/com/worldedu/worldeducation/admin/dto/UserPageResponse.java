@@ -0,0 +1,24 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the admin user listing.
+ * Pass nextCursor back as the cursor parameter (with the same filters and sort) to fetch the following page;
+ * it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPageResponse {
+    private List<UserDetailsDTO> users;
+    private Integer pageSize;
+    private Boolean hasMore;
+    private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import com.worldedu.worldeducation.enums.SignUpMethod;
+import com.worldedu.worldeducation.enums.UserCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for the admin user listing. Null fields are not applied.
+ * namePrefix matches the start of first or last name; emailPrefix the start of the email.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchCriteria {
+    private Boolean accountLocked;
+    private UserCategory userCategory;
+    private SignUpMethod signUpMethod;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private String namePrefix;
+    private String emailPrefix;
+}
@@ -0,0 +1,25 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import com.worldedu.worldeducation.subscription.dto.UserSubscriptionDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the admin user-subscription listing, newest first.
+ * Pass nextCursor back as the cursor parameter (with the same filters) to fetch the following page;
+ * it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSubscriptionPageResponse {
+    private List<UserSubscriptionDTO> subscriptions;
+    private Integer pageSize;
+    private Boolean hasMore;
+    private String nextCursor;
+}
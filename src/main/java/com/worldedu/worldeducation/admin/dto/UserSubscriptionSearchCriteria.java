@@ -0,0 +1,25 @@
+package com.worldedu.worldeducation.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for the admin user-subscription listing. Null fields are not applied.
+ * type is SUBJECT or TOPIC (null for both); targetId is a subjectId or topicId and requires type.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSubscriptionSearchCriteria {
+    private String type;
+    private Boolean active;
+    private Long customerId;
+    private Long targetId;
+    private LocalDateTime subscribedFrom;
+    private LocalDateTime subscribedTo;
+}
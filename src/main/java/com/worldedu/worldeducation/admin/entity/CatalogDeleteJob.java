@@ -0,0 +1,106 @@
+package com.worldedu.worldeducation.admin.entity;
+
+import com.worldedu.worldeducation.enums.CatalogDeleteJobStatus;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan.TargetType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A class, subject or topic removal queued for the background delete worker.
+ * Counters are updated after every batch so progress can be polled while it runs.
+ */
+@Entity
+@Table(name = "catalog_delete_jobs", indexes = {
+        @Index(name = "idx_catalog_delete_jobs_status", columnList = "status, job_id"),
+        @Index(name = "idx_catalog_delete_jobs_target", columnList = "target_type, target_id"),
+        @Index(name = "idx_catalog_delete_jobs_claim", columnList = "claim_token")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogDeleteJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 20)
+    private TargetType targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "target_name")
+    private String targetName;
+
+    @Column(name = "requested_by", length = 100)
+    private String requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private CatalogDeleteJobStatus status = CatalogDeleteJobStatus.PENDING;
+
+    // Step currently being worked on, e.g. "TOPIC 42: contents"
+    @Column(name = "phase", length = 100)
+    private String phase;
+
+    @Column(name = "subjects_deleted", nullable = false)
+    private Long subjectsDeleted = 0L;
+
+    @Column(name = "topics_deleted", nullable = false)
+    private Long topicsDeleted = 0L;
+
+    @Column(name = "contents_deleted", nullable = false)
+    private Long contentsDeleted = 0L;
+
+    @Column(name = "plans_deleted", nullable = false)
+    private Long plansDeleted = 0L;
+
+    @Column(name = "subscriptions_archived", nullable = false)
+    private Long subscriptionsArchived = 0L;
+
+    @Column(name = "batches", nullable = false)
+    private Long batches = 0L;
+
+    // Time spent sleeping to stay under app.catalog-delete.max-rows-per-second
+    @Column(name = "throttled_ms", nullable = false)
+    private Long throttledMs = 0L;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
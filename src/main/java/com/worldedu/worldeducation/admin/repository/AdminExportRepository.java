@@ -0,0 +1,90 @@
+package com.worldedu.worldeducation.admin.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Forward-only JDBC reads for the admin exports.
+ *
+ * Statements are TYPE_FORWARD_ONLY / CONCUR_READ_ONLY with fetch size Integer.MIN_VALUE,
+ * which makes MySQL Connector/J stream rows off the socket one at a time instead of
+ * buffering the whole result. Names are joined in SQL so no per-row lookups are needed.
+ * The connection stays checked out until the callback has consumed the last row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AdminExportRepository {
+
+    public static final String[] USER_COLUMNS = {
+            "customer_id", "user_id", "user_category", "signup_method", "account_locked",
+            "created_at", "last_login_at", "first_name", "last_name", "email", "mobile_no",
+            "country", "state", "city"
+    };
+
+    public static final String[] SUBSCRIPTION_COLUMNS = {
+            "subscription_type", "subscription_id", "customer_id", "user_id", "first_name", "last_name",
+            "email", "class_id", "class_name", "subject_id", "subject_name", "topic_id", "topic_name",
+            "subscribed_at", "is_active"
+    };
+
+    private static final String USERS_SQL =
+            "SELECT u.customer_id, u.user_id, u.user_category, u.signUp_method, u.account_locked, " +
+            "u.created_at, u.last_login_at, p.first_name, p.last_name, p.email, p.mobile_no, " +
+            "p.country, p.state, p.city " +
+            "FROM users u LEFT JOIN users_profile p ON p.customer_id = u.customer_id " +
+            "ORDER BY u.customer_id";
+
+    private static final String SUBJECT_SUBSCRIPTIONS_SQL =
+            "SELECT 'SUBJECT', s.subscription_id, s.customer_id, u.user_id, p.first_name, p.last_name, " +
+            "p.email, c.class_id, c.class_name, sub.subject_id, sub.subject_name, NULL, NULL, " +
+            "s.subscribed_at, s.is_active " +
+            "FROM user_subject_subscriptions s " +
+            "LEFT JOIN users u ON u.customer_id = s.customer_id " +
+            "LEFT JOIN users_profile p ON p.customer_id = s.customer_id " +
+            "LEFT JOIN ed_subjects sub ON sub.subject_id = s.subject_id " +
+            "LEFT JOIN ed_classes c ON c.class_id = sub.class_id " +
+            "ORDER BY s.subscription_id";
+
+    private static final String TOPIC_SUBSCRIPTIONS_SQL =
+            "SELECT 'TOPIC', s.subscription_id, s.customer_id, u.user_id, p.first_name, p.last_name, " +
+            "p.email, c.class_id, c.class_name, sub.subject_id, sub.subject_name, t.topic_id, t.topic_name, " +
+            "s.subscribed_at, s.is_active " +
+            "FROM user_topic_subscriptions s " +
+            "LEFT JOIN users u ON u.customer_id = s.customer_id " +
+            "LEFT JOIN users_profile p ON p.customer_id = s.customer_id " +
+            "LEFT JOIN ed_topics t ON t.topic_id = s.topic_id " +
+            "LEFT JOIN ed_subjects sub ON sub.subject_id = t.subject_id " +
+            "LEFT JOIN ed_classes c ON c.class_id = sub.class_id " +
+            "ORDER BY s.subscription_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Rows in {@link #USER_COLUMNS} order. */
+    public void streamUsers(RowCallbackHandler handler) {
+        stream(USERS_SQL, handler);
+    }
+
+    /** Rows in {@link #SUBSCRIPTION_COLUMNS} order. */
+    public void streamSubjectSubscriptions(RowCallbackHandler handler) {
+        stream(SUBJECT_SUBSCRIPTIONS_SQL, handler);
+    }
+
+    /** Rows in {@link #SUBSCRIPTION_COLUMNS} order. */
+    public void streamTopicSubscriptions(RowCallbackHandler handler) {
+        stream(TOPIC_SUBSCRIPTIONS_SQL, handler);
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            return ps;
+        }, handler);
+    }
+}
@@ -0,0 +1,97 @@
+package com.worldedu.worldeducation.admin.repository;
+
+import com.worldedu.worldeducation.admin.dto.UserSubscriptionSearchCriteria;
+import com.worldedu.worldeducation.subject.entity.UserSubjectSubscription;
+import com.worldedu.worldeducation.topic.entity.UserTopicSubscription;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtered, keyset-paginated reads over user_subject_subscriptions and user_topic_subscriptions,
+ * newest first by (subscribedAt, subscriptionId).
+ *
+ * Like {@link AdminUserQueryRepository}, only the filters that are set make it into the JPQL.
+ *
+ * Rows without a subscribed_at (written before the column was filled on insert) sort as if
+ * subscribed at {@link #UNDATED}: after every dated row, newest id first. That is where MySQL
+ * already puts NULL in a DESC order, so the index still serves it; the keyset predicate lets
+ * them follow the dated rows, and a cursor at UNDATED pages within them by id.
+ */
+@Repository
+public class AdminSubscriptionQueryRepository {
+
+    /** Sort position of a row with no subscribed_at, and the cursor timestamp for one. */
+    public static final LocalDateTime UNDATED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Subject subscriptions strictly after (afterSubscribedAt, afterId) in descending order.
+     * Pass null afterSubscribedAt for the first page.
+     */
+    public List<UserSubjectSubscription> findSubjectPage(UserSubscriptionSearchCriteria criteria,
+                                                         LocalDateTime afterSubscribedAt, Long afterId, int limit) {
+        return findPage(UserSubjectSubscription.class, "subjectId", criteria, afterSubscribedAt, afterId, limit);
+    }
+
+    /**
+     * Topic subscriptions strictly after (afterSubscribedAt, afterId) in descending order.
+     * Pass null afterSubscribedAt for the first page.
+     */
+    public List<UserTopicSubscription> findTopicPage(UserSubscriptionSearchCriteria criteria,
+                                                     LocalDateTime afterSubscribedAt, Long afterId, int limit) {
+        return findPage(UserTopicSubscription.class, "topicId", criteria, afterSubscribedAt, afterId, limit);
+    }
+
+    private <T> List<T> findPage(Class<T> entity, String targetField, UserSubscriptionSearchCriteria criteria,
+                                 LocalDateTime afterSubscribedAt, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT s FROM ")
+                .append(entity.getSimpleName()).append(" s WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (criteria.getActive() != null) {
+            jpql.append(" AND s.isActive = :active");
+            params.put("active", criteria.getActive());
+        }
+        if (criteria.getCustomerId() != null) {
+            jpql.append(" AND s.customerId = :customerId");
+            params.put("customerId", criteria.getCustomerId());
+        }
+        if (criteria.getTargetId() != null) {
+            jpql.append(" AND s.").append(targetField).append(" = :targetId");
+            params.put("targetId", criteria.getTargetId());
+        }
+        if (criteria.getSubscribedFrom() != null) {
+            jpql.append(" AND s.subscribedAt >= :subscribedFrom");
+            params.put("subscribedFrom", criteria.getSubscribedFrom());
+        }
+        if (criteria.getSubscribedTo() != null) {
+            jpql.append(" AND s.subscribedAt < :subscribedTo");
+            params.put("subscribedTo", criteria.getSubscribedTo());
+        }
+        if (UNDATED.equals(afterSubscribedAt)) {
+            jpql.append(" AND s.subscribedAt IS NULL AND s.subscriptionId < :afterId");
+            params.put("afterId", afterId);
+        } else if (afterSubscribedAt != null) {
+            jpql.append(" AND (s.subscribedAt < :afterAt OR (s.subscribedAt = :afterAt AND s.subscriptionId < :afterId)" +
+                    " OR s.subscribedAt IS NULL)");
+            params.put("afterAt", afterSubscribedAt);
+            params.put("afterId", afterId);
+        }
+        // MySQL sorts NULL last in DESC, i.e. the undated rows come after every dated one
+        jpql.append(" ORDER BY s.subscribedAt DESC, s.subscriptionId DESC");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), entity);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
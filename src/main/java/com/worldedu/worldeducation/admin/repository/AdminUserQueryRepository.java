@@ -0,0 +1,123 @@
+package com.worldedu.worldeducation.admin.repository;
+
+import com.worldedu.worldeducation.admin.dto.UserSearchCriteria;
+import com.worldedu.worldeducation.auth.entity.User;
+import com.worldedu.worldeducation.auth.entity.UserProfile;
+import com.worldedu.worldeducation.enums.UserSortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtered, keyset-paginated user listing for the admin panel.
+ *
+ * The JPQL is assembled from only the filters that are set, so MySQL sees plain
+ * predicates it can match against the users indexes instead of "(:x IS NULL OR ...)" chains.
+ * Pages continue strictly after the (sort value, customerId) of the previous page's last row,
+ * which keeps deep pages as cheap as the first one.
+ */
+@Repository
+public class AdminUserQueryRepository {
+
+    /** A user and its profile (null when the profile row is missing). */
+    public record UserRow(User user, UserProfile profile) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param afterValue sort value of the previous page's last row (LocalDateTime for CREATED_AT,
+     *                   String for USER_ID, ignored for CUSTOMER_ID); null together with afterId for the first page
+     * @param afterId    customerId of the previous page's last row
+     */
+    public List<UserRow> findPage(UserSearchCriteria criteria, UserSortField sort, boolean ascending,
+                                  Object afterValue, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT u, p FROM User u LEFT JOIN UserProfile p ON p.customerId = u.customerId WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (criteria.getAccountLocked() != null) {
+            jpql.append(" AND u.accountLocked = :locked");
+            params.put("locked", criteria.getAccountLocked());
+        }
+        if (criteria.getUserCategory() != null) {
+            jpql.append(" AND u.userCategory = :category");
+            params.put("category", criteria.getUserCategory());
+        }
+        if (criteria.getSignUpMethod() != null) {
+            jpql.append(" AND u.signUpMethod = :signUpMethod");
+            params.put("signUpMethod", criteria.getSignUpMethod());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            jpql.append(" AND u.createdAt >= :createdFrom");
+            params.put("createdFrom", criteria.getCreatedFrom());
+        }
+        if (criteria.getCreatedTo() != null) {
+            jpql.append(" AND u.createdAt < :createdTo");
+            params.put("createdTo", criteria.getCreatedTo());
+        }
+        if (hasText(criteria.getNamePrefix())) {
+            jpql.append(" AND (p.firstName LIKE :namePrefix ESCAPE '\\' OR p.lastName LIKE :namePrefix ESCAPE '\\')");
+            params.put("namePrefix", likePrefix(criteria.getNamePrefix()));
+        }
+        if (hasText(criteria.getEmailPrefix())) {
+            jpql.append(" AND p.email LIKE :emailPrefix ESCAPE '\\'");
+            params.put("emailPrefix", likePrefix(criteria.getEmailPrefix()));
+        }
+
+        String cmp = ascending ? ">" : "<";
+        String dir = ascending ? "ASC" : "DESC";
+        String column = switch (sort) {
+            case CREATED_AT -> "u.createdAt";
+            case USER_ID -> "u.userId";
+            case CUSTOMER_ID -> null;
+        };
+
+        if (afterId != null) {
+            if (column == null) {
+                jpql.append(" AND u.customerId ").append(cmp).append(" :afterId");
+            } else {
+                jpql.append(" AND (").append(column).append(' ').append(cmp).append(" :afterValue OR (")
+                        .append(column).append(" = :afterValue AND u.customerId ").append(cmp).append(" :afterId))");
+                params.put("afterValue", afterValue);
+            }
+            params.put("afterId", afterId);
+        }
+
+        jpql.append(" ORDER BY ");
+        if (column != null) {
+            jpql.append(column).append(' ').append(dir).append(", ");
+        }
+        jpql.append("u.customerId ").append(dir);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+
+        List<Object[]> rows = query.getResultList();
+        List<UserRow> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new UserRow((User) row[0], (UserProfile) row[1]));
+        }
+        return result;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /** Escape LIKE wildcards in user input so the prefix is matched literally. */
+    private static String likePrefix(String value) {
+        return value.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,184 @@
+package com.worldedu.worldeducation.admin.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based statements behind the bulk subscription API.
+ *
+ * Both subscription tables share a layout, so every statement is written once and pointed
+ * at user_subject_subscriptions / subject_id or user_topic_subscriptions / topic_id via {@link Table}.
+ * Callers bound each statement to one batch of ids and run it in its own transaction.
+ *
+ * Each change is written to user_subscription_history by an INSERT ... SELECT in the same
+ * transaction. The history insert for an update runs first: it reads the rows' state before
+ * the change and takes shared locks on them (InnoDB, REPEATABLE READ), so the update that
+ * follows changes exactly the rows it recorded.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BulkSubscriptionRepository {
+
+    public enum Table {
+        SUBJECT("user_subject_subscriptions", "subject_id"),
+        TOPIC("user_topic_subscriptions", "topic_id");
+
+        private final String table;
+        private final String targetColumn;
+
+        Table(String table, String targetColumn) {
+            this.table = table;
+            this.targetColumn = targetColumn;
+        }
+    }
+
+    /** Matching filters for ACTIVATE / DEACTIVATE / TOGGLE. Null fields are not applied. */
+    public record Filter(Collection<Long> subscriptionIds, Collection<Long> customerIds, Long targetId,
+                         LocalDateTime subscribedFrom, LocalDateTime subscribedTo) {
+    }
+
+    /** Who made a change, when, and why, stamped on every history row of one batch. */
+    public record Audit(Long changedBy, LocalDateTime changedAt, String reason) {
+    }
+
+    /** Active and total subscriptions on one target among a batch of ids. */
+    public record TargetCount(Long targetId, long active, long total) {
+    }
+
+    private static final String INSERT_HISTORY =
+            "INSERT INTO user_subscription_history (subscription_type, user_subscription_id, customer_id, " +
+            "old_state, new_state, change_reason, changed_by, changed_at) ";
+
+    private static final String STATE = "CASE WHEN is_active THEN 'ACTIVE' ELSE 'INACTIVE' END";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Next batch of matching subscription ids after afterId, in id order.
+     * onlyActive restricts to rows whose is_active equals it (null for any).
+     */
+    public List<Long> findIdBatch(Table table, Filter filter, Boolean onlyActive, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT subscription_id FROM ").append(table.table)
+                .append(" WHERE subscription_id > :afterId");
+        MapSqlParameterSource params = new MapSqlParameterSource("afterId", afterId);
+
+        if (filter.subscriptionIds() != null) {
+            sql.append(" AND subscription_id IN (:subscriptionIds)");
+            params.addValue("subscriptionIds", filter.subscriptionIds());
+        }
+        if (filter.customerIds() != null) {
+            sql.append(" AND customer_id IN (:customerIds)");
+            params.addValue("customerIds", filter.customerIds());
+        }
+        if (filter.targetId() != null) {
+            sql.append(" AND ").append(table.targetColumn).append(" = :targetId");
+            params.addValue("targetId", filter.targetId());
+        }
+        if (filter.subscribedFrom() != null) {
+            sql.append(" AND subscribed_at >= :subscribedFrom");
+            params.addValue("subscribedFrom", Timestamp.valueOf(filter.subscribedFrom()));
+        }
+        if (filter.subscribedTo() != null) {
+            sql.append(" AND subscribed_at < :subscribedTo");
+            params.addValue("subscribedTo", Timestamp.valueOf(filter.subscribedTo()));
+        }
+        if (onlyActive != null) {
+            sql.append(" AND is_active = :onlyActive");
+            params.addValue("onlyActive", onlyActive);
+        }
+        sql.append(" ORDER BY subscription_id LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return jdbcTemplate.queryForList(sql.toString(), params, Long.class);
+    }
+
+    /**
+     * Active and total subscriptions per target among the given ids. The rows are read with
+     * shared locks, so the update that follows in the same transaction starts from exactly
+     * the state counted here.
+     */
+    public List<TargetCount> countByTarget(Table table, Collection<Long> subscriptionIds) {
+        return jdbcTemplate.query("SELECT " + table.targetColumn + " AS target_id, " +
+                        "SUM(CASE WHEN is_active THEN 1 ELSE 0 END) AS active, COUNT(*) AS total " +
+                        "FROM " + table.table + " WHERE subscription_id IN (:ids) " +
+                        "GROUP BY " + table.targetColumn + " FOR SHARE",
+                new MapSqlParameterSource("ids", subscriptionIds),
+                (rs, rowNum) -> new TargetCount(rs.getLong("target_id"), rs.getLong("active"), rs.getLong("total")));
+    }
+
+    /** Set is_active on the given ids; returns rows whose value actually changed. */
+    public int setActive(Table table, Collection<Long> subscriptionIds, boolean active, Audit audit) {
+        jdbcTemplate.update(INSERT_HISTORY +
+                        "SELECT :type, subscription_id, customer_id, " + STATE + ", :newState, :reason, :changedBy, :changedAt " +
+                        "FROM " + table.table + " WHERE subscription_id IN (:ids) AND is_active <> :active",
+                history(table, audit).addValue("ids", subscriptionIds).addValue("active", active)
+                        .addValue("newState", active ? "ACTIVE" : "INACTIVE"));
+        return jdbcTemplate.update("UPDATE " + table.table + " SET is_active = :active " +
+                        "WHERE subscription_id IN (:ids) AND is_active <> :active",
+                new MapSqlParameterSource("ids", subscriptionIds).addValue("active", active));
+    }
+
+    public int toggleActive(Table table, Collection<Long> subscriptionIds, Audit audit) {
+        jdbcTemplate.update(INSERT_HISTORY +
+                        "SELECT :type, subscription_id, customer_id, " + STATE + ", " +
+                        "CASE WHEN is_active THEN 'INACTIVE' ELSE 'ACTIVE' END, :reason, :changedBy, :changedAt " +
+                        "FROM " + table.table + " WHERE subscription_id IN (:ids)",
+                history(table, audit).addValue("ids", subscriptionIds));
+        return jdbcTemplate.update("UPDATE " + table.table + " SET is_active = NOT is_active " +
+                        "WHERE subscription_id IN (:ids)",
+                new MapSqlParameterSource("ids", subscriptionIds));
+    }
+
+    /** Switch existing inactive subscriptions to the target back on for these customers. */
+    public int reactivate(Table table, Long targetId, Collection<Long> customerIds, Audit audit) {
+        jdbcTemplate.update(INSERT_HISTORY +
+                        "SELECT :type, subscription_id, customer_id, 'INACTIVE', 'ACTIVE', :reason, :changedBy, :changedAt " +
+                        "FROM " + table.table + " WHERE " + table.targetColumn + " = :targetId " +
+                        "AND customer_id IN (:customerIds) AND is_active = false",
+                history(table, audit).addValue("targetId", targetId).addValue("customerIds", customerIds));
+        return jdbcTemplate.update("UPDATE " + table.table + " SET is_active = true " +
+                        "WHERE " + table.targetColumn + " = :targetId AND customer_id IN (:customerIds) AND is_active = false",
+                new MapSqlParameterSource("targetId", targetId).addValue("customerIds", customerIds));
+    }
+
+    /**
+     * Insert an active subscription to the target for each of these customers that exists
+     * and has no subscription row for it yet. The new rows are found again for the history
+     * by their subscribed_at, so customerIds must not repeat ids from an earlier batch of the
+     * same grant.
+     */
+    public int insertMissing(Table table, Long targetId, Collection<Long> customerIds, LocalDateTime subscribedAt,
+                             Audit audit) {
+        int created = jdbcTemplate.update("INSERT INTO " + table.table +
+                        " (customer_id, " + table.targetColumn + ", subscribed_at, is_active) " +
+                        "SELECT u.customer_id, :targetId, :subscribedAt, true FROM users u " +
+                        "WHERE u.customer_id IN (:customerIds) AND NOT EXISTS (SELECT 1 FROM " + table.table + " s " +
+                        "WHERE s.customer_id = u.customer_id AND s." + table.targetColumn + " = :targetId)",
+                new MapSqlParameterSource("targetId", targetId)
+                        .addValue("subscribedAt", Timestamp.valueOf(subscribedAt))
+                        .addValue("customerIds", customerIds));
+        if (created == 0) return 0;
+
+        jdbcTemplate.update(INSERT_HISTORY +
+                        "SELECT :type, subscription_id, customer_id, NULL, 'ACTIVE', :reason, :changedBy, :changedAt " +
+                        "FROM " + table.table + " WHERE " + table.targetColumn + " = :targetId " +
+                        "AND customer_id IN (:customerIds) AND subscribed_at = :subscribedAt",
+                history(table, audit).addValue("targetId", targetId).addValue("customerIds", customerIds)
+                        .addValue("subscribedAt", Timestamp.valueOf(subscribedAt)));
+        return created;
+    }
+
+    private static MapSqlParameterSource history(Table table, Audit audit) {
+        return new MapSqlParameterSource("type", table.name())
+                .addValue("reason", audit.reason())
+                .addValue("changedBy", audit.changedBy())
+                .addValue("changedAt", Timestamp.valueOf(audit.changedAt()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.worldedu.worldeducation.admin.repository;
+
+import com.worldedu.worldeducation.admin.entity.CatalogDeleteJob;
+import com.worldedu.worldeducation.enums.CatalogDeleteJobStatus;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan.TargetType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CatalogDeleteJobRepository extends JpaRepository<CatalogDeleteJob, Long> {
+
+    Optional<CatalogDeleteJob> findByClaimToken(String claimToken);
+
+    Optional<CatalogDeleteJob> findFirstByTargetTypeAndTargetIdAndStatusIn(TargetType targetType, Long targetId,
+                                                                           Collection<CatalogDeleteJobStatus> statuses);
+
+    List<CatalogDeleteJob> findTop100ByOrderByJobIdDesc();
+
+    /**
+     * Claim the oldest queued job for one worker. A job left RUNNING by a crashed node
+     * becomes claimable again once its lease runs out, and resumes from what is left.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "catalog_delete_jobs"))
+    @Query(value = "UPDATE catalog_delete_jobs SET status = 'RUNNING', claim_token = :token, locked_until = :lease, " +
+                   "started_at = COALESCE(started_at, :now), updated_at = :now " +
+                   "WHERE status = 'PENDING' OR (status = 'RUNNING' AND locked_until < :now) " +
+                   "ORDER BY job_id LIMIT 1", nativeQuery = true)
+    int claimNext(@Param("token") String token,
+                  @Param("now") LocalDateTime now,
+                  @Param("lease") LocalDateTime lease);
+}
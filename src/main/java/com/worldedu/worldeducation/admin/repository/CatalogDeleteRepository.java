@@ -0,0 +1,109 @@
+package com.worldedu.worldeducation.admin.repository;
+
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan.TargetType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bounded statements behind the background catalog delete.
+ *
+ * Every method touches at most one batch of rows, located through an index on the parent
+ * column, so each can run in its own short transaction without locking a whole subtree.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogDeleteRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Long> findSubjectIds(Long classId, long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT subject_id FROM ed_subjects " +
+                        "WHERE class_id = :parentId AND subject_id > :afterId ORDER BY subject_id LIMIT :limit",
+                new MapSqlParameterSource("parentId", classId).addValue("afterId", afterId).addValue("limit", limit),
+                Long.class);
+    }
+
+    public List<Long> findTopicIds(Long subjectId, long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT topic_id FROM ed_topics " +
+                        "WHERE subject_id = :parentId AND topic_id > :afterId ORDER BY topic_id LIMIT :limit",
+                new MapSqlParameterSource("parentId", subjectId).addValue("afterId", afterId).addValue("limit", limit),
+                Long.class);
+    }
+
+    /** Delete up to limit content rows (and their blobs) of a topic. */
+    public int deleteContents(Long topicId, int limit) {
+        return jdbcTemplate.update("DELETE FROM topic_contents WHERE topic_id = :topicId ORDER BY content_id LIMIT :limit",
+                new MapSqlParameterSource("topicId", topicId).addValue("limit", limit));
+    }
+
+    /**
+     * Move up to limit subscriptions to a subject or topic into archived_user_subscriptions,
+     * with an ARCHIVED row per subscription in user_subscription_history.
+     * Must run inside a transaction so the copies and the delete commit together.
+     */
+    public int archiveSubscriptions(TargetType type, Long targetId, Long jobId, LocalDateTime archivedAt, int limit) {
+        String table = subscriptionTable(type);
+        String targetColumn = targetColumn(type);
+        MapSqlParameterSource params = new MapSqlParameterSource("targetId", targetId).addValue("limit", limit);
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT subscription_id FROM " + table +
+                " WHERE " + targetColumn + " = :targetId LIMIT :limit", params, Long.class);
+        if (ids.isEmpty()) return 0;
+
+        params.addValue("ids", ids)
+                .addValue("type", type.name())
+                .addValue("jobId", jobId)
+                .addValue("archivedAt", Timestamp.valueOf(archivedAt));
+        jdbcTemplate.update("INSERT INTO archived_user_subscriptions " +
+                "(subscription_type, subscription_id, customer_id, target_id, subscribed_at, is_active, archived_at, delete_job_id) " +
+                "SELECT :type, subscription_id, customer_id, " + targetColumn + ", subscribed_at, is_active, :archivedAt, :jobId " +
+                "FROM " + table + " WHERE subscription_id IN (:ids)", params);
+        params.addValue("reason", "Catalog delete job " + jobId);
+        jdbcTemplate.update("INSERT INTO user_subscription_history " +
+                "(subscription_type, user_subscription_id, customer_id, old_state, new_state, change_reason, changed_by, changed_at) " +
+                "SELECT :type, subscription_id, customer_id, CASE WHEN is_active THEN 'ACTIVE' ELSE 'INACTIVE' END, " +
+                "'ARCHIVED', :reason, NULL, :archivedAt " +
+                "FROM " + table + " WHERE subscription_id IN (:ids)", params);
+        return jdbcTemplate.update("DELETE FROM " + table + " WHERE subscription_id IN (:ids)", params);
+    }
+
+    /** Plans are few per target, so they go in one statement. */
+    public int deletePlans(TargetType type, Long targetId) {
+        return jdbcTemplate.update("DELETE FROM subscription_plans WHERE target_type = :type AND " +
+                        targetColumn(type) + " = :targetId",
+                new MapSqlParameterSource("type", type.name()).addValue("targetId", targetId));
+    }
+
+    /** Delete the class, subject or topic row itself once its children are gone. */
+    public int deleteTarget(TargetType type, Long targetId) {
+        String table = switch (type) {
+            case CLASS -> "ed_classes";
+            case SUBJECT -> "ed_subjects";
+            case TOPIC -> "ed_topics";
+        };
+        return jdbcTemplate.update("DELETE FROM " + table + " WHERE " + targetColumn(type) + " = :targetId",
+                new MapSqlParameterSource("targetId", targetId));
+    }
+
+    private static String subscriptionTable(TargetType type) {
+        return switch (type) {
+            case SUBJECT -> "user_subject_subscriptions";
+            case TOPIC -> "user_topic_subscriptions";
+            case CLASS -> throw new IllegalArgumentException("Subscriptions are held on subjects and topics only");
+        };
+    }
+
+    private static String targetColumn(TargetType type) {
+        return switch (type) {
+            case CLASS -> "class_id";
+            case SUBJECT -> "subject_id";
+            case TOPIC -> "topic_id";
+        };
+    }
+}
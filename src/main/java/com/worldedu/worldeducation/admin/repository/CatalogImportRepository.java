@@ -0,0 +1,141 @@
+package com.worldedu.worldeducation.admin.repository;
+
+import com.worldedu.worldeducation.subject.entity.EdClass;
+import com.worldedu.worldeducation.subject.entity.EdSubject;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan;
+import com.worldedu.worldeducation.topic.entity.EdTopic;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC batch inserts for the bulk catalog import.
+ *
+ * Each call sends one batch (rewritten into multi-row INSERTs by Connector/J when
+ * rewriteBatchedStatements=true) and writes the generated IDENTITY keys back onto the
+ * passed entities, which are plain carriers here and never attached to the persistence context.
+ * Callers run these inside their own transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogImportRepository {
+
+    private static final String INSERT_CLASS =
+            "INSERT INTO ed_classes (class_name, class_number, is_active, description, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SUBJECT =
+            "INSERT INTO ed_subjects (class_id, subject_name, is_active, description, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TOPIC =
+            "INSERT INTO ed_topics (subject_id, topic_name, publish_date, is_active, description, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PLAN =
+            "INSERT INTO subscription_plans (plan_name, target_type, class_id, subject_id, topic_id, duration_days, " +
+            "price, currency, grace_period_days, free_days, is_active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertClasses(List<EdClass> classes) {
+        insert(INSERT_CLASS, classes, (ps, cls) -> {
+            ps.setString(1, cls.getClassName());
+            setNullable(ps, 2, cls.getClassNumber(), Types.INTEGER);
+            setNullable(ps, 3, cls.getIsActive(), Types.BOOLEAN);
+            ps.setString(4, cls.getDescription());
+            ps.setTimestamp(5, Timestamp.valueOf(cls.getCreatedAt()));
+        }, EdClass::setClassId);
+    }
+
+    public void insertSubjects(List<EdSubject> subjects) {
+        insert(INSERT_SUBJECT, subjects, (ps, subject) -> {
+            ps.setLong(1, subject.getClassId());
+            ps.setString(2, subject.getSubjectName());
+            setNullable(ps, 3, subject.getIsActive(), Types.BOOLEAN);
+            ps.setString(4, subject.getDescription());
+            ps.setTimestamp(5, Timestamp.valueOf(subject.getCreatedAt()));
+        }, EdSubject::setSubjectId);
+    }
+
+    public void insertTopics(List<EdTopic> topics) {
+        insert(INSERT_TOPIC, topics, (ps, topic) -> {
+            ps.setLong(1, topic.getSubjectId());
+            ps.setString(2, topic.getTopicName());
+            ps.setTimestamp(3, topic.getPublishDate() != null ? Timestamp.valueOf(topic.getPublishDate()) : null);
+            setNullable(ps, 4, topic.getIsActive(), Types.BOOLEAN);
+            ps.setString(5, topic.getDescription());
+            ps.setTimestamp(6, Timestamp.valueOf(topic.getCreatedAt()));
+        }, EdTopic::setTopicId);
+    }
+
+    public void insertPlans(List<SubscriptionPlan> plans) {
+        insert(INSERT_PLAN, plans, (ps, plan) -> {
+            ps.setString(1, plan.getPlanName());
+            ps.setString(2, plan.getTargetType().name());
+            setNullable(ps, 3, plan.getClassId(), Types.BIGINT);
+            setNullable(ps, 4, plan.getSubjectId(), Types.BIGINT);
+            setNullable(ps, 5, plan.getTopicId(), Types.BIGINT);
+            setNullable(ps, 6, plan.getDurationDays(), Types.INTEGER);
+            ps.setBigDecimal(7, plan.getPrice());
+            ps.setString(8, plan.getCurrency());
+            setNullable(ps, 9, plan.getGracePeriodDays(), Types.INTEGER);
+            setNullable(ps, 10, plan.getFreeDays(), Types.INTEGER);
+            setNullable(ps, 11, plan.getIsActive(), Types.BOOLEAN);
+            ps.setTimestamp(12, Timestamp.valueOf(plan.getCreatedAt()));
+            ps.setTimestamp(13, Timestamp.valueOf(plan.getUpdatedAt()));
+        }, SubscriptionPlan::setSubscriptionId);
+    }
+
+    @FunctionalInterface
+    private interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    private <T> void insert(String sql, List<T> rows, Binder<T> binder, BiConsumer<T, Long> keySetter) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (T row : rows) {
+                    binder.bind(ps, row);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                int i = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next() && i < rows.size()) {
+                        keySetter.accept(rows.get(i++), keys.getLong(1));
+                    }
+                }
+                if (i != rows.size()) {
+                    throw new SQLException("Expected " + rows.size() + " generated keys but got " + i);
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else if (value instanceof Long l) {
+            ps.setLong(index, l);
+        } else if (value instanceof Integer n) {
+            ps.setInt(index, n);
+        } else if (value instanceof Boolean b) {
+            ps.setBoolean(index, b);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+}
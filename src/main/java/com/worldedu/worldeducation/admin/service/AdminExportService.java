@@ -0,0 +1,119 @@
+package com.worldedu.worldeducation.admin.service;
+
+import com.worldedu.worldeducation.admin.repository.AdminExportRepository;
+import com.worldedu.worldeducation.admin.util.ExportRowWriter;
+import com.worldedu.worldeducation.enums.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Streams full user and subscription dumps straight from a JDBC cursor to the response.
+ * Memory use is one row plus the output buffer, whatever the table size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminExportService {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final AdminExportRepository adminExportRepository;
+
+    public ExportFormat parseFormat(String format) {
+        if (format == null || format.isBlank()) return ExportFormat.CSV;
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid export format: " + format);
+        }
+    }
+
+    /**
+     * Normalise the subscription export type: SUBJECT, TOPIC, or null for both.
+     * Called before the response starts, so a bad value is still a 400.
+     */
+    public String parseSubscriptionType(String type) {
+        if (type == null || type.isBlank()) return null;
+        String normalized = type.trim().toUpperCase(Locale.ROOT);
+        if (!normalized.equals("SUBJECT") && !normalized.equals("TOPIC")) {
+            throw new IllegalArgumentException("Invalid subscription type: " + type);
+        }
+        return normalized;
+    }
+
+    public void exportUsers(ExportFormat format, OutputStream output) throws IOException {
+        long start = System.currentTimeMillis();
+        long rows = write(output, format, AdminExportRepository.USER_COLUMNS, adminExportRepository::streamUsers);
+        log.info("Exported {} users as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @param type SUBJECT, TOPIC, or null for both (subject rows first), as returned by {@link #parseSubscriptionType}
+     */
+    public void exportSubscriptions(String type, ExportFormat format, OutputStream output) throws IOException {
+        boolean subjects = type == null || "SUBJECT".equals(type);
+        boolean topics = type == null || "TOPIC".equals(type);
+
+        long start = System.currentTimeMillis();
+        long rows = write(output, format, AdminExportRepository.SUBSCRIPTION_COLUMNS, handler -> {
+            if (subjects) adminExportRepository.streamSubjectSubscriptions(handler);
+            if (topics) adminExportRepository.streamTopicSubscriptions(handler);
+        });
+        log.info("Exported {} subscriptions (type: {}) as {} in {} ms",
+                rows, type != null ? type : "ALL", format, System.currentTimeMillis() - start);
+    }
+
+    // ============ Helper Methods ============
+
+    private long write(OutputStream output, ExportFormat format, String[] columns,
+                       Consumer<RowCallbackHandler> source) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+        ExportRowWriter rowWriter = new ExportRowWriter(writer, format, columns);
+        rowWriter.writeHeader();
+
+        Object[] values = new Object[columns.length];
+        try {
+            source.accept(rs -> {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                try {
+                    rowWriter.writeRow(values);
+                } catch (IOException e) {
+                    // Client went away. Cancel first: closing a streaming result set
+                    // would otherwise drain every remaining row from the server.
+                    cancelQuietly(rs);
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("Export aborted after {} rows: {}", rowWriter.getRowCount(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        return rowWriter.getRowCount();
+    }
+
+    private void cancelQuietly(ResultSet rs) {
+        try {
+            rs.getStatement().cancel();
+        } catch (SQLException e) {
+            log.debug("Could not cancel export query: {}", e.getMessage());
+        }
+    }
+}
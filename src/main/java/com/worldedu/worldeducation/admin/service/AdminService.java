@@ -1,11 +1,18 @@
 package com.worldedu.worldeducation.admin.service;
 
 import com.worldedu.worldeducation.admin.dto.*;
+import com.worldedu.worldeducation.admin.repository.AdminSubscriptionQueryRepository;
+import com.worldedu.worldeducation.admin.repository.AdminUserQueryRepository;
+import com.worldedu.worldeducation.audit.service.AuditLogService;
 import com.worldedu.worldeducation.auth.entity.User;
 import com.worldedu.worldeducation.auth.entity.UserProfile;
 import com.worldedu.worldeducation.auth.repository.UserProfileRepository;
 import com.worldedu.worldeducation.auth.repository.UserRepository;
+import com.worldedu.worldeducation.enums.PlanChangeType;
 import com.worldedu.worldeducation.enums.UserCategory;
+import com.worldedu.worldeducation.enums.UserSortField;
+import com.worldedu.worldeducation.metrics.service.DashboardMetricsService;
+import com.worldedu.worldeducation.search.service.SuggestionService;
 import com.worldedu.worldeducation.subject.dto.ClassDTO;
 import com.worldedu.worldeducation.subject.dto.SubjectDTO;
 import com.worldedu.worldeducation.subject.entity.EdClass;
@@ -32,10 +39,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,6 +61,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AdminService {
 
+    private static final int DEFAULT_USER_PAGE_SIZE = 50;
+    private static final int MAX_USER_PAGE_SIZE = 500;
+    private static final int DEFAULT_SUBSCRIPTION_PAGE_SIZE = 50;
+    private static final int MAX_SUBSCRIPTION_PAGE_SIZE = 500;
+
     private final EdClassRepository classRepository;
     private final EdSubjectRepository subjectRepository;
     private final EdTopicRepository topicRepository;
@@ -52,6 +75,12 @@ public class AdminService {
     private final UserSubjectSubscriptionRepository subjectSubscriptionRepository;
     private final UserTopicSubscriptionRepository topicSubscriptionRepository;
     private final SubscriptionPlanRepository subscriptionPlanRepository;
+    private final SuggestionService suggestionService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final CatalogDeleteService catalogDeleteService;
+    private final AuditLogService auditLogService;
+    private final AdminUserQueryRepository adminUserQueryRepository;
+    private final AdminSubscriptionQueryRepository adminSubscriptionQueryRepository;
 
     // ============ Class Management ============
 
@@ -64,6 +93,8 @@ public class AdminService {
         edClass.setDescription(request.getDescription());
 
         EdClass saved = classRepository.save(edClass);
+        suggestionService.indexClass(saved);
+        dashboardMetricsService.classChanged(saved);
         log.info("Created class: {}", saved.getClassName());
         
         return mapToClassDTO(saved);
@@ -80,18 +111,30 @@ public class AdminService {
         edClass.setDescription(request.getDescription());
 
         EdClass updated = classRepository.save(edClass);
+        suggestionService.indexClass(updated);
+        dashboardMetricsService.classChanged(updated);
         log.info("Updated class: {}", updated.getClassName());
         
         return mapToClassDTO(updated);
     }
 
+    /**
+     * Hides the class at once and queues its subtree (subjects, topics, contents, plans,
+     * subscriptions) for removal by the background delete worker.
+     */
     @Transactional
-    public void deleteClass(Long classId) {
+    public CatalogDeleteJobDTO deleteClass(Long classId, String requestedBy) {
         EdClass edClass = classRepository.findById(classId)
                 .orElseThrow(() -> new RuntimeException("Class not found with id: " + classId));
         
-        classRepository.delete(edClass);
-        log.info("Deleted class: {}", edClass.getClassName());
+        edClass.setIsActive(false);
+        classRepository.save(edClass);
+        suggestionService.remove(SubscriptionPlan.TargetType.CLASS, classId);
+        CatalogDeleteJobDTO job = catalogDeleteService.enqueue(
+                SubscriptionPlan.TargetType.CLASS, classId, edClass.getClassName(), requestedBy);
+        log.info("Queued delete of class: {} as job {}", edClass.getClassName(), job.getJobId());
+        
+        return job;
     }
 
     // ============ Subject Management ============
@@ -125,6 +168,8 @@ public class AdminService {
         subject.setDescription(request.getDescription());
 
         EdSubject saved = subjectRepository.save(subject);
+        suggestionService.indexSubject(saved);
+        dashboardMetricsService.subjectChanged(saved);
         log.info("Created subject: {}", saved.getSubjectName());
         
         return mapToSubjectDTO(saved);
@@ -141,18 +186,29 @@ public class AdminService {
         subject.setDescription(request.getDescription());
 
         EdSubject updated = subjectRepository.save(subject);
+        suggestionService.indexSubject(updated);
+        dashboardMetricsService.subjectChanged(updated);
         log.info("Updated subject: {}", updated.getSubjectName());
         
         return mapToSubjectDTO(updated);
     }
 
+    /**
+     * Hides the subject at once and queues its subtree for removal by the background delete worker.
+     */
     @Transactional
-    public void deleteSubject(Long subjectId) {
+    public CatalogDeleteJobDTO deleteSubject(Long subjectId, String requestedBy) {
         EdSubject subject = subjectRepository.findById(subjectId)
                 .orElseThrow(() -> new RuntimeException("Subject not found with id: " + subjectId));
         
-        subjectRepository.delete(subject);
-        log.info("Deleted subject: {}", subject.getSubjectName());
+        subject.setIsActive(false);
+        subjectRepository.save(subject);
+        suggestionService.remove(SubscriptionPlan.TargetType.SUBJECT, subjectId);
+        CatalogDeleteJobDTO job = catalogDeleteService.enqueue(
+                SubscriptionPlan.TargetType.SUBJECT, subjectId, subject.getSubjectName(), requestedBy);
+        log.info("Queued delete of subject: {} as job {}", subject.getSubjectName(), job.getJobId());
+        
+        return job;
     }
 
     // ============ Topic Management ============
@@ -187,6 +243,8 @@ public class AdminService {
         topic.setDescription(request.getDescription());
 
         EdTopic saved = topicRepository.save(topic);
+        suggestionService.indexTopic(saved);
+        dashboardMetricsService.topicChanged(saved);
         log.info("Created topic: {}", saved.getTopicName());
         
         return mapToTopicDTO(saved);
@@ -206,18 +264,30 @@ public class AdminService {
         topic.setDescription(request.getDescription());
 
         EdTopic updated = topicRepository.save(topic);
+        suggestionService.indexTopic(updated);
+        dashboardMetricsService.topicChanged(updated);
         log.info("Updated topic: {}", updated.getTopicName());
         
         return mapToTopicDTO(updated);
     }
 
+    /**
+     * Hides the topic at once and queues its contents, plans and subscriptions for removal
+     * by the background delete worker.
+     */
     @Transactional
-    public void deleteTopic(Long topicId) {
+    public CatalogDeleteJobDTO deleteTopic(Long topicId, String requestedBy) {
         EdTopic topic = topicRepository.findById(topicId)
                 .orElseThrow(() -> new RuntimeException("Topic not found with id: " + topicId));
         
-        topicRepository.delete(topic);
-        log.info("Deleted topic: {}", topic.getTopicName());
+        topic.setIsActive(false);
+        topicRepository.save(topic);
+        suggestionService.remove(SubscriptionPlan.TargetType.TOPIC, topicId);
+        CatalogDeleteJobDTO job = catalogDeleteService.enqueue(
+                SubscriptionPlan.TargetType.TOPIC, topicId, topic.getTopicName(), requestedBy);
+        log.info("Queued delete of topic: {} as job {}", topic.getTopicName(), job.getJobId());
+        
+        return job;
     }
 
     // ============ Content Management ============
@@ -240,27 +310,80 @@ public class AdminService {
 
     // ============ User Management ============
 
-    public List<UserDetailsDTO> getAllUsers(Boolean active) {
-        List<User> users;
-        
-        if (active != null) {
-            users = userRepository.findAll().stream()
-                    .filter(user -> active.equals(!user.getAccountLocked()))
-                    .collect(Collectors.toList());
-        } else {
-            users = userRepository.findAll();
+    /**
+     * Filtered, sorted, keyset-paginated user listing.
+     * Subscription counts for the page come from one grouped query per subscription table.
+     */
+    public UserPageResponse searchUsers(UserSearchCriteria criteria, String sort, String direction,
+                                        Integer limit, String cursor) {
+        UserSortField sortField = parseSortField(sort);
+        boolean ascending = "ASC".equalsIgnoreCase(direction);
+        if (direction != null && !ascending && !"DESC".equalsIgnoreCase(direction)) {
+            throw new IllegalArgumentException("Invalid sort direction: " + direction);
         }
-        
-        return users.stream()
-                .map(this::mapToUserDetailsDTO)
-                .collect(Collectors.toList());
+        int pageSize = limit == null ? DEFAULT_USER_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_USER_PAGE_SIZE));
+
+        Object afterValue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeUserCursor(cursor);
+            afterId = Long.parseLong(parts[0]);
+            afterValue = switch (sortField) {
+                case CREATED_AT -> parseCursorTimestamp(parts[1]);
+                case USER_ID -> parts[1];
+                case CUSTOMER_ID -> null;
+            };
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<AdminUserQueryRepository.UserRow> rows = adminUserQueryRepository.findPage(
+                criteria, sortField, ascending, afterValue, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<Long> customerIds = rows.stream().map(row -> row.user().getCustomerId()).toList();
+        Map<Long, Long> subjectCounts = customerIds.isEmpty() ? Map.of()
+                : toCountMap(subjectSubscriptionRepository.countActiveGroupedByCustomer(customerIds));
+        Map<Long, Long> topicCounts = customerIds.isEmpty() ? Map.of()
+                : toCountMap(topicSubscriptionRepository.countActiveGroupedByCustomer(customerIds));
+
+        List<UserDetailsDTO> users = rows.stream()
+                .map(row -> mapToUserDetailsDTO(row.user(), row.profile(),
+                        subjectCounts.getOrDefault(row.user().getCustomerId(), 0L),
+                        topicCounts.getOrDefault(row.user().getCustomerId(), 0L)))
+                .toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            User last = rows.get(rows.size() - 1).user();
+            String value = switch (sortField) {
+                case CREATED_AT -> last.getCreatedAt().toString();
+                case USER_ID -> last.getUserId();
+                case CUSTOMER_ID -> "";
+            };
+            nextCursor = encodeUserCursor(last.getCustomerId(), value);
+        }
+
+        return UserPageResponse.builder()
+                .users(users)
+                .pageSize(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     public UserDetailsDTO getUserDetails(Long customerId) {
         User user = userRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + customerId));
+        UserProfile profile = userProfileRepository.findById(customerId).orElse(null);
         
-        return mapToUserDetailsDTO(user);
+        Map<Long, Long> subjectCounts = toCountMap(subjectSubscriptionRepository.countActiveGroupedByCustomer(List.of(customerId)));
+        Map<Long, Long> topicCounts = toCountMap(topicSubscriptionRepository.countActiveGroupedByCustomer(List.of(customerId)));
+        
+        return mapToUserDetailsDTO(user, profile,
+                subjectCounts.getOrDefault(customerId, 0L), topicCounts.getOrDefault(customerId, 0L));
     }
 
     // ============ Helper Methods ============
@@ -318,13 +441,7 @@ public class AdminService {
         return dto;
     }
 
-    private UserDetailsDTO mapToUserDetailsDTO(User user) {
-        UserProfile profile = userProfileRepository.findById(user.getCustomerId()).orElse(null);
-        
-        // Count opted subjects and topics
-        int optedSubjects = subjectSubscriptionRepository.findByCustomerIdAndIsActiveTrue(user.getCustomerId()).size();
-        int optedTopics = topicSubscriptionRepository.findByCustomerIdAndIsActiveTrue(user.getCustomerId()).size();
-        
+    private UserDetailsDTO mapToUserDetailsDTO(User user, UserProfile profile, long optedSubjects, long optedTopics) {
         return UserDetailsDTO.builder()
                 .customerId(user.getCustomerId())
                 .userId(user.getUserId())
@@ -336,11 +453,53 @@ public class AdminService {
                 .accountLocked(user.getAccountLocked())
                 .lastLoginAt(user.getLastLoginAt())
                 .createdAt(user.getCreatedAt())
-                .totalOptedSubjects(optedSubjects)
-                .totalOptedTopics(optedTopics)
+                .totalOptedSubjects((int) optedSubjects)
+                .totalOptedTopics((int) optedTopics)
                 .build();
     }
 
+    private UserSortField parseSortField(String sort) {
+        if (sort == null || sort.isBlank()) return UserSortField.CREATED_AT;
+        try {
+            return UserSortField.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sort field: " + sort);
+        }
+    }
+
+    private String encodeUserCursor(Long customerId, String sortValue) {
+        String raw = customerId + ":" + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeUserCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2) throw new IllegalArgumentException("Invalid user cursor");
+            Long.parseLong(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid user cursor");
+        }
+    }
+
+    private LocalDateTime parseCursorTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
     // ============ Subscription Management ============
 
     public List<SubscriptionPlanDTO> getAllSubscriptionPlans(String targetType) {
@@ -386,6 +545,9 @@ public class AdminService {
         plan.setIsActive(request.getIsActive());
 
         SubscriptionPlan saved = subscriptionPlanRepository.save(plan);
+        dashboardMetricsService.planChanged(saved);
+        auditLogService.recordPlanChange(saved.getSubscriptionId(), PlanChangeType.CREATED,
+                null, saved.getPrice(), null, saved.getDurationDays());
         log.info("Created subscription plan: {}", saved.getPlanName());
 
         return mapToSubscriptionPlanDTO(saved);
@@ -412,6 +574,10 @@ public class AdminService {
                     + request.getTargetType().name().toLowerCase() + ". Edit the existing plan instead.");
         }
 
+        BigDecimal oldPrice = plan.getPrice();
+        Integer oldDurationDays = plan.getDurationDays();
+        boolean wasActive = Boolean.TRUE.equals(plan.getIsActive());
+
         plan.setPlanName(request.getPlanName());
         plan.setTargetType(request.getTargetType());
         // Reset all FK columns before setting the correct one
@@ -427,6 +593,10 @@ public class AdminService {
         plan.setIsActive(request.getIsActive());
 
         SubscriptionPlan updated = subscriptionPlanRepository.save(plan);
+        dashboardMetricsService.planChanged(updated);
+        auditLogService.recordPlanChange(subscriptionId,
+                planChangeType(wasActive, oldPrice, oldDurationDays, updated),
+                oldPrice, updated.getPrice(), oldDurationDays, updated.getDurationDays());
         log.info("Updated subscription plan: {}", updated.getPlanName());
 
         return mapToSubscriptionPlanDTO(updated);
@@ -438,53 +608,85 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Subscription plan not found with id: " + subscriptionId));
         
         subscriptionPlanRepository.delete(plan);
+        dashboardMetricsService.planRemoved(subscriptionId);
+        auditLogService.recordPlanChange(subscriptionId, PlanChangeType.DELETED,
+                plan.getPrice(), null, plan.getDurationDays(), null);
         log.info("Deleted subscription plan: {}", plan.getPlanName());
     }
 
-    public List<UserSubscriptionDTO> getAllUserSubscriptions(Boolean active) {
-        List<UserSubscriptionDTO> result = new ArrayList<>();
-        
-        // Get subject subscriptions
-        List<UserSubjectSubscription> subjectSubs;
-        if (active != null) {
-            if (active) {
-                subjectSubs = subjectSubscriptionRepository.findAll().stream()
-                        .filter(sub -> sub.getIsActive())
-                        .collect(Collectors.toList());
-            } else {
-                subjectSubs = subjectSubscriptionRepository.findAll().stream()
-                        .filter(sub -> !sub.getIsActive())
-                        .collect(Collectors.toList());
-            }
-        } else {
-            subjectSubs = subjectSubscriptionRepository.findAll();
+    /**
+     * Filtered, keyset-paginated listing across subject and topic subscriptions, newest first.
+     * Each table is read with an indexed keyset query and the two pages are merged in memory;
+     * users, profiles, subjects and topics for the page are then loaded with one batched query each.
+     */
+    @Transactional(readOnly = true)
+    public UserSubscriptionPageResponse searchUserSubscriptions(UserSubscriptionSearchCriteria criteria,
+                                                                Integer limit, String cursor) {
+        String type = criteria.getType();
+        boolean subjects = type == null || "SUBJECT".equalsIgnoreCase(type);
+        boolean topics = type == null || "TOPIC".equalsIgnoreCase(type);
+        if (!subjects && !topics) {
+            throw new IllegalArgumentException("Invalid subscription type: " + type);
         }
-        
-        for (UserSubjectSubscription sub : subjectSubs) {
-            result.add(mapToUserSubscriptionDTO(sub));
+        if (criteria.getTargetId() != null && type == null) {
+            throw new IllegalArgumentException("targetId requires a subscription type");
         }
-        
-        // Get topic subscriptions
-        List<UserTopicSubscription> topicSubs;
-        if (active != null) {
-            if (active) {
-                topicSubs = topicSubscriptionRepository.findAll().stream()
-                        .filter(sub -> sub.getIsActive())
-                        .collect(Collectors.toList());
+        int pageSize = limit == null ? DEFAULT_SUBSCRIPTION_PAGE_SIZE
+                : Math.max(1, Math.min(limit, MAX_SUBSCRIPTION_PAGE_SIZE));
+
+        // Merged order is (subscribedAt DESC with undated rows last, SUBJECT before TOPIC, subscriptionId DESC).
+        // Translate the cursor into a per-table bound on subscriptionId for rows sharing its timestamp.
+        LocalDateTime afterAt = null;
+        long subjectAfterId = 0L;
+        long topicAfterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeSubscriptionCursor(cursor);
+            boolean afterTopic = "1".equals(parts[0]);
+            long afterId = Long.parseLong(parts[1]);
+            afterAt = parseCursorTimestamp(parts[2]);
+            subjectAfterId = afterTopic ? Long.MIN_VALUE : afterId;
+            topicAfterId = afterTopic ? afterId : Long.MAX_VALUE;
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<UserSubjectSubscription> subjectSubs = subjects
+                ? adminSubscriptionQueryRepository.findSubjectPage(criteria, afterAt, subjectAfterId, pageSize + 1)
+                : List.of();
+        List<UserTopicSubscription> topicSubs = topics
+                ? adminSubscriptionQueryRepository.findTopicPage(criteria, afterAt, topicAfterId, pageSize + 1)
+                : List.of();
+
+        List<Object> merged = new ArrayList<>(pageSize + 1);
+        int i = 0;
+        int j = 0;
+        while (merged.size() <= pageSize && (i < subjectSubs.size() || j < topicSubs.size())) {
+            if (j >= topicSubs.size() || (i < subjectSubs.size()
+                    && !sortKey(subjectSubs.get(i).getSubscribedAt()).isBefore(sortKey(topicSubs.get(j).getSubscribedAt())))) {
+                merged.add(subjectSubs.get(i++));
             } else {
-                topicSubs = topicSubscriptionRepository.findAll().stream()
-                        .filter(sub -> !sub.getIsActive())
-                        .collect(Collectors.toList());
+                merged.add(topicSubs.get(j++));
             }
-        } else {
-            topicSubs = topicSubscriptionRepository.findAll();
         }
-        
-        for (UserTopicSubscription sub : topicSubs) {
-            result.add(mapToUserSubscriptionDTO(sub));
+        boolean hasMore = merged.size() > pageSize;
+        if (hasMore) {
+            merged = merged.subList(0, pageSize);
         }
-        
-        return result;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object last = merged.get(merged.size() - 1);
+            nextCursor = last instanceof UserSubjectSubscription sub
+                    ? encodeSubscriptionCursor(0, sub.getSubscriptionId(), sortKey(sub.getSubscribedAt()))
+                    : encodeSubscriptionCursor(1, ((UserTopicSubscription) last).getSubscriptionId(),
+                            sortKey(((UserTopicSubscription) last).getSubscribedAt()));
+        }
+
+        return UserSubscriptionPageResponse.builder()
+                .subscriptions(mapToUserSubscriptionDTOs(merged))
+                .pageSize(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Transactional
@@ -495,18 +697,30 @@ public class AdminService {
             
             subscription.setIsActive(!subscription.getIsActive());
             UserSubjectSubscription updated = subjectSubscriptionRepository.save(subscription);
+            dashboardMetricsService.recordSubscriptionChange(SubscriptionPlan.TargetType.SUBJECT,
+                    updated.getSubjectId(), Boolean.TRUE.equals(updated.getIsActive()) ? 1 : -1);
+            suggestionService.recordSubscriptionChange(SubscriptionPlan.TargetType.SUBJECT,
+                    updated.getSubjectId(), Boolean.TRUE.equals(updated.getIsActive()) ? 1 : -1);
+            auditLogService.recordSubscriptionChange("SUBJECT", subscriptionId, updated.getCustomerId(),
+                    !updated.getIsActive(), updated.getIsActive(), "Admin toggle");
             log.info("Toggled subject subscription: {} to {}", subscriptionId, updated.getIsActive());
             
-            return mapToUserSubscriptionDTO(updated);
+            return mapToUserSubscriptionDTOs(List.of(updated)).get(0);
         } else if ("TOPIC".equalsIgnoreCase(type)) {
             UserTopicSubscription subscription = topicSubscriptionRepository.findById(subscriptionId)
                     .orElseThrow(() -> new RuntimeException("Topic subscription not found with id: " + subscriptionId));
             
             subscription.setIsActive(!subscription.getIsActive());
             UserTopicSubscription updated = topicSubscriptionRepository.save(subscription);
+            dashboardMetricsService.recordSubscriptionChange(SubscriptionPlan.TargetType.TOPIC,
+                    updated.getTopicId(), Boolean.TRUE.equals(updated.getIsActive()) ? 1 : -1);
+            suggestionService.recordSubscriptionChange(SubscriptionPlan.TargetType.TOPIC,
+                    updated.getTopicId(), Boolean.TRUE.equals(updated.getIsActive()) ? 1 : -1);
+            auditLogService.recordSubscriptionChange("TOPIC", subscriptionId, updated.getCustomerId(),
+                    !updated.getIsActive(), updated.getIsActive(), "Admin toggle");
             log.info("Toggled topic subscription: {} to {}", subscriptionId, updated.getIsActive());
             
-            return mapToUserSubscriptionDTO(updated);
+            return mapToUserSubscriptionDTOs(List.of(updated)).get(0);
         }
         
         throw new RuntimeException("Invalid subscription type: " + type);
@@ -514,6 +728,23 @@ public class AdminService {
 
     // ============ Helper Methods for Subscriptions ============
 
+    /**
+     * Classify a plan edit for the audit log. Activation changes win over price, and price
+     * over duration; anything else (name, target, grace/free days) is a plain UPDATED.
+     */
+    private static PlanChangeType planChangeType(boolean wasActive, BigDecimal oldPrice, Integer oldDurationDays,
+                                                 SubscriptionPlan updated) {
+        boolean isActive = Boolean.TRUE.equals(updated.getIsActive());
+        if (wasActive && !isActive) return PlanChangeType.DEACTIVATED;
+        if (!wasActive && isActive) return PlanChangeType.REACTIVATED;
+        if (oldPrice == null ? updated.getPrice() != null
+                : updated.getPrice() == null || oldPrice.compareTo(updated.getPrice()) != 0) {
+            return PlanChangeType.PRICE_UPDATE;
+        }
+        if (!Objects.equals(oldDurationDays, updated.getDurationDays())) return PlanChangeType.DURATION_CHANGE;
+        return PlanChangeType.UPDATED;
+    }
+
     /**
      * Maps a SubscriptionPlan to DTO in a single pass through the hierarchy —
      * computes targetName, targetFullPath, contextClassId, and contextSubjectId
@@ -630,41 +861,95 @@ public class AdminService {
         }
     }
 
-    private UserSubscriptionDTO mapToUserSubscriptionDTO(UserSubjectSubscription sub) {
-        User user = userRepository.findById(sub.getCustomerId()).orElse(null);
-        UserProfile profile = user != null ? userProfileRepository.findById(user.getCustomerId()).orElse(null) : null;
-        EdSubject subject = subjectRepository.findById(sub.getSubjectId()).orElse(null);
-        
+    /**
+     * Maps subject and topic subscriptions (in any mix) to DTOs, keeping their order.
+     * Names are resolved with one findAllById per entity type for the whole list.
+     */
+    private List<UserSubscriptionDTO> mapToUserSubscriptionDTOs(List<?> subscriptions) {
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> subjectIds = new HashSet<>();
+        Set<Long> topicIds = new HashSet<>();
+        for (Object sub : subscriptions) {
+            if (sub instanceof UserSubjectSubscription subjectSub) {
+                customerIds.add(subjectSub.getCustomerId());
+                subjectIds.add(subjectSub.getSubjectId());
+            } else if (sub instanceof UserTopicSubscription topicSub) {
+                customerIds.add(topicSub.getCustomerId());
+                topicIds.add(topicSub.getTopicId());
+            }
+        }
+
+        // Users first so each profile's eager user association resolves from the persistence context
+        Map<Long, User> users = customerIds.isEmpty() ? Map.of() : userRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(User::getCustomerId, Function.identity()));
+        Map<Long, UserProfile> profiles = customerIds.isEmpty() ? Map.of() : userProfileRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(UserProfile::getCustomerId, Function.identity()));
+        Map<Long, EdSubject> subjects = subjectIds.isEmpty() ? Map.of() : subjectRepository.findAllById(subjectIds).stream()
+                .collect(Collectors.toMap(EdSubject::getSubjectId, Function.identity()));
+        Map<Long, EdTopic> topics = topicIds.isEmpty() ? Map.of() : topicRepository.findAllById(topicIds).stream()
+                .collect(Collectors.toMap(EdTopic::getTopicId, Function.identity()));
+
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        
-        return UserSubscriptionDTO.builder()
-                .subscriptionId(sub.getSubscriptionId())
-                .customerId(sub.getCustomerId())
-                .userId(user != null ? user.getUserId() : null)
-                .userName(profile != null ? profile.getFirstName() + " " + profile.getLastName() : null)
-                .subjectId(sub.getSubjectId())
-                .subjectName(subject != null ? subject.getSubjectName() : null)
-                .subscribedAt(sub.getSubscribedAt() != null ? sub.getSubscribedAt().format(formatter) : null)
-                .isActive(sub.getIsActive())
-                .build();
+        List<UserSubscriptionDTO> result = new ArrayList<>(subscriptions.size());
+        for (Object sub : subscriptions) {
+            UserSubscriptionDTO dto;
+            Long customerId;
+            if (sub instanceof UserSubjectSubscription subjectSub) {
+                EdSubject subject = subjects.get(subjectSub.getSubjectId());
+                customerId = subjectSub.getCustomerId();
+                dto = UserSubscriptionDTO.builder()
+                        .subscriptionId(subjectSub.getSubscriptionId())
+                        .subscriptionType("SUBJECT")
+                        .subjectId(subjectSub.getSubjectId())
+                        .subjectName(subject != null ? subject.getSubjectName() : null)
+                        .subscribedAt(subjectSub.getSubscribedAt() != null ? subjectSub.getSubscribedAt().format(formatter) : null)
+                        .isActive(subjectSub.getIsActive())
+                        .build();
+            } else {
+                UserTopicSubscription topicSub = (UserTopicSubscription) sub;
+                EdTopic topic = topics.get(topicSub.getTopicId());
+                customerId = topicSub.getCustomerId();
+                dto = UserSubscriptionDTO.builder()
+                        .subscriptionId(topicSub.getSubscriptionId())
+                        .subscriptionType("TOPIC")
+                        .topicId(topicSub.getTopicId())
+                        .topicName(topic != null ? topic.getTopicName() : null)
+                        .subscribedAt(topicSub.getSubscribedAt() != null ? topicSub.getSubscribedAt().format(formatter) : null)
+                        .isActive(topicSub.getIsActive())
+                        .build();
+            }
+
+            User user = users.get(customerId);
+            UserProfile profile = user != null ? profiles.get(customerId) : null;
+            dto.setCustomerId(customerId);
+            dto.setUserId(user != null ? user.getUserId() : null);
+            dto.setUserName(profile != null ? profile.getFirstName() + " " + profile.getLastName() : null);
+            result.add(dto);
+        }
+        return result;
     }
 
-    private UserSubscriptionDTO mapToUserSubscriptionDTO(UserTopicSubscription sub) {
-        User user = userRepository.findById(sub.getCustomerId()).orElse(null);
-        UserProfile profile = user != null ? userProfileRepository.findById(user.getCustomerId()).orElse(null) : null;
-        EdTopic topic = topicRepository.findById(sub.getTopicId()).orElse(null);
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        
-        return UserSubscriptionDTO.builder()
-                .subscriptionId(sub.getSubscriptionId())
-                .customerId(sub.getCustomerId())
-                .userId(user != null ? user.getUserId() : null)
-                .userName(profile != null ? profile.getFirstName() + " " + profile.getLastName() : null)
-                .topicId(sub.getTopicId())
-                .topicName(topic != null ? topic.getTopicName() : null)
-                .subscribedAt(sub.getSubscribedAt() != null ? sub.getSubscribedAt().format(formatter) : null)
-                .isActive(sub.getIsActive())
-                .build();
+    /** Position in the merged order; legacy rows without a subscribed_at sort after all others. */
+    private static LocalDateTime sortKey(LocalDateTime subscribedAt) {
+        return subscribedAt != null ? subscribedAt : AdminSubscriptionQueryRepository.UNDATED;
+    }
+
+    private String encodeSubscriptionCursor(int typeRank, Long subscriptionId, LocalDateTime subscribedAt) {
+        String raw = typeRank + ":" + subscriptionId + ":" + subscribedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeSubscriptionCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || !(parts[0].equals("0") || parts[0].equals("1"))) {
+                throw new IllegalArgumentException("Invalid subscription cursor");
+            }
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid subscription cursor");
+        }
     }
 }
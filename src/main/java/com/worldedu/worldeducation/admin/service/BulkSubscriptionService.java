@@ -0,0 +1,222 @@
+package com.worldedu.worldeducation.admin.service;
+
+import com.worldedu.worldeducation.admin.dto.BulkSubscriptionRequest;
+import com.worldedu.worldeducation.admin.dto.BulkSubscriptionResult;
+import com.worldedu.worldeducation.admin.repository.BulkSubscriptionRepository;
+import com.worldedu.worldeducation.admin.repository.BulkSubscriptionRepository.Audit;
+import com.worldedu.worldeducation.admin.repository.BulkSubscriptionRepository.Filter;
+import com.worldedu.worldeducation.admin.repository.BulkSubscriptionRepository.Table;
+import com.worldedu.worldeducation.admin.repository.BulkSubscriptionRepository.TargetCount;
+import com.worldedu.worldeducation.audit.service.AuditLogService;
+import com.worldedu.worldeducation.enums.BulkSubscriptionAction;
+import com.worldedu.worldeducation.metrics.service.DashboardMetricsService;
+import com.worldedu.worldeducation.search.service.SuggestionService;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan;
+import com.worldedu.worldeducation.subject.repository.EdSubjectRepository;
+import com.worldedu.worldeducation.topic.repository.EdTopicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Set-based grant / activate / deactivate / toggle over user subscriptions.
+ *
+ * Work is cut into batches of at most batch-size ids, each applied with one or two
+ * statements in its own short transaction, so a cohort-sized change never holds row locks
+ * on the subscription tables for long. Counts derived from active subscriptions (the
+ * suggestion index popularity, dashboard metrics) are moved by per-target deltas that each
+ * batch counts in its own transaction and applies when it commits, so no full rebuild is needed.
+ * Every batch writes its user_subscription_history rows in the same transaction as the change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkSubscriptionService {
+
+    private final BulkSubscriptionRepository bulkSubscriptionRepository;
+    private final EdSubjectRepository subjectRepository;
+    private final EdTopicRepository topicRepository;
+    private final SuggestionService suggestionService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.bulk-subscription.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.bulk-subscription.max-ids:100000}")
+    private int maxIds;
+
+    public BulkSubscriptionResult apply(BulkSubscriptionRequest request) {
+        Table table = parseTable(request.getType());
+        if (size(request.getCustomerIds()) > maxIds || size(request.getSubscriptionIds()) > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids may be sent per request");
+        }
+
+        long start = System.currentTimeMillis();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Audit audit = new Audit(AuditLogService.currentActor(), LocalDateTime.now(), "Bulk " + request.getAction());
+        BulkSubscriptionResult result = request.getAction() == BulkSubscriptionAction.GRANT
+                ? grant(tx, table, request, audit)
+                : update(tx, table, request, audit);
+
+        result.setAction(request.getAction());
+        result.setType(table.name());
+        result.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Bulk {} on {} subscriptions: {} created, {} reactivated, {} updated in {} batches, {} ms",
+                request.getAction(), table, result.getCreated(), result.getReactivated(), result.getUpdated(),
+                result.getBatches(), result.getDurationMs());
+        return result;
+    }
+
+    private BulkSubscriptionResult grant(TransactionTemplate tx, Table table, BulkSubscriptionRequest request,
+                                         Audit audit) {
+        Long targetId = request.getTargetId();
+        if (targetId == null || request.getCustomerIds() == null || request.getCustomerIds().isEmpty()) {
+            throw new IllegalArgumentException("GRANT requires targetId and customerIds");
+        }
+        boolean targetExists = table == Table.SUBJECT
+                ? subjectRepository.existsById(targetId)
+                : topicRepository.existsById(targetId);
+        if (!targetExists) {
+            throw new RuntimeException((table == Table.SUBJECT ? "Subject" : "Topic") + " not found with id: " + targetId);
+        }
+
+        int created = 0;
+        int reactivated = 0;
+        int batches = 0;
+        LocalDateTime now = audit.changedAt();
+        // Deduplicated, as insertMissing finds its new rows again by customer and timestamp
+        for (List<Long> chunk : chunks(new LinkedHashSet<>(request.getCustomerIds()))) {
+            int[] counts = tx.execute(status -> {
+                int batchReactivated = bulkSubscriptionRepository.reactivate(table, targetId, chunk, audit);
+                int batchCreated = bulkSubscriptionRepository.insertMissing(table, targetId, chunk, now, audit);
+                // Every grant lands on the one target
+                recordSubscriptionChange(table, targetId, batchReactivated + batchCreated);
+                return new int[]{batchReactivated, batchCreated};
+            });
+            reactivated += counts[0];
+            created += counts[1];
+            batches++;
+        }
+        return BulkSubscriptionResult.builder()
+                .created(created)
+                .reactivated(reactivated)
+                .updated(0)
+                .batches(batches)
+                .build();
+    }
+
+    private BulkSubscriptionResult update(TransactionTemplate tx, Table table, BulkSubscriptionRequest request,
+                                          Audit audit) {
+        if (isEmpty(request.getSubscriptionIds()) && isEmpty(request.getCustomerIds()) && request.getTargetId() == null
+                && request.getSubscribedFrom() == null && request.getSubscribedTo() == null) {
+            throw new IllegalArgumentException(
+                    "Provide subscriptionIds, customerIds, targetId or a subscribed date range to select subscriptions");
+        }
+
+        // Rows already in the requested state need no write
+        Boolean onlyActive = switch (request.getAction()) {
+            case ACTIVATE -> false;
+            case DEACTIVATE -> true;
+            default -> null;
+        };
+
+        // Large id lists are split so each SELECT carries a bounded IN list
+        List<List<Long>> subscriptionIdChunks = isEmpty(request.getSubscriptionIds())
+                ? Collections.singletonList(null) : chunks(request.getSubscriptionIds());
+        List<List<Long>> customerIdChunks = isEmpty(request.getCustomerIds())
+                ? Collections.singletonList(null) : chunks(request.getCustomerIds());
+
+        int updated = 0;
+        int batches = 0;
+        for (List<Long> subscriptionIds : subscriptionIdChunks) {
+            for (List<Long> customerIds : customerIdChunks) {
+                Filter filter = new Filter(subscriptionIds, customerIds, request.getTargetId(),
+                        request.getSubscribedFrom(), request.getSubscribedTo());
+                long afterId = 0L;
+                while (true) {
+                    List<Long> ids = bulkSubscriptionRepository.findIdBatch(table, filter, onlyActive, afterId, batchSize);
+                    if (ids.isEmpty()) break;
+                    afterId = ids.get(ids.size() - 1);
+
+                    Integer count = tx.execute(status -> {
+                        List<TargetCount> before = bulkSubscriptionRepository.countByTarget(table, ids);
+                        int changed = switch (request.getAction()) {
+                            case ACTIVATE -> bulkSubscriptionRepository.setActive(table, ids, true, audit);
+                            case DEACTIVATE -> bulkSubscriptionRepository.setActive(table, ids, false, audit);
+                            default -> bulkSubscriptionRepository.toggleActive(table, ids, audit);
+                        };
+                        for (TargetCount target : before) {
+                            recordSubscriptionChange(table, target.targetId(), activeDelta(request.getAction(), target));
+                        }
+                        return changed;
+                    });
+                    updated += count != null ? count : 0;
+                    batches++;
+                    if (ids.size() < batchSize) break;
+                }
+            }
+        }
+        return BulkSubscriptionResult.builder()
+                .created(0)
+                .reactivated(0)
+                .updated(updated)
+                .batches(batches)
+                .build();
+    }
+
+    // ============ Helper Methods ============
+
+    /** Change in active subscriptions on one target once the batch's update has run. */
+    private static long activeDelta(BulkSubscriptionAction action, TargetCount target) {
+        long inactive = target.total() - target.active();
+        return switch (action) {
+            case ACTIVATE -> inactive;
+            case DEACTIVATE -> -target.active();
+            default -> inactive - target.active();
+        };
+    }
+
+    /** Move suggestion popularity and the dashboard counter for one target when the batch commits. */
+    private void recordSubscriptionChange(Table table, Long targetId, long delta) {
+        SubscriptionPlan.TargetType type = SubscriptionPlan.TargetType.valueOf(table.name());
+        suggestionService.recordSubscriptionChange(type, targetId, delta);
+        dashboardMetricsService.recordSubscriptionChange(type, targetId, delta);
+    }
+
+    private static Table parseTable(String type) {
+        try {
+            return Table.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid subscription type: " + type);
+        }
+    }
+
+    private List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>((all.size() + batchSize - 1) / batchSize);
+        for (int i = 0; i < all.size(); i += batchSize) {
+            chunks.add(all.subList(i, Math.min(i + batchSize, all.size())));
+        }
+        return chunks;
+    }
+
+    private static boolean isEmpty(Collection<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private static int size(Collection<?> values) {
+        return values == null ? 0 : values.size();
+    }
+}
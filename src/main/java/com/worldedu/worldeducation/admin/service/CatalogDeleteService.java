@@ -0,0 +1,93 @@
+package com.worldedu.worldeducation.admin.service;
+
+import com.worldedu.worldeducation.admin.dto.CatalogDeleteJobDTO;
+import com.worldedu.worldeducation.admin.entity.CatalogDeleteJob;
+import com.worldedu.worldeducation.admin.repository.CatalogDeleteJobRepository;
+import com.worldedu.worldeducation.enums.CatalogDeleteJobStatus;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan.TargetType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Queues class / subject / topic deletes for {@link CatalogDeleteWorker} and reports their progress.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogDeleteService {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final CatalogDeleteJobRepository catalogDeleteJobRepository;
+
+    /**
+     * Queue a delete of the target and its subtree. Joins the caller's transaction, so the job
+     * only becomes visible to the worker if the caller commits. A target that already has a
+     * queued or running job gets that job back instead of a second one.
+     */
+    public CatalogDeleteJobDTO enqueue(TargetType targetType, Long targetId, String targetName, String requestedBy) {
+        CatalogDeleteJob existing = catalogDeleteJobRepository.findFirstByTargetTypeAndTargetIdAndStatusIn(
+                targetType, targetId, EnumSet.of(CatalogDeleteJobStatus.PENDING, CatalogDeleteJobStatus.RUNNING))
+                .orElse(null);
+        if (existing != null) {
+            return toDTO(existing);
+        }
+
+        CatalogDeleteJob job = new CatalogDeleteJob();
+        job.setTargetType(targetType);
+        job.setTargetId(targetId);
+        job.setTargetName(targetName);
+        job.setRequestedBy(requestedBy);
+        job.setStatus(CatalogDeleteJobStatus.PENDING);
+        CatalogDeleteJob saved = catalogDeleteJobRepository.save(job);
+        log.info("Queued delete job {} for {} {}", saved.getJobId(), targetType, targetId);
+        return toDTO(saved);
+    }
+
+    public CatalogDeleteJobDTO getJob(Long jobId) {
+        return catalogDeleteJobRepository.findById(jobId)
+                .map(CatalogDeleteService::toDTO)
+                .orElseThrow(() -> new RuntimeException("Delete job not found with id: " + jobId));
+    }
+
+    /** Most recent jobs first. */
+    public List<CatalogDeleteJobDTO> getRecentJobs() {
+        return catalogDeleteJobRepository.findTop100ByOrderByJobIdDesc().stream()
+                .map(CatalogDeleteService::toDTO)
+                .toList();
+    }
+
+    private static CatalogDeleteJobDTO toDTO(CatalogDeleteJob job) {
+        return CatalogDeleteJobDTO.builder()
+                .jobId(job.getJobId())
+                .targetType(job.getTargetType().name())
+                .targetId(job.getTargetId())
+                .targetName(job.getTargetName())
+                .requestedBy(job.getRequestedBy())
+                .status(job.getStatus().name())
+                .phase(job.getPhase())
+                .subjectsDeleted(job.getSubjectsDeleted())
+                .topicsDeleted(job.getTopicsDeleted())
+                .contentsDeleted(job.getContentsDeleted())
+                .plansDeleted(job.getPlansDeleted())
+                .subscriptionsArchived(job.getSubscriptionsArchived())
+                .batches(job.getBatches())
+                .throttledMs(job.getThrottledMs())
+                .lastError(job.getLastError())
+                .createdAt(format(job.getCreatedAt()))
+                .startedAt(format(job.getStartedAt()))
+                .updatedAt(format(job.getUpdatedAt()))
+                .completedAt(format(job.getCompletedAt()))
+                .build();
+    }
+
+    private static String format(LocalDateTime value) {
+        return value != null ? value.format(FORMATTER) : null;
+    }
+}
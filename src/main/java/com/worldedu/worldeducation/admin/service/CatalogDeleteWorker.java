@@ -0,0 +1,303 @@
+package com.worldedu.worldeducation.admin.service;
+
+import com.worldedu.worldeducation.admin.entity.CatalogDeleteJob;
+import com.worldedu.worldeducation.admin.repository.CatalogDeleteJobRepository;
+import com.worldedu.worldeducation.admin.repository.CatalogDeleteRepository;
+import com.worldedu.worldeducation.cache.service.EntityCacheService;
+import com.worldedu.worldeducation.enums.CatalogDeleteJobStatus;
+import com.worldedu.worldeducation.metrics.service.DashboardMetricsService;
+import com.worldedu.worldeducation.search.service.SuggestionService;
+import com.worldedu.worldeducation.subject.entity.EdClass;
+import com.worldedu.worldeducation.subject.entity.EdSubject;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan.TargetType;
+import com.worldedu.worldeducation.topic.entity.EdTopic;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs queued catalog deletes one at a time on a dedicated thread.
+ *
+ * A job walks its subtree depth-first: for each topic, contents (blobs) are deleted and
+ * subscriptions archived into archived_user_subscriptions, then its plans and the topic row go;
+ * subjects and classes follow the same way once their children are gone. Every batch is its own
+ * short transaction, paced to stay under app.catalog-delete.max-rows-per-second, and the job row
+ * is updated after each one so progress can be polled. Because each step deletes what is left,
+ * a job that stops part-way (crash, shutdown, error) simply continues when it is picked up again.
+ * Rows removed are exported as catalog.delete.rows{table=...}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogDeleteWorker {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final CatalogDeleteJobRepository catalogDeleteJobRepository;
+    private final CatalogDeleteRepository catalogDeleteRepository;
+    private final SuggestionService suggestionService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final EntityCacheService entityCacheService;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.catalog-delete.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.catalog-delete.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.catalog-delete.content-batch-size:20}")
+    private int contentBatchSize;
+
+    @Value("${app.catalog-delete.max-rows-per-second:2000}")
+    private int maxRowsPerSecond;
+
+    @Value("${app.catalog-delete.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private ExecutorService executor;
+    private TransactionTemplate tx;
+
+    /** State of the job being run; only touched by the worker thread. */
+    private static final class Run {
+        private final CatalogDeleteJob job;
+        private final long start = System.currentTimeMillis();
+        private long rows;
+
+        private Run(CatalogDeleteJob job) {
+            this.job = job;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-delete");
+            thread.setDaemon(true);
+            return thread;
+        });
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // An interrupted job stays RUNNING and is resumed once its lease expires
+        executor.shutdownNow();
+    }
+
+    /**
+     * Claim the next queued job if the worker thread is idle.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-delete.poll-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public void poll() {
+        if (!enabled || !busy.compareAndSet(false, true)) return;
+
+        try {
+            String token = UUID.randomUUID().toString();
+            LocalDateTime now = LocalDateTime.now();
+            if (catalogDeleteJobRepository.claimNext(token, now, now.plusSeconds(leaseSeconds)) == 0) {
+                busy.set(false);
+                return;
+            }
+            CatalogDeleteJob job = catalogDeleteJobRepository.findByClaimToken(token)
+                    .orElseThrow(() -> new IllegalStateException("Claimed delete job not found: " + token));
+            executor.execute(() -> {
+                try {
+                    run(new Run(job));
+                } finally {
+                    busy.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            busy.set(false);
+            log.error("Could not start catalog delete job: {}", e.getMessage());
+        }
+    }
+
+    private void run(Run run) {
+        CatalogDeleteJob job = run.job;
+        log.info("Delete job {} started for {} {}", job.getJobId(), job.getTargetType(), job.getTargetId());
+
+        try {
+            switch (job.getTargetType()) {
+                case CLASS -> deleteClass(run, job.getTargetId());
+                case SUBJECT -> deleteSubject(run, job.getTargetId());
+                case TOPIC -> deleteTopic(run, job.getTargetId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Delete job {} interrupted after {} rows; it resumes once its lease expires",
+                    job.getJobId(), run.rows);
+            return;
+        } catch (RuntimeException e) {
+            job.setStatus(CatalogDeleteJobStatus.FAILED);
+            job.setLastError(truncate(e.getClass().getSimpleName() + ": " + e.getMessage()));
+            release(job);
+            log.error("Delete job {} failed after {} rows: {}", job.getJobId(), run.rows, e.getMessage());
+            return;
+        }
+
+        job.setStatus(CatalogDeleteJobStatus.COMPLETED);
+        job.setPhase(null);
+        job.setLastError(null);
+        job.setCompletedAt(LocalDateTime.now());
+        release(job);
+
+        if (job.getSubscriptionsArchived() > 0) {
+            dashboardMetricsService.rebuild();
+        } else {
+            dashboardMetricsService.refreshCatalog();
+        }
+        log.info("Delete job {} for {} {} completed: {} rows in {} batches, {} ms ({} ms throttled)",
+                job.getJobId(), job.getTargetType(), job.getTargetId(), run.rows, job.getBatches(),
+                System.currentTimeMillis() - run.start, job.getThrottledMs());
+    }
+
+    // ============ Subtree walk ============
+
+    private void deleteClass(Run run, Long classId) throws InterruptedException {
+        long afterId = 0L;
+        List<Long> subjectIds;
+        do {
+            subjectIds = catalogDeleteRepository.findSubjectIds(classId, afterId, batchSize);
+            for (Long subjectId : subjectIds) {
+                deleteSubject(run, subjectId);
+            }
+            if (!subjectIds.isEmpty()) afterId = subjectIds.get(subjectIds.size() - 1);
+        } while (subjectIds.size() == batchSize);
+
+        deletePlans(run, TargetType.CLASS, classId);
+        step(run, "CLASS " + classId, "ed_classes",
+                () -> catalogDeleteRepository.deleteTarget(TargetType.CLASS, classId), n -> { });
+        entityCacheService.evict(EdClass.class, classId);
+        suggestionService.remove(TargetType.CLASS, classId);
+    }
+
+    private void deleteSubject(Run run, Long subjectId) throws InterruptedException {
+        CatalogDeleteJob job = run.job;
+        long afterId = 0L;
+        List<Long> topicIds;
+        do {
+            topicIds = catalogDeleteRepository.findTopicIds(subjectId, afterId, batchSize);
+            for (Long topicId : topicIds) {
+                deleteTopic(run, topicId);
+            }
+            if (!topicIds.isEmpty()) afterId = topicIds.get(topicIds.size() - 1);
+        } while (topicIds.size() == batchSize);
+
+        archiveSubscriptions(run, TargetType.SUBJECT, subjectId);
+        deletePlans(run, TargetType.SUBJECT, subjectId);
+        step(run, "SUBJECT " + subjectId, "ed_subjects",
+                () -> catalogDeleteRepository.deleteTarget(TargetType.SUBJECT, subjectId),
+                n -> job.setSubjectsDeleted(job.getSubjectsDeleted() + n));
+        entityCacheService.evict(EdSubject.class, subjectId);
+        suggestionService.remove(TargetType.SUBJECT, subjectId);
+    }
+
+    private void deleteTopic(Run run, Long topicId) throws InterruptedException {
+        CatalogDeleteJob job = run.job;
+        int deleted;
+        do {
+            deleted = step(run, "TOPIC " + topicId + ": contents", "topic_contents",
+                    () -> catalogDeleteRepository.deleteContents(topicId, contentBatchSize),
+                    n -> job.setContentsDeleted(job.getContentsDeleted() + n));
+        } while (deleted == contentBatchSize);
+
+        archiveSubscriptions(run, TargetType.TOPIC, topicId);
+        deletePlans(run, TargetType.TOPIC, topicId);
+        step(run, "TOPIC " + topicId, "ed_topics",
+                () -> catalogDeleteRepository.deleteTarget(TargetType.TOPIC, topicId),
+                n -> job.setTopicsDeleted(job.getTopicsDeleted() + n));
+        entityCacheService.evict(EdTopic.class, topicId);
+        suggestionService.remove(TargetType.TOPIC, topicId);
+    }
+
+    private void archiveSubscriptions(Run run, TargetType type, Long targetId) throws InterruptedException {
+        CatalogDeleteJob job = run.job;
+        String table = type == TargetType.SUBJECT ? "user_subject_subscriptions" : "user_topic_subscriptions";
+        int archived;
+        do {
+            archived = step(run, type + " " + targetId + ": subscriptions", table,
+                    () -> catalogDeleteRepository.archiveSubscriptions(type, targetId, job.getJobId(),
+                            LocalDateTime.now(), batchSize),
+                    n -> job.setSubscriptionsArchived(job.getSubscriptionsArchived() + n));
+        } while (archived == batchSize);
+    }
+
+    private void deletePlans(Run run, TargetType type, Long targetId) throws InterruptedException {
+        CatalogDeleteJob job = run.job;
+        int deleted = step(run, type + " " + targetId + ": plans", "subscription_plans",
+                () -> catalogDeleteRepository.deletePlans(type, targetId),
+                n -> job.setPlansDeleted(job.getPlansDeleted() + n));
+        if (deleted > 0) {
+            // Deleted by target with plain SQL, so the plan ids are unknown to the cache
+            entityCacheService.evictPlans();
+        }
+    }
+
+    // ============ Helper Methods ============
+
+    /**
+     * Run one batch in its own transaction, record it on the job (renewing the lease) and pace the next one.
+     */
+    private int step(Run run, String phase, String table, IntSupplier work, IntConsumer tally)
+            throws InterruptedException {
+        if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
+
+        Integer result = tx.execute(status -> work.getAsInt());
+        int rows = result != null ? result : 0;
+        run.rows += rows;
+        meterRegistry.counter("catalog.delete.rows", "table", table).increment(rows);
+
+        CatalogDeleteJob job = run.job;
+        tally.accept(rows);
+        job.setPhase(phase);
+        job.setBatches(job.getBatches() + 1);
+        job.setThrottledMs(job.getThrottledMs() + throttle(run));
+        job.setLockedUntil(LocalDateTime.now().plusSeconds(leaseSeconds));
+        catalogDeleteJobRepository.save(job);
+        return rows;
+    }
+
+    /**
+     * Sleep just long enough to keep the job's running average under the rows/second ceiling.
+     * Returns the time slept.
+     */
+    private long throttle(Run run) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) return 0;
+        long minElapsedMs = run.rows * 1000 / maxRowsPerSecond;
+        long elapsedMs = System.currentTimeMillis() - run.start;
+        if (minElapsedMs <= elapsedMs) return 0;
+        Thread.sleep(minElapsedMs - elapsedMs);
+        return minElapsedMs - elapsedMs;
+    }
+
+    private void release(CatalogDeleteJob job) {
+        job.setClaimToken(null);
+        job.setLockedUntil(null);
+        catalogDeleteJobRepository.save(job);
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,681 @@
+package com.worldedu.worldeducation.admin.service;
+
+import com.worldedu.worldeducation.admin.dto.*;
+import com.worldedu.worldeducation.admin.repository.CatalogImportRepository;
+import com.worldedu.worldeducation.admin.util.CsvReader;
+import com.worldedu.worldeducation.cache.service.EntityCacheService;
+import com.worldedu.worldeducation.metrics.service.DashboardMetricsService;
+import com.worldedu.worldeducation.search.service.SuggestionService;
+import com.worldedu.worldeducation.subject.entity.EdClass;
+import com.worldedu.worldeducation.subject.entity.EdSubject;
+import com.worldedu.worldeducation.subject.repository.EdClassRepository;
+import com.worldedu.worldeducation.subject.repository.EdSubjectRepository;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan.TargetType;
+import com.worldedu.worldeducation.subscription.repository.SubscriptionPlanRepository;
+import com.worldedu.worldeducation.topic.entity.EdTopic;
+import com.worldedu.worldeducation.topic.repository.EdTopicRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bulk import of classes, subjects, topics and their subscription plans.
+ *
+ * The whole batch is validated in memory first — bean constraints on each node plus
+ * duplicate checks against the current catalog, loaded once up front. Valid rows are then
+ * written level by level (classes, subjects, topics, plans) with JDBC batch inserts, one
+ * transaction per chunk, and generated ids flow down to the children. Invalid rows, and rows
+ * whose parent could not be written, are reported individually and do not stop the rest.
+ *
+ * Existing classes and subjects (matched by name, case-insensitive) are reused as parents;
+ * topics must be new.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportService {
+
+    /**
+     * CSV layout, one record per row. record_type is CLASS, SUBJECT, TOPIC or PLAN; a row names
+     * its ancestors by class_name / subject_name. A PLAN row targets the deepest name it gives.
+     * Columns are matched by header name, so order is free and unused columns may be omitted.
+     */
+    public static final List<String> CSV_COLUMNS = List.of(
+            "record_type", "class_name", "class_number", "subject_name", "topic_name", "description",
+            "is_active", "publish_date", "plan_name", "duration_days", "price", "currency",
+            "grace_period_days", "free_days");
+
+    private static final int EXISTING_TOPIC_LOOKUP_CHUNK = 1000;
+
+    private final EdClassRepository classRepository;
+    private final EdSubjectRepository subjectRepository;
+    private final EdTopicRepository topicRepository;
+    private final SubscriptionPlanRepository subscriptionPlanRepository;
+    private final CatalogImportRepository catalogImportRepository;
+    private final SuggestionService suggestionService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final EntityCacheService entityCacheService;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.catalog-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.catalog-import.max-rows:200000}")
+    private int maxRows;
+
+    @Value("${app.catalog-import.max-errors:1000}")
+    private int maxErrors;
+
+    /** Id of a catalog row — known up front for existing rows, filled in once a new row is committed. */
+    private static final class IdRef {
+        private Long id;
+
+        private IdRef(Long id) {
+            this.id = id;
+        }
+    }
+
+    private record PendingClass(EdClass entity, IdRef ref, String source) {
+    }
+
+    private record PendingSubject(EdSubject entity, IdRef ref, IdRef parent, String source) {
+    }
+
+    private record PendingTopic(EdTopic entity, IdRef ref, IdRef parent, String source) {
+    }
+
+    private record PendingPlan(SubscriptionPlan entity, IdRef target, String source) {
+    }
+
+    /** Rows accepted by validation plus every error found so far. */
+    private final class Batch {
+        private final List<PendingClass> classes = new ArrayList<>();
+        private final List<PendingSubject> subjects = new ArrayList<>();
+        private final List<PendingTopic> topics = new ArrayList<>();
+        private final List<PendingPlan> plans = new ArrayList<>();
+        private final List<CatalogImportError> errors = new ArrayList<>();
+        private int errorCount;
+
+        private void error(String source, String message) {
+            errorCount++;
+            if (errors.size() < maxErrors) {
+                errors.add(CatalogImportError.builder().source(source).message(message).build());
+            }
+        }
+    }
+
+    public CatalogImportResult importTree(CatalogImportRequest request, boolean dryRun) {
+        return run(request, dryRun, new Batch());
+    }
+
+    public CatalogImportResult importCsv(InputStream input, boolean dryRun) throws IOException {
+        Batch batch = new Batch();
+        CatalogImportRequest request = parseCsv(input, batch);
+        return run(request, dryRun, batch);
+    }
+
+    private CatalogImportResult run(CatalogImportRequest request, boolean dryRun, Batch batch) {
+        long start = System.currentTimeMillis();
+        List<CatalogImportClass> classes = request.getClasses() != null ? request.getClasses() : List.of();
+
+        int rows = 0;
+        for (CatalogImportClass classNode : classes) {
+            rows += 1 + countDescendants(classNode);
+        }
+        if (rows > maxRows) {
+            throw new IllegalArgumentException("Import has " + rows + " rows; the limit is " + maxRows);
+        }
+
+        validate(classes, batch);
+
+        int classesCreated = batch.classes.size();
+        int subjectsCreated = batch.subjects.size();
+        int topicsCreated = batch.topics.size();
+        int plansCreated = batch.plans.size();
+
+        if (!dryRun) {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            classesCreated = writeInChunks(tx, batch, batch.classes, PendingClass::source,
+                    p -> true,
+                    chunk -> catalogImportRepository.insertClasses(chunk.stream().map(PendingClass::entity).toList()),
+                    p -> p.ref().id = p.entity().getClassId());
+            subjectsCreated = writeInChunks(tx, batch, batch.subjects, PendingSubject::source,
+                    p -> {
+                        p.entity().setClassId(p.parent().id);
+                        return p.parent().id != null;
+                    },
+                    chunk -> catalogImportRepository.insertSubjects(chunk.stream().map(PendingSubject::entity).toList()),
+                    p -> p.ref().id = p.entity().getSubjectId());
+            topicsCreated = writeInChunks(tx, batch, batch.topics, PendingTopic::source,
+                    p -> {
+                        p.entity().setSubjectId(p.parent().id);
+                        return p.parent().id != null;
+                    },
+                    chunk -> catalogImportRepository.insertTopics(chunk.stream().map(PendingTopic::entity).toList()),
+                    p -> p.ref().id = p.entity().getTopicId());
+            plansCreated = writeInChunks(tx, batch, batch.plans, PendingPlan::source,
+                    p -> {
+                        setTypedTargetId(p.entity(), p.target().id);
+                        return p.target().id != null;
+                    },
+                    chunk -> catalogImportRepository.insertPlans(chunk.stream().map(PendingPlan::entity).toList()),
+                    p -> { });
+
+            if (classesCreated + subjectsCreated + topicsCreated > 0) {
+                suggestionService.rebuild();
+            }
+            if (classesCreated + subjectsCreated + topicsCreated + plansCreated > 0) {
+                dashboardMetricsService.refreshCatalog();
+            }
+            if (plansCreated > 0) {
+                // JDBC inserts bypass Hibernate, so cached plan lists would not include the new plans
+                entityCacheService.evictQueries();
+            }
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Catalog import{}: {} classes, {} subjects, {} topics, {} plans, {} errors in {} ms",
+                dryRun ? " (dry run)" : "", classesCreated, subjectsCreated, topicsCreated, plansCreated,
+                batch.errorCount, duration);
+
+        return CatalogImportResult.builder()
+                .dryRun(dryRun)
+                .classesCreated(classesCreated)
+                .subjectsCreated(subjectsCreated)
+                .topicsCreated(topicsCreated)
+                .plansCreated(plansCreated)
+                .errorCount(batch.errorCount)
+                .errors(batch.errors)
+                .durationMs(duration)
+                .build();
+    }
+
+    // ============ Validation ============
+
+    private void validate(List<CatalogImportClass> classes, Batch batch) {
+        Map<String, EdClass> existingClasses = new HashMap<>();
+        for (EdClass cls : classRepository.findAll()) {
+            existingClasses.putIfAbsent(normalize(cls.getClassName()), cls);
+        }
+        Map<String, EdSubject> existingSubjects = new HashMap<>();
+        for (EdSubject subject : subjectRepository.findAll()) {
+            existingSubjects.putIfAbsent(subject.getClassId() + ":" + normalize(subject.getSubjectName()), subject);
+        }
+        Set<String> activePlanTargets = new HashSet<>();
+        for (Object[] row : subscriptionPlanRepository.findActiveTargets()) {
+            TargetType type = (TargetType) row[0];
+            Long id = (Long) (type == TargetType.CLASS ? row[1] : type == TargetType.SUBJECT ? row[2] : row[3]);
+            activePlanTargets.add(type + ":" + id);
+        }
+        Set<String> existingTopics = loadExistingTopicNames(classes, existingClasses, existingSubjects);
+
+        Set<String> importedClasses = new HashSet<>();
+        for (int ci = 0; ci < classes.size(); ci++) {
+            CatalogImportClass classNode = classes.get(ci);
+            String classSource = source(classNode.getLine(), "classes[" + ci + "]");
+            String classKey = normalize(classNode.getClassName());
+
+            if (!classKey.isEmpty() && !importedClasses.add(classKey)) {
+                batch.error(classSource, "Duplicate class in import: " + classNode.getClassName()
+                        + skippedSuffix(countDescendants(classNode)));
+                continue;
+            }
+
+            EdClass existingClass = existingClasses.get(classKey);
+            IdRef classRef;
+            if (existingClass != null) {
+                classRef = new IdRef(existingClass.getClassId());
+            } else {
+                String violations = violations(classNode);
+                if (violations != null) {
+                    batch.error(classSource, violations + skippedSuffix(countDescendants(classNode)));
+                    continue;
+                }
+                EdClass cls = new EdClass();
+                cls.setClassName(classNode.getClassName().trim());
+                cls.setClassNumber(classNode.getClassNumber());
+                cls.setIsActive(classNode.getIsActive() != null ? classNode.getIsActive() : true);
+                cls.setDescription(classNode.getDescription());
+                cls.setCreatedAt(LocalDateTime.now());
+                classRef = new IdRef(null);
+                batch.classes.add(new PendingClass(cls, classRef, classSource));
+            }
+            validatePlan(classNode.getPlan(), TargetType.CLASS, classRef, classSource, activePlanTargets, batch);
+
+            List<CatalogImportSubject> subjects = classNode.getSubjects() != null ? classNode.getSubjects() : List.of();
+            Set<String> importedSubjects = new HashSet<>();
+            for (int si = 0; si < subjects.size(); si++) {
+                CatalogImportSubject subjectNode = subjects.get(si);
+                String subjectSource = source(subjectNode.getLine(), classSource + ".subjects[" + si + "]");
+                String subjectKey = normalize(subjectNode.getSubjectName());
+
+                if (!subjectKey.isEmpty() && !importedSubjects.add(subjectKey)) {
+                    batch.error(subjectSource, "Duplicate subject in import: " + subjectNode.getSubjectName()
+                            + skippedSuffix(countDescendants(subjectNode)));
+                    continue;
+                }
+
+                EdSubject existingSubject = existingClass != null
+                        ? existingSubjects.get(existingClass.getClassId() + ":" + subjectKey) : null;
+                IdRef subjectRef;
+                if (existingSubject != null) {
+                    subjectRef = new IdRef(existingSubject.getSubjectId());
+                } else {
+                    String violations = violations(subjectNode);
+                    if (violations != null) {
+                        batch.error(subjectSource, violations + skippedSuffix(countDescendants(subjectNode)));
+                        continue;
+                    }
+                    EdSubject subject = new EdSubject();
+                    subject.setSubjectName(subjectNode.getSubjectName().trim());
+                    subject.setIsActive(subjectNode.getIsActive() != null ? subjectNode.getIsActive() : true);
+                    subject.setDescription(subjectNode.getDescription());
+                    subject.setCreatedAt(LocalDateTime.now());
+                    subjectRef = new IdRef(null);
+                    batch.subjects.add(new PendingSubject(subject, subjectRef, classRef, subjectSource));
+                }
+                validatePlan(subjectNode.getPlan(), TargetType.SUBJECT, subjectRef, subjectSource, activePlanTargets, batch);
+
+                List<CatalogImportTopic> topics = subjectNode.getTopics() != null ? subjectNode.getTopics() : List.of();
+                Set<String> importedTopics = new HashSet<>();
+                for (int ti = 0; ti < topics.size(); ti++) {
+                    CatalogImportTopic topicNode = topics.get(ti);
+                    String topicSource = source(topicNode.getLine(), subjectSource + ".topics[" + ti + "]");
+                    String topicKey = normalize(topicNode.getTopicName());
+                    int skipped = topicNode.getPlan() != null ? 1 : 0;
+
+                    String violations = violations(topicNode);
+                    if (violations != null) {
+                        batch.error(topicSource, violations + skippedSuffix(skipped));
+                        continue;
+                    }
+                    if (!importedTopics.add(topicKey)) {
+                        batch.error(topicSource, "Duplicate topic in import: " + topicNode.getTopicName() + skippedSuffix(skipped));
+                        continue;
+                    }
+                    if (existingSubject != null && existingTopics.contains(existingSubject.getSubjectId() + ":" + topicKey)) {
+                        batch.error(topicSource, "Topic already exists in this subject: " + topicNode.getTopicName()
+                                + skippedSuffix(skipped));
+                        continue;
+                    }
+
+                    EdTopic topic = new EdTopic();
+                    topic.setTopicName(topicNode.getTopicName().trim());
+                    topic.setPublishDate(topicNode.getPublishDate() != null ? topicNode.getPublishDate() : LocalDateTime.now());
+                    topic.setIsActive(topicNode.getIsActive() != null ? topicNode.getIsActive() : true);
+                    topic.setDescription(topicNode.getDescription());
+                    topic.setCreatedAt(LocalDateTime.now());
+                    IdRef topicRef = new IdRef(null);
+                    batch.topics.add(new PendingTopic(topic, topicRef, subjectRef, topicSource));
+                    validatePlan(topicNode.getPlan(), TargetType.TOPIC, topicRef, topicSource, activePlanTargets, batch);
+                }
+            }
+        }
+    }
+
+    private void validatePlan(CatalogImportPlan planNode, TargetType type, IdRef target, String parentSource,
+                              Set<String> activePlanTargets, Batch batch) {
+        if (planNode == null) return;
+        String planSource = source(planNode.getLine(), parentSource + ".plan");
+
+        String violations = violations(planNode);
+        if (violations != null) {
+            batch.error(planSource, violations);
+            return;
+        }
+        boolean active = planNode.getIsActive() == null || planNode.getIsActive();
+        if (active && target.id != null && activePlanTargets.contains(type + ":" + target.id)) {
+            batch.error(planSource, "An active subscription plan already exists for this "
+                    + type.name().toLowerCase(Locale.ROOT) + ". Edit the existing plan instead.");
+            return;
+        }
+
+        SubscriptionPlan plan = new SubscriptionPlan();
+        plan.setPlanName(planNode.getPlanName().trim());
+        plan.setTargetType(type);
+        plan.setDurationDays(planNode.getDurationDays());
+        plan.setPrice(planNode.getPrice());
+        plan.setCurrency(planNode.getCurrency().trim().toUpperCase(Locale.ROOT));
+        plan.setGracePeriodDays(planNode.getGracePeriodDays());
+        plan.setFreeDays(planNode.getFreeDays());
+        plan.setIsActive(active);
+        plan.setCreatedAt(LocalDateTime.now());
+        plan.setUpdatedAt(plan.getCreatedAt());
+        batch.plans.add(new PendingPlan(plan, target, planSource));
+    }
+
+    /** "subjectId:lower(topicName)" for every topic under an existing subject the import touches. */
+    private Set<String> loadExistingTopicNames(List<CatalogImportClass> classes, Map<String, EdClass> existingClasses,
+                                               Map<String, EdSubject> existingSubjects) {
+        List<Long> subjectIds = new ArrayList<>();
+        for (CatalogImportClass classNode : classes) {
+            EdClass cls = existingClasses.get(normalize(classNode.getClassName()));
+            if (cls == null || classNode.getSubjects() == null) continue;
+            for (CatalogImportSubject subjectNode : classNode.getSubjects()) {
+                EdSubject subject = existingSubjects.get(cls.getClassId() + ":" + normalize(subjectNode.getSubjectName()));
+                if (subject != null && subjectNode.getTopics() != null && !subjectNode.getTopics().isEmpty()) {
+                    subjectIds.add(subject.getSubjectId());
+                }
+            }
+        }
+
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < subjectIds.size(); i += EXISTING_TOPIC_LOOKUP_CHUNK) {
+            List<Long> chunk = subjectIds.subList(i, Math.min(i + EXISTING_TOPIC_LOOKUP_CHUNK, subjectIds.size()));
+            for (Object[] row : topicRepository.findNamesBySubjectIdIn(chunk)) {
+                names.add(row[0] + ":" + normalize((String) row[1]));
+            }
+        }
+        return names;
+    }
+
+    /** Joined bean-validation messages for a node, or null when it is valid. */
+    private String violations(Object node) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(node);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .reduce((a, b) -> a + "; " + b)
+                .orElse(null);
+    }
+
+    // ============ Writing ============
+
+    /**
+     * Insert pending rows in chunks, each in its own transaction. A failed chunk is reported
+     * row by row and its rows keep a null id, so their children are skipped in turn.
+     * publish runs only after the chunk has committed.
+     */
+    private <T> int writeInChunks(TransactionTemplate tx, Batch batch, List<T> pending, Function<T, String> source,
+                                  Predicate<T> prepare, Consumer<List<T>> insert, Consumer<T> publish) {
+        int written = 0;
+        List<T> chunk = new ArrayList<>(Math.min(chunkSize, pending.size()));
+        for (T row : pending) {
+            if (!prepare.test(row)) {
+                batch.error(source.apply(row), "Skipped: parent row was not written");
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                written += flush(tx, batch, chunk, source, insert, publish);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            written += flush(tx, batch, chunk, source, insert, publish);
+        }
+        return written;
+    }
+
+    private <T> int flush(TransactionTemplate tx, Batch batch, List<T> chunk, Function<T, String> source,
+                          Consumer<List<T>> insert, Consumer<T> publish) {
+        try {
+            tx.executeWithoutResult(status -> insert.accept(chunk));
+        } catch (DataAccessException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Catalog import chunk of {} rows failed: {}", chunk.size(), cause);
+            for (T row : chunk) {
+                batch.error(source.apply(row), "Database error: " + cause);
+            }
+            return 0;
+        }
+        chunk.forEach(publish);
+        return chunk.size();
+    }
+
+    private static void setTypedTargetId(SubscriptionPlan plan, Long id) {
+        switch (plan.getTargetType()) {
+            case CLASS -> plan.setClassId(id);
+            case SUBJECT -> plan.setSubjectId(id);
+            case TOPIC -> plan.setTopicId(id);
+        }
+    }
+
+    // ============ CSV ============
+
+    private CatalogImportRequest parseCsv(InputStream input, Batch batch) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("\uFEFF")) name = name.substring(1);
+            columns.put(name, i);
+        }
+        if (!columns.containsKey("record_type") || !columns.containsKey("class_name")) {
+            throw new IllegalArgumentException("CSV header must include record_type and class_name; columns are " + CSV_COLUMNS);
+        }
+
+        Map<String, CatalogImportClass> classes = new LinkedHashMap<>();
+        Map<String, CatalogImportSubject> subjects = new HashMap<>();
+        Map<String, CatalogImportTopic> topics = new HashMap<>();
+        int rows = 0;
+
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            int line = reader.getRecordLine();
+            if (++rows > maxRows) {
+                throw new IllegalArgumentException("Import has more than " + maxRows + " rows");
+            }
+            CsvRow row = new CsvRow(record, columns);
+            String type = row.get("record_type").toUpperCase(Locale.ROOT);
+            String className = row.get("class_name");
+            String subjectName = row.get("subject_name");
+            String topicName = row.get("topic_name");
+
+            try {
+                if (className.isEmpty()) {
+                    throw new IllegalArgumentException("class_name is required");
+                }
+                String classKey = normalize(className);
+                String subjectKey = classKey + "|" + normalize(subjectName);
+                String topicKey = subjectKey + "|" + normalize(topicName);
+
+                switch (type) {
+                    case "CLASS" -> {
+                        CatalogImportClass node = classNode(classes, className, line);
+                        node.setClassNumber(row.getInteger("class_number"));
+                        node.setDescription(row.getOrNull("description"));
+                        node.setIsActive(row.getBoolean("is_active"));
+                        node.setLine(line);
+                    }
+                    case "SUBJECT" -> {
+                        requireName(subjectName, "subject_name");
+                        CatalogImportSubject node = subjectNode(classes, subjects, className, subjectName, line);
+                        node.setDescription(row.getOrNull("description"));
+                        node.setIsActive(row.getBoolean("is_active"));
+                        node.setLine(line);
+                    }
+                    case "TOPIC" -> {
+                        requireName(subjectName, "subject_name");
+                        requireName(topicName, "topic_name");
+                        CatalogImportTopic node = CatalogImportTopic.builder()
+                                .topicName(topicName)
+                                .description(row.getOrNull("description"))
+                                .publishDate(row.getDateTime("publish_date"))
+                                .isActive(row.getBoolean("is_active"))
+                                .line(line)
+                                .build();
+                        subjectNode(classes, subjects, className, subjectName, line).getTopics().add(node);
+                        topics.putIfAbsent(topicKey, node);
+                    }
+                    case "PLAN" -> {
+                        CatalogImportPlan plan = CatalogImportPlan.builder()
+                                .planName(row.getOrNull("plan_name"))
+                                .durationDays(row.getInteger("duration_days"))
+                                .price(row.getDecimal("price"))
+                                .currency(row.getOrNull("currency"))
+                                .gracePeriodDays(row.getInteger("grace_period_days"))
+                                .freeDays(row.getInteger("free_days"))
+                                .isActive(row.getBoolean("is_active"))
+                                .line(line)
+                                .build();
+                        if (!topicName.isEmpty()) {
+                            CatalogImportTopic node = topics.get(topicKey);
+                            if (node == null) {
+                                throw new IllegalArgumentException("PLAN row must follow the TOPIC row it belongs to");
+                            }
+                            attachPlan(node.getPlan(), plan, node::setPlan);
+                        } else if (!subjectName.isEmpty()) {
+                            CatalogImportSubject node = subjectNode(classes, subjects, className, subjectName, line);
+                            attachPlan(node.getPlan(), plan, node::setPlan);
+                        } else {
+                            CatalogImportClass node = classNode(classes, className, line);
+                            attachPlan(node.getPlan(), plan, node::setPlan);
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unknown record_type: " + row.get("record_type"));
+                }
+            } catch (IllegalArgumentException e) {
+                batch.error("line " + line, e.getMessage());
+            }
+        }
+
+        return CatalogImportRequest.builder().classes(new ArrayList<>(classes.values())).build();
+    }
+
+    private CatalogImportClass classNode(Map<String, CatalogImportClass> classes, String className, int line) {
+        return classes.computeIfAbsent(normalize(className),
+                k -> CatalogImportClass.builder().className(className).line(line).build());
+    }
+
+    private CatalogImportSubject subjectNode(Map<String, CatalogImportClass> classes,
+                                             Map<String, CatalogImportSubject> subjects,
+                                             String className, String subjectName, int line) {
+        String key = normalize(className) + "|" + normalize(subjectName);
+        CatalogImportSubject node = subjects.get(key);
+        if (node == null) {
+            node = CatalogImportSubject.builder().subjectName(subjectName).line(line).build();
+            subjects.put(key, node);
+            classNode(classes, className, line).getSubjects().add(node);
+        }
+        return node;
+    }
+
+    private static void attachPlan(CatalogImportPlan existing, CatalogImportPlan plan, Consumer<CatalogImportPlan> setter) {
+        if (existing != null) {
+            throw new IllegalArgumentException("Target already has a plan on line " + existing.getLine());
+        }
+        setter.accept(plan);
+    }
+
+    private static void requireName(String value, String column) {
+        if (value.isEmpty()) throw new IllegalArgumentException(column + " is required");
+    }
+
+    /** Cell access by header name with typed parsing; bad values raise IllegalArgumentException. */
+    private record CsvRow(List<String> values, Map<String, Integer> columns) {
+
+        String get(String column) {
+            Integer index = columns.get(column);
+            return index != null && index < values.size() ? values.get(index).trim() : "";
+        }
+
+        String getOrNull(String column) {
+            String value = get(column);
+            return value.isEmpty() ? null : value;
+        }
+
+        Integer getInteger(String column) {
+            String value = get(column);
+            if (value.isEmpty()) return null;
+            try {
+                return Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        BigDecimal getDecimal(String column) {
+            String value = get(column);
+            if (value.isEmpty()) return null;
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        Boolean getBoolean(String column) {
+            String value = get(column).toLowerCase(Locale.ROOT);
+            return switch (value) {
+                case "" -> null;
+                case "true", "1", "yes", "y" -> true;
+                case "false", "0", "no", "n" -> false;
+                default -> throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            };
+        }
+
+        LocalDateTime getDateTime(String column) {
+            String value = get(column);
+            if (value.isEmpty()) return null;
+            try {
+                return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+    }
+
+    // ============ Helper Methods ============
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String source(Integer line, String path) {
+        return line != null ? "line " + line : path;
+    }
+
+    private static String skippedSuffix(int descendants) {
+        return descendants > 0 ? " (" + descendants + " nested rows skipped)" : "";
+    }
+
+    private static int countDescendants(CatalogImportClass classNode) {
+        int count = classNode.getPlan() != null ? 1 : 0;
+        if (classNode.getSubjects() != null) {
+            for (CatalogImportSubject subject : classNode.getSubjects()) {
+                count += 1 + countDescendants(subject);
+            }
+        }
+        return count;
+    }
+
+    private static int countDescendants(CatalogImportSubject subjectNode) {
+        int count = subjectNode.getPlan() != null ? 1 : 0;
+        if (subjectNode.getTopics() != null) {
+            for (CatalogImportTopic topic : subjectNode.getTopics()) {
+                count += 1 + (topic.getPlan() != null ? 1 : 0);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+package com.worldedu.worldeducation.admin.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields with "" escapes,
+ * quoted fields may span lines. Reads one record at a time.
+ * Not thread-safe — one instance per input.
+ */
+public class CsvReader {
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder(64);
+    private int pushback = -2;
+    private int line = 1;
+    private int recordLine;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Line on which the record last returned by {@link #next()} started (1-based). */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Next record, or null at end of input. Blank lines are skipped.
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) return null;
+
+        recordLine = line;
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldStart = true;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+                c = read();
+                continue;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') unread(next);
+                }
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) c);
+            }
+            fieldStart = false;
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushback != -2) {
+            c = pushback;
+            pushback = -2;
+        } else {
+            c = in.read();
+            if (c == '\n') line++;
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+}
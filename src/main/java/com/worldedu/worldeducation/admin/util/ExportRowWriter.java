@@ -0,0 +1,131 @@
+package com.worldedu.worldeducation.admin.util;
+
+import com.worldedu.worldeducation.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Timestamp;
+
+/**
+ * Writes export rows one at a time as CSV or NDJSON, so nothing but the
+ * current row is ever held in memory.
+ *
+ * CSV cells that start with = + - @ are prefixed with a quote so spreadsheet
+ * tools open them as text rather than formulas.
+ * Not thread-safe — one instance per export.
+ */
+public class ExportRowWriter {
+
+    private final Writer out;
+    private final ExportFormat format;
+    private final String[] columns;
+    private final StringBuilder line = new StringBuilder(256);
+    private long rows;
+
+    public ExportRowWriter(Writer out, ExportFormat format, String... columns) {
+        this.out = out;
+        this.format = format;
+        this.columns = columns;
+    }
+
+    /** Header row for CSV; no-op for NDJSON. */
+    public void writeHeader() throws IOException {
+        if (format != ExportFormat.CSV) return;
+        line.setLength(0);
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) line.append(',');
+            appendCsv(columns[i]);
+        }
+        line.append('\n');
+        out.write(line.toString());
+    }
+
+    /** Write one row; values line up with the columns given at construction. */
+    public void writeRow(Object... values) throws IOException {
+        line.setLength(0);
+        if (format == ExportFormat.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) line.append(',');
+                Object value = values[i];
+                if (value != null) appendCsv(text(value));
+            }
+        } else {
+            line.append('{');
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) line.append(',');
+                appendJsonString(columns[i]);
+                line.append(':');
+                appendJsonValue(values[i]);
+            }
+            line.append('}');
+        }
+        line.append('\n');
+        out.write(line.toString());
+        rows++;
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    // ============ Helper Methods ============
+
+    private void appendCsv(String value) {
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        if (formula) line.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') line.append('"');
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendJsonValue(Object value) {
+        if (value == null) {
+            line.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            line.append(value);
+        } else {
+            appendJsonString(text(value));
+        }
+    }
+
+    private void appendJsonString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    /** JDBC timestamps as ISO-8601 local date-times, everything else via toString. */
+    private static String text(Object value) {
+        if (value instanceof Timestamp timestamp) return timestamp.toLocalDateTime().toString();
+        return value.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.worldedu.worldeducation.audit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlanHistoryDTO {
+    private Long historyId;
+    private Long subscriptionId;
+    private String changeType;
+    private BigDecimal oldPrice;
+    private BigDecimal newPrice;
+    private Integer oldDurationDays;
+    private Integer newDurationDays;
+    private Long changedBy;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,25 @@
+package com.worldedu.worldeducation.audit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSubscriptionHistoryDTO {
+    private Long historyId;
+    /** SUBJECT | TOPIC */
+    private String subscriptionType;
+    private Long userSubscriptionId;
+    private Long customerId;
+    private String oldState;
+    private String newState;
+    private String changeReason;
+    private Long changedBy;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,57 @@
+package com.worldedu.worldeducation.audit.entity;
+
+import com.worldedu.worldeducation.enums.PlanChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of an admin change to a subscription plan. Written in batches by
+ * {@link com.worldedu.worldeducation.audit.service.AuditLogService}; never updated.
+ */
+@Entity
+@Table(name = "subscription_plan_history", indexes = {
+        @Index(name = "idx_plan_history_plan_changed", columnList = "subscription_id, changed_at"),
+        @Index(name = "idx_plan_history_changed", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionPlanHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "history_id")
+    private Long historyId;
+
+    // Plain column rather than a FK so history outlives a deleted plan
+    @Column(name = "subscription_id", nullable = false)
+    private Long subscriptionId;
+
+    @Column(name = "old_price", precision = 10, scale = 2)
+    private BigDecimal oldPrice;
+
+    @Column(name = "new_price", precision = 10, scale = 2)
+    private BigDecimal newPrice;
+
+    @Column(name = "old_duration_days")
+    private Integer oldDurationDays;
+
+    @Column(name = "new_duration_days")
+    private Integer newDurationDays;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 30)
+    private PlanChangeType changeType;
+
+    // customer_id of the admin; null for system changes
+    @Column(name = "changed_by")
+    private Long changedBy;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,57 @@
+package com.worldedu.worldeducation.audit.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of an admin change to a user's subject or topic subscription.
+ * subscription_type says which table user_subscription_id points into (or, once ARCHIVED,
+ * archived_user_subscriptions.subscription_id). changed_by is null for background jobs.
+ */
+@Entity
+@Table(name = "user_subscription_history", indexes = {
+        @Index(name = "idx_user_sub_history_sub_changed", columnList = "subscription_type, user_subscription_id, changed_at"),
+        @Index(name = "idx_user_sub_history_customer_changed", columnList = "customer_id, changed_at"),
+        @Index(name = "idx_user_sub_history_changed", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSubscriptionHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "history_id")
+    private Long historyId;
+
+    // SUBJECT or TOPIC
+    @Column(name = "subscription_type", nullable = false, length = 20)
+    private String subscriptionType;
+
+    @Column(name = "user_subscription_id", nullable = false)
+    private Long userSubscriptionId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    // ACTIVE or INACTIVE; null for a subscription created by the change
+    @Column(name = "old_state", length = 20)
+    private String oldState;
+
+    // ACTIVE, INACTIVE, or ARCHIVED when a catalog delete moved the subscription out
+    @Column(name = "new_state", length = 20)
+    private String newState;
+
+    @Column(name = "change_reason", columnDefinition = "TEXT")
+    private String changeReason;
+
+    @Column(name = "changed_by")
+    private Long changedBy;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,58 @@
+package com.worldedu.worldeducation.audit.repository;
+
+import com.worldedu.worldeducation.audit.entity.SubscriptionPlanHistory;
+import com.worldedu.worldeducation.audit.entity.UserSubscriptionHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch appends for the audit history tables. One call is one batch, which Connector/J
+ * rewrites into a multi-row INSERT (rewriteBatchedStatements=true).
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditHistoryBatchRepository {
+
+    private static final String INSERT_PLAN_HISTORY =
+            "INSERT INTO subscription_plan_history (subscription_id, old_price, new_price, old_duration_days, " +
+            "new_duration_days, change_type, changed_by, changed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_USER_SUBSCRIPTION_HISTORY =
+            "INSERT INTO user_subscription_history (subscription_type, user_subscription_id, customer_id, " +
+            "old_state, new_state, change_reason, changed_by, changed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertPlanHistory(List<SubscriptionPlanHistory> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_PLAN_HISTORY, rows, rows.size(), (ps, h) -> {
+            ps.setLong(1, h.getSubscriptionId());
+            ps.setBigDecimal(2, h.getOldPrice());
+            ps.setBigDecimal(3, h.getNewPrice());
+            ps.setObject(4, h.getOldDurationDays(), Types.INTEGER);
+            ps.setObject(5, h.getNewDurationDays(), Types.INTEGER);
+            ps.setString(6, h.getChangeType().name());
+            ps.setObject(7, h.getChangedBy(), Types.BIGINT);
+            ps.setTimestamp(8, Timestamp.valueOf(h.getChangedAt()));
+        });
+    }
+
+    public void insertUserSubscriptionHistory(List<UserSubscriptionHistory> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_USER_SUBSCRIPTION_HISTORY, rows, rows.size(), (ps, h) -> {
+            ps.setString(1, h.getSubscriptionType());
+            ps.setLong(2, h.getUserSubscriptionId());
+            ps.setObject(3, h.getCustomerId(), Types.BIGINT);
+            ps.setString(4, h.getOldState());
+            ps.setString(5, h.getNewState());
+            ps.setString(6, h.getChangeReason());
+            ps.setObject(7, h.getChangedBy(), Types.BIGINT);
+            ps.setTimestamp(8, Timestamp.valueOf(h.getChangedAt()));
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.worldedu.worldeducation.audit.repository;
+
+import com.worldedu.worldeducation.audit.entity.SubscriptionPlanHistory;
+import com.worldedu.worldeducation.audit.entity.UserSubscriptionHistory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtered reads over the audit history tables, newest first by (changedAt, historyId).
+ *
+ * Like AdminUserQueryRepository, only the filters that are set make it into the JPQL, so
+ * MySQL can pick the (subscription, changed_at) or (customer, changed_at) index for the
+ * filter actually given instead of planning around "(:x IS NULL OR ...)" chains.
+ */
+@Repository
+public class AuditHistoryQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Plan history in [from, to), optionally for one plan. Null bounds are open.
+     */
+    public List<SubscriptionPlanHistory> findPlanHistory(Long subscriptionId, LocalDateTime from,
+                                                         LocalDateTime to, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT h FROM SubscriptionPlanHistory h WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (subscriptionId != null) {
+            jpql.append(" AND h.subscriptionId = :subscriptionId");
+            params.put("subscriptionId", subscriptionId);
+        }
+        appendRange(jpql, params, from, to);
+        return list(jpql, params, SubscriptionPlanHistory.class, limit);
+    }
+
+    /**
+     * User subscription history in [from, to), optionally narrowed to one subscription type,
+     * subscription or customer. Null bounds are open.
+     */
+    public List<UserSubscriptionHistory> findUserSubscriptionHistory(String type, Long subscriptionId,
+                                                                     Long customerId, LocalDateTime from,
+                                                                     LocalDateTime to, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT h FROM UserSubscriptionHistory h WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (type != null) {
+            jpql.append(" AND h.subscriptionType = :type");
+            params.put("type", type);
+        }
+        if (subscriptionId != null) {
+            jpql.append(" AND h.userSubscriptionId = :subscriptionId");
+            params.put("subscriptionId", subscriptionId);
+        }
+        if (customerId != null) {
+            jpql.append(" AND h.customerId = :customerId");
+            params.put("customerId", customerId);
+        }
+        appendRange(jpql, params, from, to);
+        return list(jpql, params, UserSubscriptionHistory.class, limit);
+    }
+
+    private static void appendRange(StringBuilder jpql, Map<String, Object> params,
+                                    LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            jpql.append(" AND h.changedAt >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" AND h.changedAt < :to");
+            params.put("to", to);
+        }
+    }
+
+    private <T> List<T> list(StringBuilder jpql, Map<String, Object> params, Class<T> entity, int limit) {
+        jpql.append(" ORDER BY h.changedAt DESC, h.historyId DESC");
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), entity);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
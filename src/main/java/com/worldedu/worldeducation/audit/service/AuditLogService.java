@@ -0,0 +1,262 @@
+package com.worldedu.worldeducation.audit.service;
+
+import com.worldedu.worldeducation.audit.dto.PlanHistoryDTO;
+import com.worldedu.worldeducation.audit.dto.UserSubscriptionHistoryDTO;
+import com.worldedu.worldeducation.audit.entity.SubscriptionPlanHistory;
+import com.worldedu.worldeducation.audit.entity.UserSubscriptionHistory;
+import com.worldedu.worldeducation.audit.repository.AuditHistoryBatchRepository;
+import com.worldedu.worldeducation.audit.repository.AuditHistoryQueryRepository;
+import com.worldedu.worldeducation.audit.util.RingBuffer;
+import com.worldedu.worldeducation.auth.entity.User;
+import com.worldedu.worldeducation.enums.PlanChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Write-behind audit log for admin mutations.
+ *
+ * record* calls build the history row on the request thread (including the acting admin) and,
+ * once the surrounding transaction commits, push it onto a lock-free {@link RingBuffer}.
+ * A scheduler drains the buffer and appends the rows to subscription_plan_history and
+ * user_subscription_history with one JDBC batch per table, so admin requests never wait on
+ * an audit write. If the buffer is full the row is written on the caller's thread instead of
+ * being dropped. Rows still buffered when a node dies are lost; the buffer is flushed on shutdown.
+ *
+ * Bulk changes and catalog deletes do not pass through here: they write their history rows
+ * with INSERT ... SELECT in the same transaction as the change (see BulkSubscriptionRepository).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogService {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final AuditHistoryBatchRepository auditHistoryBatchRepository;
+    private final AuditHistoryQueryRepository auditHistoryQueryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.buffer-capacity:65536}")
+    private int bufferCapacity;
+
+    @Value("${app.audit.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private RingBuffer<Object> buffer;
+    private TransactionTemplate tx;
+    private Counter recordedCounter;
+    private Counter overflowCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        buffer = new RingBuffer<>(bufferCapacity);
+        tx = new TransactionTemplate(transactionManager);
+        // The overflow write runs in afterCommit, where the caller's connection is still bound
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        recordedCounter = meterRegistry.counter("audit.events.recorded");
+        overflowCounter = meterRegistry.counter("audit.events.overflow");
+        droppedCounter = meterRegistry.counter("audit.events.dropped");
+        meterRegistry.gauge("audit.buffer.size", buffer, RingBuffer::size);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    // ============ Recording ============
+
+    public void recordPlanChange(Long subscriptionId, PlanChangeType changeType,
+                                 BigDecimal oldPrice, BigDecimal newPrice,
+                                 Integer oldDurationDays, Integer newDurationDays) {
+        SubscriptionPlanHistory history = new SubscriptionPlanHistory();
+        history.setSubscriptionId(subscriptionId);
+        history.setChangeType(changeType);
+        history.setOldPrice(oldPrice);
+        history.setNewPrice(newPrice);
+        history.setOldDurationDays(oldDurationDays);
+        history.setNewDurationDays(newDurationDays);
+        history.setChangedBy(currentActor());
+        history.setChangedAt(LocalDateTime.now());
+        enqueueAfterCommit(history);
+    }
+
+    public void recordSubscriptionChange(String subscriptionType, Long subscriptionId, Long customerId,
+                                         Boolean oldActive, Boolean newActive, String reason) {
+        UserSubscriptionHistory history = new UserSubscriptionHistory();
+        history.setSubscriptionType(subscriptionType.toUpperCase(Locale.ROOT));
+        history.setUserSubscriptionId(subscriptionId);
+        history.setCustomerId(customerId);
+        history.setOldState(toState(oldActive));
+        history.setNewState(toState(newActive));
+        history.setChangeReason(reason);
+        history.setChangedBy(currentActor());
+        history.setChangedAt(LocalDateTime.now());
+        enqueueAfterCommit(history);
+    }
+
+    // ============ Background writer ============
+
+    /**
+     * Drain the buffer in batches until it is empty. Rows in a failed batch are put back
+     * for the next run (and counted as dropped if the buffer has since filled up).
+     */
+    @Scheduled(fixedDelayString = "${app.audit.flush-ms:1000}")
+    public void flush() {
+        List<Object> batch = new ArrayList<>(flushBatchSize);
+        int written = 0;
+        while (buffer.drainTo(batch, flushBatchSize) > 0) {
+            try {
+                write(batch);
+                written += batch.size();
+            } catch (RuntimeException e) {
+                log.error("Audit flush failed, requeueing {} events: {}", batch.size(), e.getMessage());
+                for (Object event : batch) {
+                    if (!buffer.offer(event)) droppedCounter.increment();
+                }
+                break;
+            }
+            if (batch.size() < flushBatchSize) break;
+            batch.clear();
+        }
+        if (written > 0) {
+            log.debug("Flushed {} audit events", written);
+        }
+    }
+
+    // ============ Queries ============
+
+    /**
+     * Plan history in [from, to), newest first. Events still buffered on this node are written first.
+     */
+    public List<PlanHistoryDTO> getPlanHistory(Long subscriptionId, LocalDateTime from, LocalDateTime to,
+                                               Integer limit) {
+        flush();
+        return auditHistoryQueryRepository.findPlanHistory(subscriptionId, from, to, pageSize(limit)).stream()
+                .map(h -> PlanHistoryDTO.builder()
+                        .historyId(h.getHistoryId())
+                        .subscriptionId(h.getSubscriptionId())
+                        .changeType(h.getChangeType().name())
+                        .oldPrice(h.getOldPrice())
+                        .newPrice(h.getNewPrice())
+                        .oldDurationDays(h.getOldDurationDays())
+                        .newDurationDays(h.getNewDurationDays())
+                        .changedBy(h.getChangedBy())
+                        .changedAt(h.getChangedAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * User subscription history in [from, to), newest first, optionally by type, subscription or customer.
+     */
+    public List<UserSubscriptionHistoryDTO> getUserSubscriptionHistory(String type, Long subscriptionId,
+                                                                       Long customerId, LocalDateTime from,
+                                                                       LocalDateTime to, Integer limit) {
+        if (type != null && !"SUBJECT".equalsIgnoreCase(type) && !"TOPIC".equalsIgnoreCase(type)) {
+            throw new IllegalArgumentException("Invalid subscription type: " + type);
+        }
+        flush();
+        return auditHistoryQueryRepository.findUserSubscriptionHistory(
+                        type != null ? type.toUpperCase(Locale.ROOT) : null,
+                        subscriptionId, customerId, from, to, pageSize(limit)).stream()
+                .map(h -> UserSubscriptionHistoryDTO.builder()
+                        .historyId(h.getHistoryId())
+                        .subscriptionType(h.getSubscriptionType())
+                        .userSubscriptionId(h.getUserSubscriptionId())
+                        .customerId(h.getCustomerId())
+                        .oldState(h.getOldState())
+                        .newState(h.getNewState())
+                        .changeReason(h.getChangeReason())
+                        .changedBy(h.getChangedBy())
+                        .changedAt(h.getChangedAt())
+                        .build())
+                .toList();
+    }
+
+    // ============ Helper Methods ============
+
+    private void enqueueAfterCommit(Object event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only audit what has actually committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(Object event) {
+        recordedCounter.increment();
+        if (buffer.offer(event)) return;
+
+        // Buffer full: the writer is behind, so pay for this one write rather than lose it
+        overflowCounter.increment();
+        try {
+            write(List.of(event));
+        } catch (RuntimeException e) {
+            droppedCounter.increment();
+            log.error("Audit event dropped, buffer full and direct write failed: {}", e.getMessage());
+        }
+    }
+
+    private void write(List<Object> events) {
+        List<SubscriptionPlanHistory> planRows = new ArrayList<>();
+        List<UserSubscriptionHistory> subscriptionRows = new ArrayList<>();
+        for (Object event : events) {
+            if (event instanceof SubscriptionPlanHistory plan) {
+                planRows.add(plan);
+            } else if (event instanceof UserSubscriptionHistory subscription) {
+                subscriptionRows.add(subscription);
+            }
+        }
+        // One transaction, so a failed batch is requeued whole rather than written twice in part
+        tx.executeWithoutResult(status -> {
+            auditHistoryBatchRepository.insertPlanHistory(planRows);
+            auditHistoryBatchRepository.insertUserSubscriptionHistory(subscriptionRows);
+        });
+    }
+
+    /** customer_id of the authenticated admin, or null outside a request (system changes). */
+    public static Long currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user
+                ? user.getCustomerId() : null;
+    }
+
+    private static String toState(Boolean active) {
+        if (active == null) return null;
+        return active ? "ACTIVE" : "INACTIVE";
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
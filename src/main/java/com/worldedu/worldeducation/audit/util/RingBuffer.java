@@ -0,0 +1,87 @@
+package com.worldedu.worldeducation.audit.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer ring buffer (sequence-per-slot design).
+ *
+ * Each slot carries a sequence number that tells producers and the consumer whose turn it is,
+ * so claiming a slot is one CAS on the tail and publishing it is one ordered write — no locks,
+ * and a full buffer is reported to the producer instead of blocking it.
+ * Capacity is rounded up to a power of two.
+ */
+public class RingBuffer<T> {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.slots = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Add an element. Returns false without waiting if the buffer is full.
+     */
+    public boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // Another producer took this slot; retry with the new tail
+        }
+    }
+
+    /**
+     * Move up to max published elements into target, oldest first. Returns how many were moved.
+     */
+    public int drainTo(List<? super T> target, int max) {
+        int drained = 0;
+        while (drained < max) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    target.add(slots.get(index));
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    drained++;
+                }
+            } else if (diff < 0) {
+                break;
+            }
+        }
+        return drained;
+    }
+
+    /** Approximate number of elements waiting. */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+}
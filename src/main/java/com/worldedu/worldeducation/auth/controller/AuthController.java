@@ -5,6 +5,7 @@ import com.worldedu.worldeducation.auth.dto.*;
 import com.worldedu.worldeducation.auth.service.AuthService;
 import com.worldedu.worldeducation.auth.service.PasswordResetService;
 import com.worldedu.worldeducation.auth.service.SignUpService;
+import com.worldedu.worldeducation.exception.ServiceBusyException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -38,26 +39,44 @@ public class AuthController {
      * - Single device login for STUDENT users
      * - Multi-device login allowed for ADMIN users
      * - Account locking after 5 failed attempts
+     * - Per-IP throttling of repeated failures (429)
      * - Session management
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                                            HttpServletRequest request) {
         log.info("Login request received for user: {}", loginRequest.getUserId());
         
-        LoginResponse loginResponse = authService.login(loginRequest);
+        LoginResponse loginResponse = authService.login(loginRequest, request.getRemoteAddr());
         
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .body(ApiResponse.success("Login successful", loginResponse));
     }
 
+    /**
+     * Refresh endpoint — exchanges a refresh token for a new access/refresh pair.
+     * POST /api/auth/refresh
+     *
+     * Access tokens are short-lived and never checked against the DB; this is
+     * where a revoked, expired or reused session is turned away.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<TokenResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        TokenResponse tokens = authService.refresh(request.getRefreshToken());
+        return ResponseEntity.ok(ApiResponse.success("Token refreshed", tokens));
+    }
+
     /**
      * Session check endpoint — used by the frontend to poll session validity.
      * GET /api/auth/session/check
      *
-     * The JWT filter short-circuits with SESSION_TERMINATED (401) before this
-     * method is reached when the session has been killed by a new login.
-     * Returning 200 here simply confirms the session is still alive.
+     * Access tokens are trusted on their signature, so the JWT filter answers
+     * SESSION_TERMINATED (401) here only when the session was ended on this node
+     * (a new login, logout or idle expiry recorded in its session cache). A session
+     * ended on another node is seen only once the access token expires or the
+     * refresh is refused. A 200 therefore means the session is alive as far as
+     * this node knows.
      */
     @GetMapping("/session/check")
     public ResponseEntity<ApiResponse<Void>> checkSession() {
@@ -68,8 +87,9 @@ public class AuthController {
      * Logout endpoint — deactivates the current session in the DB.
      * POST /api/auth/logout
      *
-     * Marks the session as inactive so any remaining copies of the JWT
-     * are rejected by the filter on subsequent requests.
+     * Marks the session as inactive so its refresh token stops working. Remaining
+     * copies of the access token are rejected at once on this node and by the
+     * other nodes once the token expires.
      */
     @PostMapping("/logout")
     public ResponseEntity<ApiResponse<Void>> logout(HttpServletRequest request) {
@@ -146,6 +166,8 @@ public class AuthController {
             return ResponseEntity
                     .status(HttpStatus.CREATED)
                     .body(ApiResponse.success(response.getMessage(), response));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             log.error("Verification failed: {}", e.getMessage());
             return ResponseEntity
@@ -259,6 +281,8 @@ public class AuthController {
         try {
             passwordResetService.resetPassword(request.getUserId(), request.getCode(), request.getNewPassword());
             return ResponseEntity.ok(ApiResponse.success("Password reset successfully. Please log in with your new password.", null));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             log.error("Reset-password failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
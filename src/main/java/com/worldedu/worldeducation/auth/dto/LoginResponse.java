@@ -23,5 +23,7 @@ public class LoginResponse {
     private Long sessionId;
     private LocalDateTime loginTime;
     private String token;
+    private String refreshToken;
+    private Long expiresIn;
     private String message;
 }
@@ -0,0 +1,22 @@
+package com.worldedu.worldeducation.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Access/refresh token pair issued at login and on every refresh.
+ * expiresIn is the access token lifetime in seconds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenResponse {
+
+    private Long sessionId;
+    private String token;
+    private String refreshToken;
+    private Long expiresIn;
+}
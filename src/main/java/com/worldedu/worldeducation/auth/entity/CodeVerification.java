@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "code_verification")
+@Table(name = "code_verification", indexes = {
+        @Index(name = "idx_code_verification_user_action", columnList = "user_id, action"),
+        @Index(name = "idx_code_verification_expiry", columnList = "expiry_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,68 @@
+package com.worldedu.worldeducation.auth.entity;
+
+import com.worldedu.worldeducation.enums.UserCategory;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Signup data held between the code being sent and verified.
+ * Keyed by email so any node can complete the verify step. The password is stored
+ * already hashed; rows past expires_at are ignored and purged.
+ */
+@Entity
+@Table(name = "pending_signups", indexes = {
+        @Index(name = "idx_pending_signups_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingSignUp {
+
+    @Id
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "user_id", nullable = false, length = 50)
+    private String userId;
+
+    @Column(name = "password_hash", nullable = false)
+    private String passwordHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "user_category", nullable = false)
+    private UserCategory userCategory;
+
+    @Column(name = "first_name", nullable = false)
+    private String firstName;
+
+    @Column(name = "middle_name")
+    private String middleName;
+
+    @Column(name = "last_name", nullable = false)
+    private String lastName;
+
+    @Column(name = "mobile_no")
+    private String mobileNo;
+
+    @Column(name = "country")
+    private String country;
+
+    @Column(name = "state")
+    private String state;
+
+    @Column(name = "city")
+    private String city;
+
+    @Column(name = "address")
+    private String address;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -6,11 +6,22 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
+/**
+ * Only the userId → customerId mapping is cached (@NaturalIdCache). The row itself, with its
+ * password hash and lock state, is always read from the database.
+ */
 @Entity
-@Table(name = "users")
+@NaturalIdCache
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created", columnList = "created_at, customer_id"),
+        @Index(name = "idx_users_locked_created", columnList = "account_locked, created_at, customer_id"),
+        @Index(name = "idx_users_category_created", columnList = "user_category, created_at, customer_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,7 +32,8 @@ public class User {
     @Column(name = "customer_id")
     private Long customerId;
 
-    @Column(name = "user_id", unique = true, nullable = false)
+    @NaturalId
+    @Column(name = "user_id", nullable = false)
     private String userId;
 
     @Column(name = "password_hash", nullable = false)
@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users_profile")
+@Table(name = "users_profile", indexes = {
+        @Index(name = "idx_users_profile_first_name", columnList = "first_name"),
+        @Index(name = "idx_users_profile_last_name", columnList = "last_name")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
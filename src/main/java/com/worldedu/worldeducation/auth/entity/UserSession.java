@@ -9,7 +9,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_sessions")
+@Table(name = "user_sessions", indexes = {
+        @Index(name = "idx_user_sessions_active_activity", columnList = "is_active, last_activity_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,6 +42,13 @@ public class UserSession {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // SHA-256 of the current refresh token's jti; rotated on every refresh
+    @Column(name = "refresh_token_hash", length = 64)
+    private String refreshTokenHash;
+
+    @Column(name = "refresh_expires_at")
+    private LocalDateTime refreshExpiresAt;
+
     @PrePersist
     protected void onCreate() {
         if (loginTime == null) {
@@ -2,8 +2,15 @@ package com.worldedu.worldeducation.auth.repository;
 
 import com.worldedu.worldeducation.auth.entity.CodeVerification;
 import com.worldedu.worldeducation.enums.VerificationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,4 +36,26 @@ public interface CodeVerificationRepository extends JpaRepository<CodeVerificati
     List<CodeVerification> findByUserIdAndAction(String userId, String action);
     
     List<CodeVerification> findByExpiryTimeBeforeAndStatus(LocalDateTime currentTime, VerificationStatus status);
+
+    List<CodeVerification> findByStatusAndExpiryTimeAfter(VerificationStatus status, LocalDateTime currentTime);
+
+    // Supersede every active code for (userId, action) in one statement
+    @Modifying
+    @Query("UPDATE CodeVerification c SET c.status = com.worldedu.worldeducation.enums.VerificationStatus.EXPIRED " +
+           "WHERE c.userId = :userId AND c.action = :action " +
+           "AND c.status = com.worldedu.worldeducation.enums.VerificationStatus.ACTIVE")
+    int expireActiveCodes(@Param("userId") String userId, @Param("action") String action);
+
+    // Conditional consume — only one caller can move a given code from ACTIVE to USED
+    @Modifying
+    @Query("UPDATE CodeVerification c SET c.status = com.worldedu.worldeducation.enums.VerificationStatus.USED " +
+           "WHERE c.id = :id AND c.status = com.worldedu.worldeducation.enums.VerificationStatus.ACTIVE")
+    int markUsed(@Param("id") Long id);
+
+    // Bounded batch for the purge job — each call is its own short transaction
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "code_verification"))
+    @Query(value = "DELETE FROM code_verification WHERE expiry_time < :cutoff LIMIT :batchSize", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
 }
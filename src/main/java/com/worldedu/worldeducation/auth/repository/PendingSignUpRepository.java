@@ -0,0 +1,30 @@
+package com.worldedu.worldeducation.auth.repository;
+
+import com.worldedu.worldeducation.auth.entity.PendingSignUp;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface PendingSignUpRepository extends JpaRepository<PendingSignUp, String> {
+
+    Optional<PendingSignUp> findByEmailAndExpiresAtAfter(String email, LocalDateTime now);
+
+    long countByExpiresAtAfter(LocalDateTime now);
+
+    // Bounded batch for the purge job
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pending_signups"))
+    @Query(value = "DELETE FROM pending_signups WHERE expires_at < :cutoff LIMIT :batchSize", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
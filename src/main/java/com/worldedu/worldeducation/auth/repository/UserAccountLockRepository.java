@@ -0,0 +1,23 @@
+package com.worldedu.worldeducation.auth.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Account lock written straight to the users table.
+ */
+public interface UserAccountLockRepository {
+
+    /**
+     * Atomically lock an account. Runs in its own transaction so the lock survives
+     * the rollback of the failed login that triggered it.
+     * Returns 0 if the account was already locked.
+     */
+    int lockAccount(Long customerId, int attempts, LocalDateTime at);
+
+    /**
+     * Atomically add one to the persisted failed_login_attempts and return the new value.
+     * Used when the in-memory throttle cannot track the userId. Runs in its own transaction
+     * for the same reason as lockAccount.
+     */
+    int incrementFailedAttempts(Long customerId, LocalDateTime at);
+}
@@ -0,0 +1,41 @@
+package com.worldedu.worldeducation.auth.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Plain JDBC rather than bulk JPQL updates: Hibernate answers a bulk update on User by
+ * evicting the whole User natural-id region, so every failed-login lock would empty the
+ * userId → customerId cache for all users. Neither update changes a natural id, so nothing
+ * cached goes stale by bypassing Hibernate here.
+ */
+@RequiredArgsConstructor
+public class UserAccountLockRepositoryImpl implements UserAccountLockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int lockAccount(Long customerId, int attempts, LocalDateTime at) {
+        Timestamp now = Timestamp.valueOf(at);
+        return jdbcTemplate.update("UPDATE users SET account_locked = true, failed_login_attempts = ?, " +
+                        "last_login_attempt_at = ?, updated_at = ? WHERE customer_id = ? AND account_locked = false",
+                attempts, now, now, customerId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int incrementFailedAttempts(Long customerId, LocalDateTime at) {
+        jdbcTemplate.update("UPDATE users SET failed_login_attempts = COALESCE(failed_login_attempts, 0) + 1, " +
+                "last_login_attempt_at = ? WHERE customer_id = ?", Timestamp.valueOf(at), customerId);
+        // The UPDATE holds the row lock, so this reads our own increment
+        Integer attempts = jdbcTemplate.queryForObject(
+                "SELECT failed_login_attempts FROM users WHERE customer_id = ?", Integer.class, customerId);
+        return attempts == null ? 0 : attempts;
+    }
+}
@@ -0,0 +1,16 @@
+package com.worldedu.worldeducation.auth.repository;
+
+import java.util.Optional;
+
+/**
+ * Read of just what a password check needs, taken outside any transaction.
+ */
+public interface UserCredentialRepository {
+
+    record UserCredentials(Long customerId, String userId, String passwordHash, boolean accountLocked) {
+    }
+
+    Optional<UserCredentials> findCredentialsByUserId(String userId);
+
+    Optional<UserCredentials> findCredentialsByCustomerId(Long customerId);
+}
@@ -0,0 +1,39 @@
+package com.worldedu.worldeducation.auth.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.Optional;
+
+/**
+ * Plain JDBC so the read borrows a pooled connection only for the query itself. Through
+ * the request's EntityManager the connection would stay attached to the open session
+ * while the caller then waits on the password hashing pool.
+ */
+@RequiredArgsConstructor
+public class UserCredentialRepositoryImpl implements UserCredentialRepository {
+
+    private static final String SELECT =
+            "SELECT customer_id, user_id, password_hash, account_locked FROM users WHERE ";
+
+    private static final RowMapper<UserCredentials> MAPPER = (rs, rowNum) -> new UserCredentials(
+            rs.getLong("customer_id"),
+            rs.getString("user_id"),
+            rs.getString("password_hash"),
+            rs.getBoolean("account_locked"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<UserCredentials> findCredentialsByUserId(String userId) {
+        if (userId == null) return Optional.empty();
+        return jdbcTemplate.query(SELECT + "user_id = ?", MAPPER, userId).stream().findFirst();
+    }
+
+    @Override
+    public Optional<UserCredentials> findCredentialsByCustomerId(Long customerId) {
+        if (customerId == null) return Optional.empty();
+        return jdbcTemplate.query(SELECT + "customer_id = ?", MAPPER, customerId).stream().findFirst();
+    }
+}
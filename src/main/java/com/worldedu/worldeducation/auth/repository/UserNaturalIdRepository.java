@@ -0,0 +1,14 @@
+package com.worldedu.worldeducation.auth.repository;
+
+import com.worldedu.worldeducation.auth.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Lookups of {@link User} by its natural id (userId), resolved to the primary key through
+ * the second-level natural-id cache before the database.
+ */
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByUserId(String userId);
+}
@@ -0,0 +1,30 @@
+package com.worldedu.worldeducation.auth.repository;
+
+import com.worldedu.worldeducation.auth.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * A derived findByUserId would search the user_id index on every call; resolving through
+ * the session's natural-id API takes the customerId from the userId → customerId region,
+ * so a warm user costs one primary-key read. The User row is not cached, so its password
+ * hash and lock state are always current.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUserId(String userId) {
+        if (userId == null) return Optional.empty();
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(userId);
+    }
+}
@@ -2,8 +2,10 @@ package com.worldedu.worldeducation.auth.repository;
 
 import com.worldedu.worldeducation.auth.entity.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,7 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
     Optional<UserProfile> findByEmail(String email);
     
     boolean existsByEmail(String email);
+
+    @Query("SELECT p.email FROM UserProfile p WHERE p.email IS NOT NULL")
+    List<String> findAllEmails();
 }
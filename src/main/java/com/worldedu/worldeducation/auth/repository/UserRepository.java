@@ -2,16 +2,36 @@ package com.worldedu.worldeducation.auth.repository;
 
 import com.worldedu.worldeducation.auth.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    
-    Optional<User> findByUserId(String userId);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository,
+        UserAccountLockRepository, UserCredentialRepository {
     
     Optional<User> findByCustomerId(Long customerId);
     
     boolean existsByUserId(String userId);
+
+    @Query("SELECT u.userId FROM User u")
+    List<String> findAllUserIds();
+
+    // Rows of [signupDate, count] for users created on or after :from — a range scan over idx_users_created
+    @Query(value = "SELECT DATE(created_at), COUNT(*) FROM users WHERE created_at >= :from " +
+                   "GROUP BY DATE(created_at)", nativeQuery = true)
+    List<Object[]> countSignupsGroupedByDay(@Param("from") LocalDateTime from);
+
+    /**
+     * Highest N among userIds of the form {base}N, in one index range scan over the prefix.
+     * Null when no numbered userId exists for the base yet.
+     */
+    @Query(value = "SELECT MAX(CAST(SUBSTRING(user_id, CHAR_LENGTH(:base) + 1) AS UNSIGNED)) FROM users " +
+                   "WHERE user_id LIKE CONCAT(:base, '%') " +
+                   "AND SUBSTRING(user_id, CHAR_LENGTH(:base) + 1) REGEXP '^[0-9]+$'", nativeQuery = true)
+    Long findMaxNumericSuffix(@Param("base") String base);
 }
@@ -2,12 +2,18 @@ package com.worldedu.worldeducation.auth.repository;
 
 import com.worldedu.worldeducation.auth.entity.User;
 import com.worldedu.worldeducation.auth.entity.UserSession;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,7 +23,47 @@ public interface UserSessionRepository extends JpaRepository<UserSession, Long>
 
     boolean existsBySessionIdAndIsActive(Long sessionId, Boolean isActive);
 
+    @Query("SELECT us.sessionId FROM UserSession us WHERE us.user = :user AND us.isActive = true")
+    List<Long> findActiveSessionIdsForUser(@Param("user") User user);
+
     @Modifying
     @Query("UPDATE UserSession us SET us.isActive = false WHERE us.user = :user AND us.isActive = true")
     void deactivateAllSessionsForUser(@Param("user") User user);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserSession us SET us.lastActivityAt = :at " +
+           "WHERE us.sessionId IN :sessionIds AND us.isActive = true AND us.lastActivityAt < :at")
+    int updateLastActivity(@Param("sessionIds") Collection<Long> sessionIds, @Param("at") LocalDateTime at);
+
+    @Query("SELECT us.sessionId FROM UserSession us WHERE us.isActive = true AND us.lastActivityAt < :cutoff")
+    List<Long> findIdleActiveSessionIds(@Param("cutoff") LocalDateTime cutoff);
+
+    // Locks the chunk's rows that are still idle, so a session touched since the scan is left out
+    // and the caller deactivates (and reports) exactly the rows returned
+    @Query(value = "SELECT session_id FROM user_sessions WHERE session_id IN (:sessionIds) " +
+                   "AND is_active = true AND last_activity_at < :cutoff FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdleSessionIds(@Param("sessionIds") Collection<Long> sessionIds, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("UPDATE UserSession us SET us.isActive = false WHERE us.sessionId IN :sessionIds")
+    int deactivateSessions(@Param("sessionIds") Collection<Long> sessionIds);
+
+    // Bounded batch for the purge job — only sessions already inactive are removed
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_sessions"))
+    @Query(value = "DELETE FROM user_sessions WHERE is_active = false AND last_activity_at < :cutoff LIMIT :batchSize",
+           nativeQuery = true)
+    int deleteInactiveBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    // Bounded batch for the purge job — sessions never logged out or idle-expired, with no activity
+    // and no usable refresh token since the cutoff; their access tokens expired long before
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_sessions"))
+    @Query(value = "DELETE FROM user_sessions WHERE is_active = true AND last_activity_at < :cutoff " +
+                   "AND (refresh_expires_at IS NULL OR refresh_expires_at < :cutoff) LIMIT :batchSize",
+           nativeQuery = true)
+    int deleteAbandonedBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
 }
@@ -2,23 +2,38 @@ package com.worldedu.worldeducation.auth.service;
 
 import com.worldedu.worldeducation.auth.dto.LoginRequest;
 import com.worldedu.worldeducation.auth.dto.LoginResponse;
+import com.worldedu.worldeducation.auth.dto.TokenResponse;
 import com.worldedu.worldeducation.auth.entity.User;
 import com.worldedu.worldeducation.auth.entity.UserProfile;
 import com.worldedu.worldeducation.auth.entity.UserSession;
+import com.worldedu.worldeducation.enums.DeviceType;
 import com.worldedu.worldeducation.enums.UserCategory;
 import com.worldedu.worldeducation.exception.AccountLockedException;
+import com.worldedu.worldeducation.exception.AuthenticationException;
 import com.worldedu.worldeducation.exception.InvalidCredentialsException;
+import com.worldedu.worldeducation.auth.repository.UserCredentialRepository.UserCredentials;
 import com.worldedu.worldeducation.auth.repository.UserProfileRepository;
 import com.worldedu.worldeducation.auth.repository.UserRepository;
 import com.worldedu.worldeducation.auth.repository.UserSessionRepository;
 import com.worldedu.worldeducation.auth.util.PasswordUtil;
 import com.worldedu.worldeducation.security.jwt.JwtUtil;
+import com.worldedu.worldeducation.security.jwt.ParsedToken;
+import com.worldedu.worldeducation.security.principal.PrincipalCache;
+import com.worldedu.worldeducation.security.session.SessionStateCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -29,55 +44,152 @@ public class AuthService {
     private final UserProfileRepository userProfileRepository;
     private final UserSessionRepository userSessionRepository;
     private final JwtUtil jwtUtil;
+    private final SessionStateCache sessionStateCache;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottleService loginThrottleService;
+    private final PlatformTransactionManager transactionManager;
     
     private static final int MAX_FAILED_ATTEMPTS = 5;
 
     /**
      * Authenticate user and create session
      * Implements single device login for STUDENT users
-     * Locks account after 5 failed attempts
+     * Locks account after 5 failed attempts within the throttle window
+     *
+     * Not transactional: the password is checked on the hashing pool against a plain JDBC
+     * read, and only a verified login opens the short transaction that records it, so a
+     * request waiting for a hashing thread never holds a database connection.
      */
-    @Transactional
-    public LoginResponse login(LoginRequest loginRequest) {
+    public LoginResponse login(LoginRequest loginRequest, String clientIp) {
         log.info("Login attempt for user: {}", loginRequest.getUserId());
 
+        // Cheap in-memory rejection before any DB or hashing work
+        loginThrottleService.checkAllowed(clientIp);
+
         // Find user by userId
-        User user = userRepository.findByUserId(loginRequest.getUserId())
-                .orElseThrow(() -> new InvalidCredentialsException("Invalid user ID or password"));
+        UserCredentials credentials = userRepository.findCredentialsByUserId(loginRequest.getUserId()).orElse(null);
+        if (credentials == null) {
+            // Unknown userIds are throttled per IP only, so spraying random ids cannot grow the per-user map
+            loginThrottleService.recordIpFailure(clientIp);
+            throw new InvalidCredentialsException("Invalid user ID or password");
+        }
 
         // Check if account is locked
-        if (Boolean.TRUE.equals(user.getAccountLocked())) {
+        if (credentials.accountLocked()) {
             log.warn("Login attempt for locked account: {}", loginRequest.getUserId());
             throw new AccountLockedException(
                     "Account is locked due to multiple failed login attempts. Please contact support.");
         }
 
-        // Update last login attempt
-        user.setLastLoginAttemptAt(LocalDateTime.now());
+        // Verify password on the bounded hashing pool so a login storm cannot starve request threads
+        boolean passwordMatches = passwordHashingService.run(
+                () -> PasswordUtil.verifyPassword(loginRequest.getPassword(), credentials.passwordHash()));
+        if (!passwordMatches) {
+            handleFailedLogin(credentials, clientIp);
+            throw new InvalidCredentialsException("Invalid user ID or password");
+        }
 
-        // Verify password using BCrypt
-        if (!PasswordUtil.verifyPassword(loginRequest.getPassword(), user.getPasswordHash())) {
-            handleFailedLogin(user);
+        // Password is correct - record the login and open the session in one short transaction
+        LoginResponse response = new TransactionTemplate(transactionManager).execute(status ->
+                completeLogin(credentials, loginRequest.getDeviceId(), loginRequest.getDeviceType()));
+        loginThrottleService.reset(credentials.userId());
+        return response;
+    }
+
+    /**
+     * Record a verified login and open its session. The user is re-read here, so a lock or
+     * password change that landed while the hash was being checked still wins.
+     */
+    private LoginResponse completeLogin(UserCredentials credentials, String deviceId, DeviceType deviceType) {
+        User user = userRepository.findById(credentials.customerId())
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid user ID or password"));
+        if (Boolean.TRUE.equals(user.getAccountLocked())) {
+            throw new AccountLockedException(
+                    "Account is locked due to multiple failed login attempts. Please contact support.");
+        }
+        if (!user.getPasswordHash().equals(credentials.passwordHash())) {
             throw new InvalidCredentialsException("Invalid user ID or password");
         }
 
-        // Password is correct - reset failed attempts and proceed with login
+        // Reset failed attempts and update login timestamps
+        LocalDateTime now = LocalDateTime.now();
+        user.setLastLoginAttemptAt(now);
         user.setFailedLoginAttempts(0);
-        user.setLastLoginAt(LocalDateTime.now());
+        user.setLastLoginAt(now);
 
+        // Create new session (single device for STUDENT users) and issue its tokens
+        TokenResponse tokens = openSession(user, deviceId, deviceType);
+
+        // Save user with updated login info
+        userRepository.save(user);
+
+        // Build and return response
+        return buildLoginResponse(user, tokens);
+    }
+
+    /**
+     * Start a new session for an already-authenticated user and issue its token pair.
+     * Also used by signup and Google sign-in so every issued token is session-bound.
+     */
+    @Transactional
+    public TokenResponse openSession(User user, String deviceId, DeviceType deviceType) {
         // Handle single device login for STUDENT users
         if (user.getUserCategory() == UserCategory.STUDENT) {
             deactivateExistingSessions(user);
         }
 
-        // Create new session
-        UserSession session = createUserSession(user, loginRequest);
+        UserSession session = createUserSession(user, deviceId, deviceType);
+        return issueTokens(user, session);
+    }
 
-        // Save user with updated login info
-        userRepository.save(user);
+    /**
+     * Exchange a refresh token for a new access/refresh pair.
+     * This is the only point where the session row is consulted; access tokens are
+     * trusted on signature alone until they expire.
+     * Refresh tokens are single-use: presenting an already-rotated one ends the session.
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public TokenResponse refresh(String refreshToken) {
+        ParsedToken token;
+        try {
+            token = jwtUtil.parse(refreshToken);
+        } catch (Exception e) {
+            throw new InvalidCredentialsException("Invalid or expired refresh token");
+        }
+        if (!token.isRefreshToken() || token.sessionId() == null || token.tokenId() == null) {
+            throw new InvalidCredentialsException("Invalid or expired refresh token");
+        }
 
-        // Build and return response
-        return buildLoginResponse(user, session);
+        UserSession session = userSessionRepository.findById(token.sessionId())
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid or expired refresh token"));
+        User user = session.getUser();
+
+        if (!Boolean.TRUE.equals(session.getIsActive())
+                || !user.getUserId().equals(token.userId())
+                || session.getRefreshExpiresAt() == null
+                || session.getRefreshExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidCredentialsException("Session has ended. Please log in again.");
+        }
+
+        if (!MessageDigest.isEqual(
+                hashTokenId(token.tokenId()).getBytes(StandardCharsets.UTF_8),
+                String.valueOf(session.getRefreshTokenHash()).getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Refresh token reuse detected for session {} of user {} — ending session",
+                    session.getSessionId(), user.getUserId());
+            endSession(session);
+            throw new InvalidCredentialsException("Session has ended. Please log in again.");
+        }
+
+        if (Boolean.TRUE.equals(user.getAccountLocked())) {
+            endSession(session);
+            throw new AccountLockedException(
+                    "Account is locked due to multiple failed login attempts. Please contact support.");
+        }
+
+        session.setLastActivityAt(LocalDateTime.now());
+        log.debug("Refreshing tokens for session {} of user {}", session.getSessionId(), user.getUserId());
+        return issueTokens(user, session);
     }
 
     /**
@@ -90,8 +202,7 @@ public class AuthService {
             Long sessionId = jwtUtil.extractSessionId(token);
             if (sessionId != null) {
                 userSessionRepository.findById(sessionId).ifPresent(session -> {
-                    session.setIsActive(false);
-                    userSessionRepository.save(session);
+                    endSession(session);
                     log.info("Session {} deactivated via logout", sessionId);
                 });
             }
@@ -102,24 +213,27 @@ public class AuthService {
 
     /**
      * Handle failed login attempt
-     * Increments failed attempts counter and locks account if threshold reached
+     * Counts the failure in memory; only the lock transition is written to the DB,
+     * unless the throttle is full and the count falls back to users.failed_login_attempts
      */
-    private void handleFailedLogin(User user) {
-        int failedAttempts = user.getFailedLoginAttempts() + 1;
-        user.setFailedLoginAttempts(failedAttempts);
+    private void handleFailedLogin(UserCredentials user, String clientIp) {
+        int failedAttempts = loginThrottleService.recordFailure(user.userId(), clientIp);
+        if (failedAttempts == LoginThrottleService.NOT_TRACKED) {
+            // Throttle map is full — count durably so locking keeps working
+            failedAttempts = userRepository.incrementFailedAttempts(user.customerId(), LocalDateTime.now());
+        }
 
         if (failedAttempts >= MAX_FAILED_ATTEMPTS) {
-            user.setAccountLocked(true);
-            userRepository.save(user);
+            userRepository.lockAccount(user.customerId(), failedAttempts, LocalDateTime.now());
+            principalCache.invalidate(user.userId());
             log.warn("Account locked for user: {} after {} failed attempts", 
-                    user.getUserId(), failedAttempts);
+                    user.userId(), failedAttempts);
             throw new AccountLockedException(
                     "Account has been locked due to multiple failed login attempts. Please contact support.");
         }
 
-        userRepository.save(user);
         log.warn("Failed login attempt {} of {} for user: {}", 
-                failedAttempts, MAX_FAILED_ATTEMPTS, user.getUserId());
+                failedAttempts, MAX_FAILED_ATTEMPTS, user.userId());
     }
 
     /**
@@ -128,51 +242,88 @@ public class AuthService {
      */
     private void deactivateExistingSessions(User user) {
         log.info("Deactivating existing sessions for STUDENT user: {}", user.getUserId());
+        List<Long> activeSessionIds = userSessionRepository.findActiveSessionIdsForUser(user);
         userSessionRepository.deactivateAllSessionsForUser(user);
+        activeSessionIds.forEach(sessionStateCache::revoke);
+    }
+
+    /**
+     * Deactivate a single session and drop its refresh token
+     */
+    private void endSession(UserSession session) {
+        session.setIsActive(false);
+        session.setRefreshTokenHash(null);
+        userSessionRepository.save(session);
+        sessionStateCache.revoke(session.getSessionId());
     }
 
     /**
      * Create new user session
      */
-    private UserSession createUserSession(User user, LoginRequest loginRequest) {
+    private UserSession createUserSession(User user, String deviceId, DeviceType deviceType) {
         UserSession session = new UserSession();
         session.setUser(user);
-        session.setDeviceId(loginRequest.getDeviceId());
-        session.setDeviceType(loginRequest.getDeviceType());
+        session.setDeviceId(deviceId);
+        session.setDeviceType(deviceType);
         session.setLoginTime(LocalDateTime.now());
         session.setLastActivityAt(LocalDateTime.now());
         session.setIsActive(true);
 
         session = userSessionRepository.save(session);
+        sessionStateCache.markActive(session.getSessionId());
         log.info("Created new session {} for user: {} on device: {}", 
-                session.getSessionId(), user.getUserId(), loginRequest.getDeviceType());
+                session.getSessionId(), user.getUserId(), deviceType);
 
         return session;
     }
 
+    /**
+     * Issue a fresh access token and rotate the session's refresh token
+     */
+    private TokenResponse issueTokens(User user, UserSession session) {
+        String tokenId = jwtUtil.newTokenId();
+        session.setRefreshTokenHash(hashTokenId(tokenId));
+        session.setRefreshExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(jwtUtil.getRefreshExpirationMillis())));
+        userSessionRepository.save(session);
+
+        return TokenResponse.builder()
+                .sessionId(session.getSessionId())
+                .token(jwtUtil.generateToken(
+                        user.getUserId(),
+                        user.getCustomerId(),
+                        user.getUserCategory().name(),
+                        session.getSessionId()))
+                .refreshToken(jwtUtil.generateRefreshToken(user.getUserId(), session.getSessionId(), tokenId))
+                .expiresIn(jwtUtil.getAccessExpirationSeconds())
+                .build();
+    }
+
+    private static String hashTokenId(String tokenId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(tokenId.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Build login response with user and session information
      */
-    private LoginResponse buildLoginResponse(User user, UserSession session) {
+    private LoginResponse buildLoginResponse(User user, TokenResponse tokens) {
         // Fetch user profile for additional info
         UserProfile userProfile = userProfileRepository.findById(user.getCustomerId())
                 .orElse(null);
 
-        // Generate JWT token — embed sessionId for server-side session validation
-        String token = jwtUtil.generateToken(
-                user.getUserId(),
-                user.getCustomerId(),
-                user.getUserCategory().name(),
-                session.getSessionId()
-        );
-
         LoginResponse.LoginResponseBuilder responseBuilder = LoginResponse.builder()
                 .customerId(user.getCustomerId())
                 .userId(user.getUserId())
                 .userCategory(user.getUserCategory())
-                .sessionId(session.getSessionId())
-                .loginTime(session.getLoginTime())
-                .token(token)
+                .sessionId(tokens.getSessionId())
+                .loginTime(user.getLastLoginAt())
+                .token(tokens.getToken())
+                .refreshToken(tokens.getRefreshToken())
+                .expiresIn(tokens.getExpiresIn())
                 .message("Login successful");
 
         if (userProfile != null) {
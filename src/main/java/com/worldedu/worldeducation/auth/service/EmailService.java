@@ -1,28 +1,30 @@
 package com.worldedu.worldeducation.auth.service;
 
+import com.worldedu.worldeducation.email.service.EmailOutboxService;
+import com.worldedu.worldeducation.email.template.EmailTemplateService;
+import com.worldedu.worldeducation.email.template.RenderedEmail;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 /**
  * Service for sending emails
  * Handles verification codes, password resets, notifications, etc.
+ *
+ * Messages are queued in email_outbox within the caller's transaction and delivered
+ * asynchronously, so callers never wait on the SMTP server. Bodies come from the
+ * precompiled templates in {@link EmailTemplateService}, in the request's locale.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-    
-    @Value("${app.name:World Education}")
-    private String appName;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplateService emailTemplateService;
 
     /**
      * Send verification code email
@@ -31,31 +33,9 @@ public class EmailService {
      * @param validityMinutes How long the code is valid
      */
     public void sendVerificationCode(String toEmail, String verificationCode, int validityMinutes) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject(appName + " - Email Verification Code");
-            
-            String emailBody = String.format(
-                "Welcome to %s!\n\n" +
-                "Your verification code is: %s\n\n" +
-                "This code will expire in %d minutes.\n\n" +
-                "If you didn't request this code, please ignore this email.\n\n" +
-                "Best regards,\n" +
-                "%s Team",
-                appName, verificationCode, validityMinutes, appName
-            );
-            
-            message.setText(emailBody);
-            
-            mailSender.send(message);
-            log.info("Verification code sent successfully to: {}", toEmail);
-            
-        } catch (Exception e) {
-            log.error("Failed to send verification code to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send verification email. Please try again later.");
-        }
+        queue("VERIFICATION", toEmail, EmailTemplateService.VERIFICATION,
+                Map.of("code", verificationCode, "validityMinutes", validityMinutes));
+        log.info("Verification code queued for: {}", toEmail);
     }
 
     /**
@@ -65,32 +45,9 @@ public class EmailService {
      * @param validityMinutes How long the code is valid
      */
     public void sendPasswordResetCode(String toEmail, String resetCode, int validityMinutes) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject(appName + " - Password Reset Code");
-
-            String emailBody = String.format(
-                "Hello,\n\n" +
-                "We received a request to reset your %s account password.\n\n" +
-                "Your password reset code is: %s\n\n" +
-                "This code will expire in %d minutes.\n\n" +
-                "If you did not request a password reset, please ignore this email. " +
-                "Your password will remain unchanged.\n\n" +
-                "Best regards,\n" +
-                "%s Team",
-                appName, resetCode, validityMinutes, appName
-            );
-
-            message.setText(emailBody);
-            mailSender.send(message);
-            log.info("Password reset code sent successfully to: {}", toEmail);
-
-        } catch (Exception e) {
-            log.error("Failed to send password reset code to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send password reset email. Please try again later.");
-        }
+        queue("PASSWORD_RESET", toEmail, EmailTemplateService.PASSWORD_RESET,
+                Map.of("code", resetCode, "validityMinutes", validityMinutes));
+        log.info("Password reset code queued for: {}", toEmail);
     }
 
     /**
@@ -100,30 +57,13 @@ public class EmailService {
      * @param userId User's login ID
      */
     public void sendWelcomeEmail(String toEmail, String firstName, String userId) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Welcome to " + appName + "!");
-            
-            String emailBody = String.format(
-                "Hello %s,\n\n" +
-                "Welcome to %s! Your account has been created successfully.\n\n" +
-                "Your User ID: %s\n\n" +
-                "You can now log in and start exploring our educational content.\n\n" +
-                        "Best regards,\n" +
-                        "%s Team",
-                firstName, appName, userId, appName
-            );
-            
-            message.setText(emailBody);
-            
-            mailSender.send(message);
-            log.info("Welcome email sent successfully to: {}", toEmail);
-            
-        } catch (Exception e) {
-            log.error("Failed to send welcome email to: {}", toEmail, e);
-            // Don't throw exception for welcome email - account already created
-        }
+        queue("WELCOME", toEmail, EmailTemplateService.WELCOME,
+                Map.of("firstName", firstName != null ? firstName : "", "userId", userId));
+        log.info("Welcome email queued for: {}", toEmail);
+    }
+
+    private void queue(String emailType, String toEmail, String template, Map<String, ?> variables) {
+        RenderedEmail email = emailTemplateService.render(template, LocaleContextHolder.getLocale(), variables);
+        emailOutboxService.enqueue(emailType, toEmail, email.subject(), email.text(), email.html());
     }
 }
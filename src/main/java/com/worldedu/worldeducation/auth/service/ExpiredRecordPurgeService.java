@@ -0,0 +1,165 @@
+package com.worldedu.worldeducation.auth.service;
+
+import com.worldedu.worldeducation.auth.repository.CodeVerificationRepository;
+import com.worldedu.worldeducation.auth.repository.PendingSignUpRepository;
+import com.worldedu.worldeducation.auth.repository.UserSessionRepository;
+import com.worldedu.worldeducation.email.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Scheduled purge of expired verification codes and pending signups, long-inactive sessions
+ * and delivered outbox mail. Sessions go once they have been ended, or have had neither
+ * activity nor a valid refresh token, for session-retention-days.
+ *
+ * Rows are deleted with DELETE ... LIMIT in short, separate transactions so the job
+ * never holds long locks, and batches are paced to stay under
+ * app.purge.max-rows-per-second. Because that pacing sleeps, a run happens on its own
+ * thread rather than the shared scheduler thread, which only hands it off. Rows purged are
+ * exported as maintenance.purge.rows{table=...}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiredRecordPurgeService {
+
+    private final CodeVerificationRepository codeVerificationRepository;
+    private final UserSessionRepository userSessionRepository;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final PendingSignUpRepository pendingSignUpRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.purge.max-rows-per-second:2000}")
+    private int maxRowsPerSecond;
+
+    @Value("${app.purge.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.purge.code-retention-hours:24}")
+    private long codeRetentionHours;
+
+    @Value("${app.purge.session-retention-days:30}")
+    private long sessionRetentionDays;
+
+    @Value("${app.purge.email-outbox-retention-days:7}")
+    private long emailOutboxRetentionDays;
+
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "record-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start a purge run on the purge thread unless the previous one is still going.
+     */
+    @Scheduled(fixedDelayString = "${app.purge.interval-minutes:60}",
+               initialDelayString = "${app.purge.interval-minutes:60}",
+               timeUnit = TimeUnit.MINUTES)
+    public void purge() {
+        if (!enabled || !busy.compareAndSet(false, true)) return;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    purgeAll();
+                } finally {
+                    busy.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            busy.set(false);
+            log.error("Could not start purge run: {}", e.getMessage());
+        }
+    }
+
+    private void purgeAll() {
+        LocalDateTime now = LocalDateTime.now();
+        purgeTable("code_verification", now.minusHours(codeRetentionHours),
+                codeVerificationRepository::deleteExpiredBatch);
+        purgeTable("pending_signups", now, pendingSignUpRepository::deleteExpiredBatch);
+        purgeTable("user_sessions", now.minusDays(sessionRetentionDays),
+                userSessionRepository::deleteInactiveBatch);
+        // Idle expiry is opt-in, so abandoned sessions can stay is_active = true indefinitely
+        purgeTable("user_sessions", now.minusDays(sessionRetentionDays),
+                userSessionRepository::deleteAbandonedBatch);
+        purgeTable("email_outbox", now.minusDays(emailOutboxRetentionDays),
+                emailOutboxRepository::deleteSentBatch);
+    }
+
+    /**
+     * Delete in LIMIT-sized batches until a short batch comes back or the per-run cap is hit.
+     */
+    private void purgeTable(String table, LocalDateTime cutoff, BiFunction<LocalDateTime, Integer, Integer> deleteBatch) {
+        if (Thread.currentThread().isInterrupted()) return;
+
+        Counter purged = meterRegistry.counter("maintenance.purge.rows", "table", table);
+        long start = System.currentTimeMillis();
+        long total = 0;
+
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int deleted = deleteBatch.apply(cutoff, batchSize);
+                total += deleted;
+                purged.increment(deleted);
+                if (deleted < batchSize) break;
+                throttle(start, total);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Purge of {} interrupted after {} rows", table, total);
+            return;
+        } catch (RuntimeException e) {
+            log.error("Purge of {} failed after {} rows: {}", table, total, e.getMessage());
+            return;
+        }
+
+        if (total > 0) {
+            log.info("Purged {} rows from {} older than {} in {} ms",
+                    total, table, cutoff, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Sleep just long enough to keep the running average under the rows/second ceiling.
+     */
+    private void throttle(long start, long total) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) return;
+        long minElapsedMs = total * 1000 / maxRowsPerSecond;
+        long elapsedMs = System.currentTimeMillis() - start;
+        if (minElapsedMs > elapsedMs) {
+            Thread.sleep(minElapsedMs - elapsedMs);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.worldedu.worldeducation.auth.service;
+
+import com.worldedu.worldeducation.auth.util.SlidingWindowCounter;
+import com.worldedu.worldeducation.exception.TooManyAttemptsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory brute-force throttle for the login endpoint.
+ *
+ * Failed attempts are counted in sliding windows keyed by userId and by client IP,
+ * so a credential-stuffing burst never turns into per-attempt writes on the users table.
+ * AuthService persists only the lock transition once a userId crosses the threshold.
+ * Only existing userIds get a counter; attempts on unknown ones count against the IP alone.
+ *
+ * Each map holds at most app.login-throttle.max-tracked-keys counters; the request path never
+ * scans or grows a full map. A userId that finds the map full is reported as NOT_TRACKED and
+ * AuthService counts it in users.failed_login_attempts instead, so filling the map cannot
+ * switch account locking off. New IPs are not tracked until the scheduled cleanup frees space.
+ */
+@Service
+@Slf4j
+public class LoginThrottleService {
+
+    /** recordFailure() result when the userId could not be tracked in memory. */
+    public static final int NOT_TRACKED = -1;
+
+    private static final int BUCKETS = 10;
+
+    @Value("${app.login-throttle.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${app.login-throttle.max-failures-per-ip:50}")
+    private int maxFailuresPerIp;
+
+    @Value("${app.login-throttle.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private final ConcurrentHashMap<String, SlidingWindowCounter> userFailures = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SlidingWindowCounter> ipFailures = new ConcurrentHashMap<>();
+    private final AtomicBoolean fullWarned = new AtomicBoolean();
+
+    /**
+     * Reject the attempt up front if this client IP has failed too often recently.
+     */
+    public void checkAllowed(String clientIp) {
+        if (clientIp == null) return;
+        SlidingWindowCounter counter = ipFailures.get(clientIp);
+        if (counter != null && counter.count(System.currentTimeMillis()) >= maxFailuresPerIp) {
+            log.warn("Login throttled for IP: {}", clientIp);
+            throw new TooManyAttemptsException(
+                    "Too many failed login attempts from this network. Please try again later.", windowSeconds);
+        }
+    }
+
+    /**
+     * Record a failed attempt on an existing userId and return its failure count within the window,
+     * or NOT_TRACKED if the map is full and the caller must count the failure durably.
+     */
+    public int recordFailure(String userId, String clientIp) {
+        recordIpFailure(clientIp);
+        SlidingWindowCounter counter = counterFor(userFailures, userId);
+        return counter != null ? counter.increment(System.currentTimeMillis()) : NOT_TRACKED;
+    }
+
+    /**
+     * Record a failed attempt against the client IP only, e.g. for a userId that does not exist.
+     */
+    public void recordIpFailure(String clientIp) {
+        if (clientIp == null) return;
+        SlidingWindowCounter counter = counterFor(ipFailures, clientIp);
+        if (counter != null) {
+            counter.increment(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Forget a userId's failures after a successful login or password reset.
+     */
+    public void reset(String userId) {
+        userFailures.remove(userId);
+    }
+
+    /**
+     * Drop counters whose window has fully elapsed.
+     */
+    @Scheduled(fixedDelayString = "${app.login-throttle.cleanup-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        userFailures.values().removeIf(counter -> counter.count(now) == 0);
+        ipFailures.values().removeIf(counter -> counter.count(now) == 0);
+        fullWarned.set(false);
+    }
+
+    /**
+     * Existing counter for the key, a new one if there is room, or null when the map is full.
+     */
+    private SlidingWindowCounter counterFor(ConcurrentHashMap<String, SlidingWindowCounter> counters, String key) {
+        SlidingWindowCounter counter = counters.get(key);
+        if (counter != null) return counter;
+        if (counters.size() >= maxTrackedKeys) {
+            if (fullWarned.compareAndSet(false, true)) {
+                log.warn("Login throttle is tracking {} keys — new keys fall back until the next cleanup",
+                        counters.size());
+            }
+            return null;
+        }
+        return counters.computeIfAbsent(key, k -> new SlidingWindowCounter(windowSeconds * 1000, BUCKETS));
+    }
+}
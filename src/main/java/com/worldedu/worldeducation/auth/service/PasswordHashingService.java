@@ -0,0 +1,130 @@
+package com.worldedu.worldeducation.auth.service;
+
+import com.worldedu.worldeducation.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs CPU-bound password hashing and verification on a dedicated, bounded pool.
+ *
+ * A login storm can then only consume this pool's threads rather than every Tomcat
+ * worker, so catalog and content requests keep their CPU. When the queue is full
+ * the call is rejected immediately with {@link ServiceBusyException} (503 + Retry-After)
+ * instead of piling up behind the hashes already waiting.
+ *
+ * Callers run outside any transaction (and before touching the request's EntityManager),
+ * otherwise every queued hash would pin a pooled JDBC connection for up to timeout-ms.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHashingService {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.password-hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${app.password-hashing.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueTimer;
+    private Timer hashTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        queueTimer = Timer.builder("auth.password_hashing.queue_time")
+                .description("Time a hashing task waits for a pool thread")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("auth.password_hashing.hash_time")
+                .description("Time spent hashing or verifying a password")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("auth.password_hashing.rejected")
+                .description("Hashing tasks rejected because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.password_hashing.queue_depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        log.info("Password hashing pool started with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run a hashing task on the pool and wait for its result.
+     * @throws ServiceBusyException if the pool is saturated or the task does not finish in time
+     */
+    public <T> T run(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many sign-in requests right now. Please try again shortly.",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many sign-in requests right now. Please try again shortly.",
+                    retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
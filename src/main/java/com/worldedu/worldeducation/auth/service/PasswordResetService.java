@@ -1,23 +1,22 @@
 package com.worldedu.worldeducation.auth.service;
 
 import com.worldedu.worldeducation.auth.dto.ForgotPasswordResponse;
-import com.worldedu.worldeducation.auth.entity.CodeVerification;
 import com.worldedu.worldeducation.auth.entity.User;
 import com.worldedu.worldeducation.auth.entity.UserProfile;
-import com.worldedu.worldeducation.auth.repository.CodeVerificationRepository;
 import com.worldedu.worldeducation.auth.repository.UserProfileRepository;
 import com.worldedu.worldeducation.auth.repository.UserRepository;
 import com.worldedu.worldeducation.auth.util.PasswordUtil;
-import com.worldedu.worldeducation.enums.VerificationStatus;
+import com.worldedu.worldeducation.security.principal.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -40,8 +39,12 @@ public class PasswordResetService {
 
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
-    private final CodeVerificationRepository codeVerificationRepository;
+    private final VerificationCodeStore verificationCodeStore;
     private final EmailService emailService;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottleService loginThrottleService;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${app.verification.code.length:6}")
     private int codeLength;
@@ -71,19 +74,9 @@ public class PasswordResetService {
             if (profileOpt.isPresent()) {
                 String email = profileOpt.get().getEmail();
 
-                // Expire any previous active reset codes for this userId
-                expirePreviousCodes(userId);
-
-                // Generate and persist new code
+                // Generate and persist new code, expiring any previous active reset code for this userId
                 String code = generateCode();
-                CodeVerification cv = new CodeVerification();
-                cv.setSecretCode(code);
-                cv.setAction(ACTION);
-                cv.setUserId(userId);
-                cv.setGenerationTime(LocalDateTime.now());
-                cv.setExpiryTime(LocalDateTime.now().plusMinutes(codeValidityMinutes));
-                cv.setStatus(VerificationStatus.ACTIVE);
-                codeVerificationRepository.save(cv);
+                verificationCodeStore.issue(userId, ACTION, code, codeValidityMinutes);
 
                 // Send the code by email
                 emailService.sendPasswordResetCode(email, code, codeValidityMinutes);
@@ -114,7 +107,9 @@ public class PasswordResetService {
      */
     public void verifyResetCode(String userId, String code) {
         log.info("Verifying reset code for userId: {}", userId);
-        findActiveCode(userId, code); // throws if not found / expired
+        if (!verificationCodeStore.matches(userId, ACTION, code)) {
+            throw new RuntimeException("Invalid or expired verification code");
+        }
         log.info("Reset code verified for userId: {}", userId);
     }
 
@@ -123,51 +118,39 @@ public class PasswordResetService {
     /**
      * Resets the user's password after re-validating the code.
      * Marks the code as USED and unlocks the account if it was locked.
+     * The new password is hashed before the transaction opens, so waiting for the hashing
+     * pool never holds a database connection.
      *
      * @throws RuntimeException if code is invalid/expired or user is not found
      */
-    @Transactional
     public void resetPassword(String userId, String code, String newPassword) {
         log.info("Resetting password for userId: {}", userId);
 
-        CodeVerification cv = findActiveCode(userId, code);
-
-        User user = userRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        String passwordHash = passwordHashingService.run(() -> PasswordUtil.hashPassword(newPassword));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Consume the code up front so two concurrent resets cannot both use it
+            if (!verificationCodeStore.consume(userId, ACTION, code)) {
+                throw new RuntimeException("Invalid or expired verification code");
+            }
 
-        // Update password and reset lock state
-        user.setPasswordHash(PasswordUtil.hashPassword(newPassword));
-        user.setAccountLocked(false);
-        user.setFailedLoginAttempts(0);
-        user.setPasswordExpiry(LocalDateTime.now().plusMonths(6));
-        userRepository.save(user);
+            User user = userRepository.findByUserId(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Mark code as used so it cannot be reused
-        cv.setStatus(VerificationStatus.USED);
-        codeVerificationRepository.save(cv);
+            // Update password and reset lock state
+            user.setPasswordHash(passwordHash);
+            user.setAccountLocked(false);
+            user.setFailedLoginAttempts(0);
+            user.setPasswordExpiry(LocalDateTime.now().plusMonths(6));
+            userRepository.save(user);
+        });
+        principalCache.invalidate(userId);
+        loginThrottleService.reset(userId);
 
         log.info("Password reset successfully for userId: {}", userId);
     }
 
     // ─── Helpers ──────────────────────────────────────────────────────────────
 
-    private CodeVerification findActiveCode(String userId, String code) {
-        return codeVerificationRepository
-                .findByUserIdAndSecretCodeAndStatusAndActionAndExpiryTimeAfter(
-                        userId, code, VerificationStatus.ACTIVE, ACTION, LocalDateTime.now())
-                .orElseThrow(() -> new RuntimeException("Invalid or expired verification code"));
-    }
-
-    private void expirePreviousCodes(String userId) {
-        List<CodeVerification> previous = codeVerificationRepository.findByUserIdAndAction(userId, ACTION);
-        previous.stream()
-                .filter(c -> c.getStatus() == VerificationStatus.ACTIVE)
-                .forEach(c -> c.setStatus(VerificationStatus.EXPIRED));
-        if (!previous.isEmpty()) {
-            codeVerificationRepository.saveAll(previous);
-        }
-    }
-
     private String generateCode() {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < codeLength; i++) {
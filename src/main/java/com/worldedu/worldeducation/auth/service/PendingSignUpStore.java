@@ -0,0 +1,95 @@
+package com.worldedu.worldeducation.auth.service;
+
+import com.worldedu.worldeducation.auth.dto.SignUpRequest;
+import com.worldedu.worldeducation.auth.entity.PendingSignUp;
+import com.worldedu.worldeducation.auth.repository.PendingSignUpRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable store for signups awaiting email verification.
+ *
+ * Entries live as long as the verification code (app.verification.code.validity-minutes),
+ * are replaced when the same email restarts signup, and are capped at
+ * app.signup.pending.max-entries live rows. Expired rows are invisible to reads and
+ * removed by the purge job.
+ *
+ * The cap is checked against an in-memory count rather than a COUNT per signup. The count
+ * is taken from the database every app.signup.pending.count-refresh-seconds and adjusted
+ * locally in between; a replaced entry is counted twice until the next refresh, so the
+ * store errs towards rejecting near the cap, never towards overfilling.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PendingSignUpStore {
+
+    private final PendingSignUpRepository pendingSignUpRepository;
+
+    @Value("${app.verification.code.validity-minutes:15}")
+    private int validityMinutes;
+
+    @Value("${app.signup.pending.max-entries:100000}")
+    private long maxEntries;
+
+    private final AtomicLong liveCount = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${app.signup.pending.count-refresh-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void refreshCount() {
+        liveCount.set(pendingSignUpRepository.countByExpiresAtAfter(LocalDateTime.now()));
+    }
+
+    /**
+     * Store (or replace) the pending signup for request.getEmail().
+     * @param passwordHash the already-hashed password — plaintext is never persisted
+     */
+    @Transactional
+    public void put(SignUpRequest request, String passwordHash) {
+        LocalDateTime now = LocalDateTime.now();
+        if (liveCount.get() >= maxEntries && !pendingSignUpRepository.existsById(request.getEmail())) {
+            log.warn("Pending signup store full ({} entries), rejecting signup for: {}", maxEntries, request.getEmail());
+            throw new RuntimeException("Too many signups in progress. Please try again later.");
+        }
+
+        PendingSignUp pending = new PendingSignUp();
+        pending.setEmail(request.getEmail());
+        pending.setUserId(request.getUserId());
+        pending.setPasswordHash(passwordHash);
+        pending.setUserCategory(request.getUserCategory());
+        pending.setFirstName(request.getFirstName());
+        pending.setMiddleName(request.getMiddleName());
+        pending.setLastName(request.getLastName());
+        pending.setMobileNo(request.getMobileNo());
+        pending.setCountry(request.getCountry());
+        pending.setState(request.getState());
+        pending.setCity(request.getCity());
+        pending.setAddress(request.getAddress());
+        pending.setCreatedAt(now);
+        pending.setExpiresAt(now.plusMinutes(validityMinutes));
+
+        pendingSignUpRepository.save(pending);
+        liveCount.incrementAndGet();
+    }
+
+    /**
+     * Live (unexpired) pending signup for the email, if any
+     */
+    public Optional<PendingSignUp> get(String email) {
+        return pendingSignUpRepository.findByEmailAndExpiresAtAfter(email, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void remove(String email) {
+        pendingSignUpRepository.deleteById(email);
+        liveCount.updateAndGet(n -> Math.max(0, n - 1));
+    }
+}
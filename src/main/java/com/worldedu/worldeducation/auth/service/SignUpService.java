@@ -1,28 +1,26 @@
 package com.worldedu.worldeducation.auth.service;
 
 import com.worldedu.worldeducation.auth.dto.*;
-import com.worldedu.worldeducation.auth.entity.CodeVerification;
+import com.worldedu.worldeducation.auth.entity.PendingSignUp;
 import com.worldedu.worldeducation.auth.entity.User;
 import com.worldedu.worldeducation.auth.entity.UserProfile;
-import com.worldedu.worldeducation.auth.repository.CodeVerificationRepository;
 import com.worldedu.worldeducation.auth.repository.UserProfileRepository;
 import com.worldedu.worldeducation.auth.repository.UserRepository;
 import com.worldedu.worldeducation.auth.util.PasswordUtil;
 import com.worldedu.worldeducation.enums.SignUpMethod;
 import com.worldedu.worldeducation.enums.UserCategory;
-import com.worldedu.worldeducation.enums.VerificationStatus;
-import com.worldedu.worldeducation.security.jwt.JwtUtil;
+import com.worldedu.worldeducation.metrics.service.DashboardMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -34,11 +32,18 @@ import java.util.Optional;
 @Slf4j
 public class SignUpService {
 
+    private static final String ACTION_SIGNUP = "SIGNUP";
+
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
-    private final CodeVerificationRepository codeVerificationRepository;
+    private final VerificationCodeStore verificationCodeStore;
     private final EmailService emailService;
-    private final JwtUtil jwtUtil;
+    private final AuthService authService;
+    private final PasswordHashingService passwordHashingService;
+    private final PendingSignUpStore pendingSignUpStore;
+    private final UserExistenceIndex userExistenceIndex;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final PlatformTransactionManager transactionManager;
     
     @Value("${app.verification.code.length:6}")
     private int codeLength;
@@ -46,49 +51,44 @@ public class SignUpService {
     @Value("${app.verification.code.validity-minutes:15}")
     private int codeValidityMinutes;
     
-    // Temporary storage for signup data (in production, use Redis or database)
-    private final Map<String, SignUpRequest> pendingSignUps = new HashMap<>();
-    
     private final SecureRandom random = new SecureRandom();
 
     /**
      * Step 1: Initiate signup - Validate data, generate code, send email
+     * The password is hashed before the transaction opens, so waiting for the hashing pool
+     * never holds a database connection.
      * @param request SignUp request with all user details
      * @return SignUpResponse with success message
      */
-    @Transactional
     public SignUpResponse initiateSignUp(SignUpRequest request) {
+        // Hash first — signup data is persisted only with the password already hashed
+        String passwordHash = passwordHashingService.run(() -> PasswordUtil.hashPassword(request.getPassword()));
+        return new TransactionTemplate(transactionManager).execute(status -> startSignUp(request, passwordHash));
+    }
+
+    private SignUpResponse startSignUp(SignUpRequest request, String passwordHash) {
         log.info("Initiating signup for email: {}", request.getEmail());
         
-        // Validate user doesn't already exist
-        if (userRepository.existsByUserId(request.getUserId())) {
+        // Validate user doesn't already exist — the Bloom filter answers "definitely new" without a query
+        if (userExistenceIndex.mightContainUserId(request.getUserId())
+                && userRepository.existsByUserId(request.getUserId())) {
             throw new RuntimeException("User ID already exists: " + request.getUserId());
         }
         
-        if (userProfileRepository.existsByEmail(request.getEmail())) {
+        if (userExistenceIndex.mightContainEmail(request.getEmail())
+                && userProfileRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already registered: " + request.getEmail());
         }
         
-        // Invalidate any previous codes for this email
-        invalidatePreviousCodes(request.getEmail());
-        
         // Generate verification code
         String verificationCode = generateVerificationCode();
         
-        // Store verification code in database
-        CodeVerification codeVerification = new CodeVerification();
-        codeVerification.setSecretCode(verificationCode);
-        codeVerification.setAction("SIGNUP");
-        codeVerification.setUserId(request.getEmail());  // Use email as identifier
-        codeVerification.setGenerationTime(LocalDateTime.now());
-        codeVerification.setExpiryTime(LocalDateTime.now().plusMinutes(codeValidityMinutes));
-        codeVerification.setStatus(VerificationStatus.ACTIVE);
-        
-        codeVerificationRepository.save(codeVerification);
+        // Store verification code (email as identifier), superseding any previous code for this email
+        verificationCodeStore.issue(request.getEmail(), ACTION_SIGNUP, verificationCode, codeValidityMinutes);
         log.info("Verification code saved for email: {}", request.getEmail());
         
-        // Store signup request temporarily (in production, use Redis with TTL)
-        pendingSignUps.put(request.getEmail(), request);
+        // Store signup data until the code is verified
+        pendingSignUpStore.put(request, passwordHash);
         
         // Send verification email
         emailService.sendVerificationCode(request.getEmail(), verificationCode, codeValidityMinutes);
@@ -109,42 +109,40 @@ public class SignUpService {
     public LoginResponse verifyAndCreateUser(VerifyCodeRequest request) {
         log.info("Verifying code for email: {}", request.getEmail());
         
-        // Find active verification code
-        Optional<CodeVerification> codeOpt = codeVerificationRepository
-                .findByUserIdAndSecretCodeAndStatusAndActionAndExpiryTimeAfter(
-                        request.getEmail(),
-                        request.getCode(),
-                        VerificationStatus.ACTIVE,
-                        "SIGNUP",
-                        LocalDateTime.now()
-                );
-        
-        if (codeOpt.isEmpty()) {
+        // Consume the active verification code (restored if the signup below fails and rolls back)
+        if (!verificationCodeStore.consume(request.getEmail(), ACTION_SIGNUP, request.getCode())) {
             throw new RuntimeException("Invalid or expired verification code");
         }
         
         // Get pending signup data
-        SignUpRequest signUpRequest = pendingSignUps.get(request.getEmail());
-        if (signUpRequest == null) {
-            throw new RuntimeException("Signup session expired. Please restart signup process.");
+        PendingSignUp signUpRequest = pendingSignUpStore.get(request.getEmail())
+                .orElseThrow(() -> new RuntimeException("Signup session expired. Please restart signup process."));
+
+        // Authoritative re-check: the userId or email may have been taken (possibly on another node) since step 1
+        if (userRepository.existsByUserId(signUpRequest.getUserId())) {
+            throw new RuntimeException("User ID already exists: " + signUpRequest.getUserId());
+        }
+        if (userProfileRepository.existsByEmail(signUpRequest.getEmail())) {
+            throw new RuntimeException("Email already registered: " + signUpRequest.getEmail());
         }
-        
-        // Mark code as USED
-        CodeVerification codeVerification = codeOpt.get();
-        codeVerification.setStatus(VerificationStatus.USED);
-        codeVerificationRepository.save(codeVerification);
         
         // Create User
         User user = new User();
         user.setUserId(signUpRequest.getUserId());
-        user.setPasswordHash(PasswordUtil.hashPassword(signUpRequest.getPassword()));
+        user.setPasswordHash(signUpRequest.getPasswordHash());
         user.setUserCategory(signUpRequest.getUserCategory());
         user.setSignUpMethod(SignUpMethod.DATA);
         user.setFailedLoginAttempts(0);
         user.setAccountLocked(false);
         user.setPasswordExpiry(LocalDateTime.now().plusMonths(6));  // 6 months validity
         
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            // Inserted immediately (identity key), so a duplicate userId fails here
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw signUpRaceLost(signUpRequest);
+        }
         log.info("User created: {}", savedUser.getUserId());
         
         // Create User Profile
@@ -160,11 +158,18 @@ public class SignUpService {
         profile.setCity(signUpRequest.getCity());
         profile.setAddress(signUpRequest.getAddress());
         
-        userProfileRepository.save(profile);
+        try {
+            // Flushed here so a concurrent signup that won the race surfaces as a clean error
+            userProfileRepository.saveAndFlush(profile);
+        } catch (DataIntegrityViolationException e) {
+            throw signUpRaceLost(signUpRequest);
+        }
+        userExistenceIndex.add(savedUser.getUserId(), profile.getEmail());
+        dashboardMetricsService.recordSignup(savedUser.getCreatedAt());
         log.info("User profile created for customerId: {}", savedUser.getCustomerId());
         
         // Remove from pending signups
-        pendingSignUps.remove(request.getEmail());
+        pendingSignUpStore.remove(request.getEmail());
         
         // Send welcome email
         emailService.sendWelcomeEmail(
@@ -173,16 +178,15 @@ public class SignUpService {
                 signUpRequest.getUserId()
         );
         
-        // Generate JWT token for automatic login
-        String token = jwtUtil.generateToken(
-                savedUser.getUserId(),
-                savedUser.getCustomerId(),
-                savedUser.getUserCategory().name()
-        );
+        // Open a session and issue its access/refresh tokens for automatic login
+        TokenResponse tokens = authService.openSession(savedUser, null, null);
         
         return LoginResponse.builder()
                 .message("Signup successful! Welcome to World Education.")
-                .token(token)
+                .sessionId(tokens.getSessionId())
+                .token(tokens.getToken())
+                .refreshToken(tokens.getRefreshToken())
+                .expiresIn(tokens.getExpiresIn())
                 .userId(savedUser.getUserId())
                 .customerId(savedUser.getCustomerId())
                 .userCategory(savedUser.getUserCategory())
@@ -205,7 +209,8 @@ public class SignUpService {
         // For now, we'll assume the frontend has already validated the token
         // In production, verify the googleToken using Google's token verification API
         
-        // Check if user exists by email
+        // Check if user exists by email — always asked of the DB: this is a sign-in path, and the
+        // Bloom filter misses users registered on another node until its next rebuild
         Optional<UserProfile> profileOpt = userProfileRepository.findByEmail(request.getEmail());
         
         if (profileOpt.isPresent()) {
@@ -223,18 +228,17 @@ public class SignUpService {
             user.setLastLoginAt(LocalDateTime.now());
             userRepository.save(user);
             
-            // Generate JWT token
-            String token = jwtUtil.generateToken(
-                    user.getUserId(),
-                    user.getCustomerId(),
-                    user.getUserCategory().name()
-            );
+            // Open a session and issue its access/refresh tokens
+            TokenResponse tokens = authService.openSession(user, null, null);
             
             log.info("Google Sign-In successful for user: {}", user.getUserId());
             
             return LoginResponse.builder()
                     .message("Google Sign-In successful!")
-                    .token(token)
+                    .sessionId(tokens.getSessionId())
+                    .token(tokens.getToken())
+                    .refreshToken(tokens.getRefreshToken())
+                    .expiresIn(tokens.getExpiresIn())
                     .userId(user.getUserId())
                     .customerId(user.getCustomerId())
                     .userCategory(user.getUserCategory())
@@ -281,23 +285,24 @@ public class SignUpService {
             profile.setAddress(request.getAddress());
             
             userProfileRepository.save(profile);
+            userExistenceIndex.add(savedUser.getUserId(), profile.getEmail());
+            dashboardMetricsService.recordSignup(savedUser.getCreatedAt());
             log.info("Google user profile created for customerId: {}", savedUser.getCustomerId());
             
             // Send welcome email
             emailService.sendWelcomeEmail(request.getEmail(), request.getFirstName(), userId);
             
-            // Generate JWT token
-            String token = jwtUtil.generateToken(
-                    savedUser.getUserId(),
-                    savedUser.getCustomerId(),
-                    savedUser.getUserCategory().name()
-            );
+            // Open a session and issue its access/refresh tokens
+            TokenResponse tokens = authService.openSession(savedUser, null, null);
             
             log.info("Google Sign-Up successful for user: {}", savedUser.getUserId());
             
             return LoginResponse.builder()
                     .message("Google Sign-Up successful! Welcome to World Education.")
-                    .token(token)
+                    .sessionId(tokens.getSessionId())
+                    .token(tokens.getToken())
+                    .refreshToken(tokens.getRefreshToken())
+                    .expiresIn(tokens.getExpiresIn())
                     .userId(savedUser.getUserId())
                     .customerId(savedUser.getCustomerId())
                     .userCategory(savedUser.getUserCategory())
@@ -308,6 +313,14 @@ public class SignUpService {
         }
     }
 
+    /**
+     * A concurrent signup took the userId or email between the re-check and the insert
+     */
+    private RuntimeException signUpRaceLost(PendingSignUp signUpRequest) {
+        log.warn("Signup for {} lost a race on a unique key", signUpRequest.getEmail());
+        return new RuntimeException("User ID or email already registered. Please sign in or restart signup.");
+    }
+
     /**
      * Generate random verification code
      */
@@ -319,44 +332,25 @@ public class SignUpService {
         return code.toString();
     }
 
-    /**
-     * Invalidate all previous active codes for an email
-     */
-    private void invalidatePreviousCodes(String email) {
-        List<CodeVerification> previousCodes = codeVerificationRepository
-                .findByUserIdAndAction(email, "SIGNUP");
-        
-        for (CodeVerification code : previousCodes) {
-            if (code.getStatus() == VerificationStatus.ACTIVE) {
-                code.setStatus(VerificationStatus.EXPIRED);
-            }
-        }
-        
-        if (!previousCodes.isEmpty()) {
-            codeVerificationRepository.saveAll(previousCodes);
-            log.info("Invalidated {} previous codes for email: {}", previousCodes.size(), email);
-        }
-    }
-
     /**
      * Generate unique userId from email
+     * At most two queries: an indexed existence check on the base and one range query for
+     * the highest numeric suffix in use. The Bloom filter is not consulted: it can miss a
+     * userId taken on another node, which would only surface as a unique-key failure on save.
      */
     private String generateUserIdFromEmail(String email) {
         String baseUserId = email.split("@")[0].replaceAll("[^a-zA-Z0-9]", "");
+        if (baseUserId.isEmpty()) {
+            baseUserId = "user";
+        }
         
         // Check if userId already exists
         if (!userRepository.existsByUserId(baseUserId)) {
             return baseUserId;
         }
         
-        // Append numbers until unique
-        int counter = 1;
-        String userId = baseUserId + counter;
-        while (userRepository.existsByUserId(userId)) {
-            counter++;
-            userId = baseUserId + counter;
-        }
-        
-        return userId;
+        // Take the next number after the highest suffix already in use
+        Long maxSuffix = userRepository.findMaxNumericSuffix(baseUserId);
+        return baseUserId + (maxSuffix == null ? 1 : maxSuffix + 1);
     }
 }
@@ -0,0 +1,131 @@
+package com.worldedu.worldeducation.auth.service;
+
+import com.worldedu.worldeducation.auth.repository.UserProfileRepository;
+import com.worldedu.worldeducation.auth.repository.UserRepository;
+import com.worldedu.worldeducation.auth.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory Bloom filters of existing userIds and emails.
+ *
+ * A "no" is definitive, so signup can skip the existence query for the common case of a
+ * fresh userId or email; a "maybe" still goes to the DB. Values are lower-cased, which
+ * only adds positives and so stays safe under MySQL's case-insensitive collation.
+ *
+ * New users are added as they are created on this node. Users created on other nodes
+ * are picked up by the periodic rebuild; until then the unique constraints on
+ * users.user_id and users_profile.email remain the final guard. Because of that window
+ * the filters only pre-screen the signup form; sign-in paths and generated userIds
+ * always ask the DB.
+ *
+ * A rebuild publishes its new filters before it reads the tables, and add() writes to
+ * both the live and the in-progress filters once the user's transaction has committed.
+ * A user committed before the read is loaded by it; one committed after is added to the
+ * new filters directly, so nothing is lost in the swap.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserExistenceIndex {
+
+    private final UserRepository userRepository;
+    private final UserProfileRepository userProfileRepository;
+
+    @Value("${app.signup.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.signup.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Null until the first load completes — every check goes to the DB until then
+    private volatile BloomFilter userIds;
+    private volatile BloomFilter emails;
+
+    // Filters being loaded by a running rebuild; null otherwise
+    private volatile BloomFilter rebuildingUserIds;
+    private volatile BloomFilter rebuildingEmails;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.signup.bloom.rebuild-minutes:60}",
+               initialDelayString = "${app.signup.bloom.rebuild-minutes:60}",
+               timeUnit = TimeUnit.MINUTES)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long capacity = Math.max(expectedInsertions, userRepository.count() * 2);
+
+        BloomFilter freshUserIds = new BloomFilter(capacity, falsePositiveRate);
+        BloomFilter freshEmails = new BloomFilter(capacity, falsePositiveRate);
+        rebuildingUserIds = freshUserIds;
+        rebuildingEmails = freshEmails;
+        try {
+            userRepository.findAllUserIds().forEach(id -> freshUserIds.put(normalize(id)));
+            userProfileRepository.findAllEmails().forEach(email -> freshEmails.put(normalize(email)));
+
+            userIds = freshUserIds;
+            emails = freshEmails;
+        } finally {
+            rebuildingUserIds = null;
+            rebuildingEmails = null;
+        }
+        log.info("User existence filters rebuilt for capacity {} in {} ms", capacity, System.currentTimeMillis() - start);
+    }
+
+    public boolean mightContainUserId(String userId) {
+        BloomFilter filter = userIds;
+        return filter == null || filter.mightContain(normalize(userId));
+    }
+
+    public boolean mightContainEmail(String email) {
+        BloomFilter filter = emails;
+        return filter == null || filter.mightContain(normalize(email));
+    }
+
+    /**
+     * Record a newly created user so later checks see it without waiting for a rebuild.
+     * Applied after the surrounding transaction commits.
+     */
+    public void add(String userId, String email) {
+        afterCommit(() -> {
+            if (userId != null) {
+                put(userIds, userId);
+                put(rebuildingUserIds, userId);
+            }
+            if (email != null) {
+                put(emails, email);
+                put(rebuildingEmails, email);
+            }
+        });
+    }
+
+    private static void put(BloomFilter filter, String value) {
+        if (filter != null) filter.put(normalize(value));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,183 @@
+package com.worldedu.worldeducation.auth.service;
+
+import com.worldedu.worldeducation.auth.entity.CodeVerification;
+import com.worldedu.worldeducation.auth.repository.CodeVerificationRepository;
+import com.worldedu.worldeducation.auth.util.HierarchicalTimerWheel;
+import com.worldedu.worldeducation.enums.VerificationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Active verification / reset codes held in memory, one per (userId, action).
+ *
+ * - code_verification stays the durable record: a code is written there before it
+ *   becomes visible in memory (after commit), and active codes are reloaded on startup.
+ * - Lookups are a single hash probe; a miss or mismatch falls back to the DB once,
+ *   which covers codes issued on another node.
+ * - Issuing a code supersedes earlier ones with one UPDATE, and consuming one is a
+ *   conditional UPDATE ... WHERE status = ACTIVE, so a code is used at most once cluster-wide.
+ * - Expired entries are dropped by a hierarchical timer wheel ticking once a second.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VerificationCodeStore {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_BITS = 6;   // 64 slots per level
+    private static final int WHEEL_LEVELS = 3; // 64^3 seconds ≈ 72h before overflow
+
+    private final CodeVerificationRepository codeVerificationRepository;
+
+    private record Key(String userId, String action) {
+    }
+
+    private record ActiveCode(Key key, Long id, String code, long expiresAtMillis) {
+    }
+
+    private final ConcurrentHashMap<Key, ActiveCode> codes = new ConcurrentHashMap<>();
+    private final HierarchicalTimerWheel<ActiveCode> wheel =
+            new HierarchicalTimerWheel<>(TICK_MILLIS, WHEEL_BITS, WHEEL_LEVELS, System.currentTimeMillis());
+
+    /**
+     * Recover active codes after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int recovered = 0;
+        for (CodeVerification cv : codeVerificationRepository.findByStatusAndExpiryTimeAfter(
+                VerificationStatus.ACTIVE, LocalDateTime.now())) {
+            ActiveCode active = toActiveCode(cv);
+            // Several ACTIVE rows for one key can only be legacy data — keep the newest
+            codes.merge(active.key(), active, (a, b) -> a.id() > b.id() ? a : b);
+            recovered++;
+        }
+        codes.values().forEach(this::scheduleExpiry);
+        log.info("Recovered {} active verification codes", recovered);
+    }
+
+    /**
+     * Persist a new code for (userId, action), superseding any earlier active one.
+     */
+    @Transactional
+    public void issue(String userId, String action, String code, int validityMinutes) {
+        int superseded = codeVerificationRepository.expireActiveCodes(userId, action);
+        if (superseded > 0) {
+            log.info("Invalidated {} previous {} codes for: {}", superseded, action, userId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        CodeVerification cv = new CodeVerification();
+        cv.setSecretCode(code);
+        cv.setAction(action);
+        cv.setUserId(userId);
+        cv.setGenerationTime(now);
+        cv.setExpiryTime(now.plusMinutes(validityMinutes));
+        cv.setStatus(VerificationStatus.ACTIVE);
+        codeVerificationRepository.save(cv);
+
+        ActiveCode active = toActiveCode(cv);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only publish once the durable record has committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(active);
+                }
+            });
+        } else {
+            publish(active);
+        }
+    }
+
+    /**
+     * True if code is the current, unexpired code for (userId, action). Does not consume it.
+     */
+    public boolean matches(String userId, String action, String code) {
+        return find(new Key(userId, action), code).isPresent();
+    }
+
+    /**
+     * Atomically consume the code. Returns false if it is wrong, expired or already used.
+     * Rolls back with the caller's transaction, after which the DB fallback sees it as active again.
+     */
+    @Transactional
+    public boolean consume(String userId, String action, String code) {
+        Key key = new Key(userId, action);
+        Optional<ActiveCode> active = find(key, code);
+        if (active.isEmpty()) return false;
+
+        codes.remove(key, active.get());
+        return codeVerificationRepository.markUsed(active.get().id()) == 1;
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void expire() {
+        int removed = 0;
+        synchronized (wheel) {
+            for (ActiveCode expired : wheel.advance(System.currentTimeMillis())) {
+                if (codes.remove(expired.key(), expired)) removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Expired {} verification codes", removed);
+        }
+    }
+
+    private Optional<ActiveCode> find(Key key, String code) {
+        long now = System.currentTimeMillis();
+        ActiveCode active = codes.get(key);
+        if (active != null && active.expiresAtMillis() > now && sameCode(active.code(), code)) {
+            return Optional.of(active);
+        }
+
+        // Miss or mismatch: the current code may have been issued on another node
+        Optional<CodeVerification> latest = codeVerificationRepository
+                .findTopByUserIdAndActionAndStatusOrderByGenerationTimeDesc(key.userId(), key.action(), VerificationStatus.ACTIVE);
+        if (latest.isEmpty()) {
+            codes.remove(key);
+            return Optional.empty();
+        }
+        ActiveCode loaded = toActiveCode(latest.get());
+        if (loaded.expiresAtMillis() <= now) {
+            return Optional.empty();
+        }
+        publish(loaded);
+        return sameCode(loaded.code(), code) ? Optional.of(loaded) : Optional.empty();
+    }
+
+    private void publish(ActiveCode active) {
+        codes.put(active.key(), active);
+        scheduleExpiry(active);
+    }
+
+    private void scheduleExpiry(ActiveCode active) {
+        synchronized (wheel) {
+            wheel.schedule(active, active.expiresAtMillis());
+        }
+    }
+
+    private static ActiveCode toActiveCode(CodeVerification cv) {
+        long expiresAt = cv.getExpiryTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ActiveCode(new Key(cv.getUserId(), cv.getAction()), cv.getId(), cv.getSecretCode(), expiresAt);
+    }
+
+    private static boolean sameCode(String expected, String actual) {
+        if (actual == null) return false;
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+}
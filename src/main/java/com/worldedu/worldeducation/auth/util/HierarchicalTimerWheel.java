@@ -0,0 +1,117 @@
+package com.worldedu.worldeducation.auth.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel for expiring large numbers of items cheaply.
+ *
+ * Level 0 has 2^wheelBits slots of one tick each; every higher level's slot spans a full
+ * rotation of the level below. schedule() is O(1) and each tick touches only the current
+ * slot, cascading a higher-level slot down when the level beneath it wraps. Items due
+ * beyond the top level wait in an overflow list that is re-examined on each top-level wrap.
+ *
+ * Not thread-safe — callers synchronise.
+ */
+public class HierarchicalTimerWheel<T> {
+
+    private record Timer<T>(T item, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int mask;
+    private final List<Timer<T>>[][] slots;
+    private final List<Timer<T>> overflow = new ArrayList<>();
+    private final List<Timer<T>> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimerWheel(long tickMillis, int wheelBits, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.mask = (1 << wheelBits) - 1;
+        this.slots = new List[levels][1 << wheelBits];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedule item to expire at deadlineMillis (rounded up to the next tick).
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        place(new Timer<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Advance the wheel to nowMillis and return every item whose deadline has passed.
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        drain(due, expired);
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade from the top so items dropping a level can cascade again on this tick
+            for (int level = slots.length - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (wheelBits * level)) - 1)) != 0) continue;
+                if (level == slots.length - 1 && !overflow.isEmpty()) {
+                    List<Timer<T>> waiting = new ArrayList<>(overflow);
+                    overflow.clear();
+                    waiting.forEach(this::place);
+                }
+                int index = (int) ((currentTick >>> (wheelBits * level)) & mask);
+                List<Timer<T>> slot = slots[level][index];
+                if (slot != null) {
+                    slots[level][index] = null;
+                    slot.forEach(this::place);
+                }
+            }
+
+            int index = (int) (currentTick & mask);
+            List<Timer<T>> slot = slots[0][index];
+            if (slot != null) {
+                slots[0][index] = null;
+                drain(slot, expired);
+            }
+            drain(due, expired);
+        }
+        return expired;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            due.add(timer);
+            return;
+        }
+        for (int level = 0; level < slots.length; level++) {
+            if (delta < (1L << (wheelBits * (level + 1)))) {
+                int index = (int) ((timer.deadlineTick() >>> (wheelBits * level)) & mask);
+                List<Timer<T>> slot = slots[level][index];
+                if (slot == null) {
+                    slot = new ArrayList<>(4);
+                    slots[level][index] = slot;
+                }
+                slot.add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private void drain(List<Timer<T>> timers, List<T> expired) {
+        for (Timer<T> timer : timers) {
+            expired.add(timer.item());
+        }
+        size -= timers.size();
+        timers.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package com.worldedu.worldeducation.auth.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window event counter.
+ *
+ * The window is split into fixed buckets. Each bucket is a single long holding
+ * (bucket epoch << COUNT_BITS) | count, so rolling a stale bucket over and
+ * incrementing it is one CAS — no locks and no lost updates.
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long bucketMillis;
+    private final AtomicLongArray slots;
+
+    public SlidingWindowCounter(long windowMillis, int buckets) {
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * Record one event and return the total within the window, including this one.
+     */
+    public int increment(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int index = (int) (epoch % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            long next;
+            if ((current >>> COUNT_BITS) == epoch) {
+                if ((current & COUNT_MASK) == COUNT_MASK) break; // saturated
+                next = current + 1;
+            } else {
+                next = (epoch << COUNT_BITS) | 1;
+            }
+            if (slots.compareAndSet(index, current, next)) break;
+        }
+        return count(nowMillis);
+    }
+
+    /**
+     * Events recorded within the window ending now.
+     */
+    public int count(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            if (epoch - (slot >>> COUNT_BITS) < slots.length()) {
+                total += (int) (slot & COUNT_MASK);
+            }
+        }
+        return total;
+    }
+
+    public void reset() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0L);
+        }
+    }
+}
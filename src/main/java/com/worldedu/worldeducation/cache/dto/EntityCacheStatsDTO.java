@@ -0,0 +1,53 @@
+package com.worldedu.worldeducation.cache.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Hibernate second-level cache statistics since startup (or the last reset).
+ * Hit ratios are hits / (hits + misses), or null before the first lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntityCacheStatsDTO {
+
+    private boolean statisticsEnabled;
+
+    private long secondLevelHits;
+    private long secondLevelMisses;
+    private long secondLevelPuts;
+    private Double secondLevelHitRatio;
+
+    private long naturalIdHits;
+    private long naturalIdMisses;
+    private Double naturalIdHitRatio;
+
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private Double queryCacheHitRatio;
+
+    /** Entity, natural-id and query regions, by name. */
+    private List<RegionStats> regions;
+
+    private String statisticsSince;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RegionStats {
+        private String region;
+        private long hits;
+        private long misses;
+        private long puts;
+        private Double hitRatio;
+        /** Entries currently on heap; -1 when the provider does not report it. */
+        private long elementsInMemory;
+    }
+}
@@ -0,0 +1,124 @@
+package com.worldedu.worldeducation.cache.service;
+
+import com.worldedu.worldeducation.cache.dto.EntityCacheStatsDTO;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Statistics and manual eviction for the Hibernate second-level cache.
+ *
+ * Writes made through Hibernate keep the cache consistent on their own. Writes made with
+ * JdbcTemplate (catalog import, background catalog delete) bypass it, so those callers evict
+ * what they touched here once their transaction has committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityCacheService {
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+
+    @PostConstruct
+    void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    // ============ Eviction ============
+
+    /** Drop one cached entity, e.g. a row deleted with plain SQL. */
+    public void evict(Class<?> entityClass, Object id) {
+        sessionFactory.getCache().evictEntityData(entityClass, id);
+    }
+
+    /**
+     * Drop every cached plan and every cached plan query. Plans are deleted by target rather
+     * than by id, so the individual rows are not known to the caller.
+     */
+    public void evictPlans() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(SubscriptionPlan.class);
+        cache.evictDefaultQueryRegion();
+    }
+
+    /** Drop cached query results, which rows inserted with plain SQL would otherwise leave incomplete. */
+    public void evictQueries() {
+        sessionFactory.getCache().evictDefaultQueryRegion();
+    }
+
+    /** Drop everything, for data changed directly in the database. */
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+        log.info("Evicted all second-level cache regions");
+    }
+
+    // ============ Statistics ============
+
+    public EntityCacheStatsDTO getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        Set<String> regionNames = new TreeSet<>(Arrays.asList(statistics.getSecondLevelCacheRegionNames()));
+        regionNames.add(QUERY_RESULTS_REGION);
+        regionNames.remove(UPDATE_TIMESTAMPS_REGION);
+
+        List<EntityCacheStatsDTO.RegionStats> regions = new ArrayList<>(regionNames.size());
+        for (String name : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region == null) continue;
+            regions.add(EntityCacheStatsDTO.RegionStats.builder()
+                    .region(name)
+                    .hits(region.getHitCount())
+                    .misses(region.getMissCount())
+                    .puts(region.getPutCount())
+                    .hitRatio(ratio(region.getHitCount(), region.getMissCount()))
+                    .elementsInMemory(region.getElementCountInMemory())
+                    .build());
+        }
+
+        return EntityCacheStatsDTO.builder()
+                .statisticsEnabled(statistics.isStatisticsEnabled())
+                .secondLevelHits(statistics.getSecondLevelCacheHitCount())
+                .secondLevelMisses(statistics.getSecondLevelCacheMissCount())
+                .secondLevelPuts(statistics.getSecondLevelCachePutCount())
+                .secondLevelHitRatio(ratio(statistics.getSecondLevelCacheHitCount(),
+                        statistics.getSecondLevelCacheMissCount()))
+                .naturalIdHits(statistics.getNaturalIdCacheHitCount())
+                .naturalIdMisses(statistics.getNaturalIdCacheMissCount())
+                .naturalIdHitRatio(ratio(statistics.getNaturalIdCacheHitCount(),
+                        statistics.getNaturalIdCacheMissCount()))
+                .queryCacheHits(statistics.getQueryCacheHitCount())
+                .queryCacheMisses(statistics.getQueryCacheMissCount())
+                .queryCacheHitRatio(ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()))
+                .regions(regions)
+                .statisticsSince(statistics.getStart() != null ? statistics.getStart().toString() : null)
+                .build();
+    }
+
+    /** Zero all counters so hit ratios reflect only what happens from now on. */
+    public void resetStats() {
+        sessionFactory.getStatistics().clear();
+    }
+
+    private static Double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? null : (double) hits / total;
+    }
+}
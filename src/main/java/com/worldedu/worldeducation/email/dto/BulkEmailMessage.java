@@ -0,0 +1,18 @@
+package com.worldedu.worldeducation.email.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One recipient of a bulk send with its already-rendered body.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkEmailMessage {
+    private String recipient;
+    private String body;
+}
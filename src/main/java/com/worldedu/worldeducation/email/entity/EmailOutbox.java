@@ -0,0 +1,82 @@
+package com.worldedu.worldeducation.email.entity;
+
+import com.worldedu.worldeducation.enums.EmailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outgoing email written in the caller's transaction and delivered asynchronously.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next", columnList = "status, priority, next_attempt_at"),
+        @Index(name = "idx_email_outbox_claim", columnList = "claim_token")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "email_type", nullable = false, length = 50)
+    private String emailType;  // e.g., "VERIFICATION", "PASSWORD_RESET", "WELCOME"
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "html_body", columnDefinition = "TEXT")
+    private String htmlBody;
+
+    // Lower is sent first: transactional mail is 0, bulk runs use a higher value
+    @Column(name = "priority", nullable = false)
+    private Integer priority = 0;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
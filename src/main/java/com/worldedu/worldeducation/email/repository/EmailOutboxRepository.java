@@ -0,0 +1,85 @@
+package com.worldedu.worldeducation.email.repository;
+
+import com.worldedu.worldeducation.email.entity.EmailOutbox;
+import com.worldedu.worldeducation.enums.EmailOutboxStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    List<EmailOutbox> findByClaimToken(String claimToken);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    /**
+     * Claim up to :limit due messages for one worker. Rows left in SENDING by a crashed
+     * node become claimable again once their lease runs out.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "email_outbox"))
+    @Query(value = "UPDATE email_outbox SET status = 'SENDING', claim_token = :token, locked_until = :lease " +
+                   "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+                   "   OR (status = 'SENDING' AND locked_until < :now) " +
+                   "ORDER BY priority, next_attempt_at LIMIT :limit", nativeQuery = true)
+    int claimDue(@Param("token") String token,
+                 @Param("now") LocalDateTime now,
+                 @Param("lease") LocalDateTime lease,
+                 @Param("limit") int limit);
+
+    // The outcome updates below only match while the caller still holds the claim; 0 rows
+    // means the lease ran out and another worker reclaimed the message.
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e " +
+           "SET e.status = com.worldedu.worldeducation.enums.EmailOutboxStatus.SENT, " +
+           "e.sentAt = :at, e.attempts = e.attempts + 1, " +
+           "e.claimToken = null, e.lockedUntil = null, e.lastError = null " +
+           "WHERE e.id = :id AND e.claimToken = :token")
+    int markSent(@Param("id") Long id, @Param("token") String token, @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e " +
+           "SET e.status = com.worldedu.worldeducation.enums.EmailOutboxStatus.PENDING, " +
+           "e.attempts = :attempts, e.nextAttemptAt = :next, " +
+           "e.lastError = :error, e.claimToken = null, e.lockedUntil = null " +
+           "WHERE e.id = :id AND e.claimToken = :token")
+    int scheduleRetry(@Param("id") Long id,
+                      @Param("token") String token,
+                      @Param("attempts") int attempts,
+                      @Param("next") LocalDateTime next,
+                      @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e " +
+           "SET e.status = com.worldedu.worldeducation.enums.EmailOutboxStatus.DEAD, " +
+           "e.attempts = :attempts, e.lastError = :error, " +
+           "e.claimToken = null, e.lockedUntil = null " +
+           "WHERE e.id = :id AND e.claimToken = :token")
+    int markDead(@Param("id") Long id,
+                 @Param("token") String token,
+                 @Param("attempts") int attempts,
+                 @Param("error") String error);
+
+    // Bounded batch for the purge job — delivered mail only; DEAD rows are kept for inspection
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "email_outbox"))
+    @Query(value = "DELETE FROM email_outbox WHERE status = 'SENT' AND sent_at < :cutoff LIMIT :batchSize",
+           nativeQuery = true)
+    int deleteSentBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
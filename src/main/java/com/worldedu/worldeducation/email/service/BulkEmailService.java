@@ -0,0 +1,51 @@
+package com.worldedu.worldeducation.email.service;
+
+import com.worldedu.worldeducation.email.dto.BulkEmailMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point for bulk sends (announcements, reminders to all subscribers, ...).
+ *
+ * Recipients are written to the outbox in fixed-size chunks, one short transaction each,
+ * at bulk priority. Delivery then flows through the same pooled, rate-limited workers as
+ * transactional mail, which is always claimed first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkEmailService {
+
+    private final EmailOutboxService emailOutboxService;
+
+    @Value("${app.email.bulk.enqueue-chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Queue a message per recipient and return how many were queued.
+     */
+    public int send(String emailType, String subject, Iterable<BulkEmailMessage> messages) {
+        long start = System.currentTimeMillis();
+        List<BulkEmailMessage> chunk = new ArrayList<>(chunkSize);
+        int queued = 0;
+
+        for (BulkEmailMessage message : messages) {
+            chunk.add(message);
+            if (chunk.size() == chunkSize) {
+                queued += emailOutboxService.enqueueBulk(emailType, subject, chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            queued += emailOutboxService.enqueueBulk(emailType, subject, chunk);
+        }
+
+        log.info("Queued {} bulk {} emails in {} ms", queued, emailType, System.currentTimeMillis() - start);
+        return queued;
+    }
+}
@@ -0,0 +1,247 @@
+package com.worldedu.worldeducation.email.service;
+
+import com.worldedu.worldeducation.email.entity.EmailOutbox;
+import com.worldedu.worldeducation.email.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains email_outbox on a bounded worker pool.
+ *
+ * - The poller claims only as many due rows as the pool has room for, stamping them
+ *   with a claim token and a lease so several nodes can drain the same table.
+ *   Transactional mail (priority 0) is claimed ahead of bulk mail.
+ * - Each task sends a chunk of messages over one pooled SMTP connection
+ *   ({@link SmtpTransportPool}), paced by a node-wide app.email.smtp.max-messages-per-second limit.
+ * - Failures are retried with exponential backoff and jitter; after
+ *   app.email.outbox.max-attempts (or on a permanent error) the row is dead-lettered
+ *   as DEAD and left in the table for inspection.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDeliveryWorker {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final SmtpTransportPool smtpTransportPool;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.email.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.email.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${app.email.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.email.smtp.messages-per-task:20}")
+    private int messagesPerTask;
+
+    private ThreadPoolExecutor executor;
+    private Timer sendTimer;
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter deadCounter;
+    private Counter leaseLostCounter;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        sendTimer = meterRegistry.timer("email.outbox.batch_send_time");
+        sentCounter = meterRegistry.counter("email.outbox.sent");
+        retryCounter = meterRegistry.counter("email.outbox.retried");
+        deadCounter = meterRegistry.counter("email.outbox.dead");
+        leaseLostCounter = meterRegistry.counter("email.outbox.lease_lost");
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Anything still claimed is picked up again after its lease expires
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Claim due messages up to the pool's free capacity and hand them to the workers in chunks.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-ms:1000}")
+    public void poll() {
+        int capacity = Math.min(batchSize, executor.getQueue().remainingCapacity() * messagesPerTask);
+        if (capacity == 0) return;
+
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = emailOutboxRepository.claimDue(token, now, now.plusSeconds(leaseSeconds), capacity);
+        if (claimed == 0) return;
+
+        List<EmailOutbox> messages = emailOutboxRepository.findByClaimToken(token);
+        for (int i = 0; i < messages.size(); i += messagesPerTask) {
+            List<EmailOutbox> chunk = messages.subList(i, Math.min(i + messagesPerTask, messages.size()));
+            try {
+                executor.execute(() -> deliver(chunk));
+            } catch (RejectedExecutionException e) {
+                // Left in SENDING; reclaimed once the lease runs out
+                log.warn("Email outbox pool full, deferring {} messages", chunk.size());
+            }
+        }
+        log.debug("Claimed {} outbox messages", messages.size());
+    }
+
+    /**
+     * Send a chunk over one pooled connection, recording each message's outcome individually.
+     */
+    private void deliver(List<EmailOutbox> chunk) {
+        List<EmailOutbox> prepared = new ArrayList<>(chunk.size());
+        List<MimeMessage> mimeMessages = new ArrayList<>(chunk.size());
+        for (EmailOutbox message : chunk) {
+            try {
+                mimeMessages.add(toMimeMessage(message));
+                prepared.add(message);
+            } catch (Exception e) {
+                handleFailure(message, e);
+            }
+        }
+        if (prepared.isEmpty()) return;
+
+        long start = System.nanoTime();
+        try {
+            smtpTransportPool.send(mimeMessages, (index, error) -> {
+                EmailOutbox message = prepared.get(index);
+                if (error == null) {
+                    if (emailOutboxRepository.markSent(message.getId(), message.getClaimToken(), LocalDateTime.now()) == 0) {
+                        leaseLost(message, "sent");
+                        return;
+                    }
+                    sentCounter.increment();
+                    log.info("{} email {} sent to: {}", message.getEmailType(), message.getId(), message.getRecipient());
+                } else {
+                    handleFailure(message, error);
+                }
+            });
+        } catch (InterruptedException e) {
+            // Unsent messages stay claimed and are retried after the lease expires
+            Thread.currentThread().interrupt();
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox message) throws Exception {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        boolean multipart = message.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, multipart, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        if (multipart) {
+            helper.setText(message.getBody(), message.getHtmlBody());
+        } else {
+            helper.setText(message.getBody());
+        }
+        return mimeMessage;
+    }
+
+    private void handleFailure(EmailOutbox message, Exception e) {
+        int attempts = message.getAttempts() + 1;
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        boolean permanent = e instanceof MailParseException || e instanceof MailPreparationException
+                || e instanceof AddressException;
+
+        if (permanent || attempts >= maxAttempts) {
+            if (emailOutboxRepository.markDead(message.getId(), message.getClaimToken(), attempts, error) == 0) {
+                leaseLost(message, "dead");
+                return;
+            }
+            deadCounter.increment();
+            log.error("{} email {} to {} dead-lettered after {} attempts: {}",
+                    message.getEmailType(), message.getId(), message.getRecipient(), attempts, error);
+            return;
+        }
+
+        LocalDateTime next = LocalDateTime.now().plusSeconds(backoffSeconds(attempts));
+        if (emailOutboxRepository.scheduleRetry(message.getId(), message.getClaimToken(), attempts, next, error) == 0) {
+            leaseLost(message, "retry");
+            return;
+        }
+        retryCounter.increment();
+        log.warn("{} email {} to {} failed (attempt {} of {}), retrying at {}: {}",
+                message.getEmailType(), message.getId(), message.getRecipient(), attempts, maxAttempts, next, error);
+    }
+
+    /**
+     * The claim expired before this worker finished and another worker now owns the message;
+     * its outcome wins, so this one is dropped. A send recorded here may be repeated by the
+     * new owner, which a longer lease (app.email.outbox.lease-seconds) makes less likely.
+     */
+    private void leaseLost(EmailOutbox message, String outcome) {
+        leaseLostCounter.increment();
+        log.warn("{} email {} to {}: lease lost before recording outcome '{}'",
+                message.getEmailType(), message.getId(), message.getRecipient(), outcome);
+    }
+
+    /**
+     * base * 2^(attempts-1), capped, plus up to 20% jitter so retries from an outage spread out.
+     */
+    private long backoffSeconds(int attempts) {
+        long delay = backoffBaseSeconds << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, backoffMaxSeconds);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String text) {
+        if (text == null) return null;
+        return text.length() <= MAX_ERROR_LENGTH ? text : text.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,72 @@
+package com.worldedu.worldeducation.email.service;
+
+import com.worldedu.worldeducation.email.dto.BulkEmailMessage;
+import com.worldedu.worldeducation.email.entity.EmailOutbox;
+import com.worldedu.worldeducation.email.repository.EmailOutboxRepository;
+import com.worldedu.worldeducation.enums.EmailOutboxStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes outgoing mail to email_outbox.
+ *
+ * Joins the caller's transaction, so a message is queued if and only if the business
+ * change that triggered it commits. Delivery happens later in {@link EmailDeliveryWorker}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    public static final int PRIORITY_TRANSACTIONAL = 0;
+    public static final int PRIORITY_BULK = 10;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    @Transactional
+    public EmailOutbox enqueue(String emailType, String recipient, String subject, String body) {
+        return enqueue(emailType, recipient, subject, body, null);
+    }
+
+    /**
+     * Queue a message with an optional HTML alternative to the plain-text body.
+     */
+    @Transactional
+    public EmailOutbox enqueue(String emailType, String recipient, String subject, String body, String htmlBody) {
+        EmailOutbox message = newMessage(emailType, recipient, subject, body, PRIORITY_TRANSACTIONAL);
+        message.setHtmlBody(htmlBody);
+        EmailOutbox saved = emailOutboxRepository.save(message);
+        log.debug("Queued {} email {} for: {}", emailType, saved.getId(), recipient);
+        return saved;
+    }
+
+    /**
+     * Queue one bulk chunk at low priority so it never delays verification or reset codes.
+     */
+    @Transactional
+    public int enqueueBulk(String emailType, String subject, List<BulkEmailMessage> chunk) {
+        List<EmailOutbox> messages = new ArrayList<>(chunk.size());
+        for (BulkEmailMessage bulkMessage : chunk) {
+            messages.add(newMessage(emailType, bulkMessage.getRecipient(), subject, bulkMessage.getBody(), PRIORITY_BULK));
+        }
+        emailOutboxRepository.saveAll(messages);
+        return messages.size();
+    }
+
+    private static EmailOutbox newMessage(String emailType, String recipient, String subject, String body, int priority) {
+        EmailOutbox message = new EmailOutbox();
+        message.setEmailType(emailType);
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setPriority(priority);
+        message.setStatus(EmailOutboxStatus.PENDING);
+        message.setAttempts(0);
+        return message;
+    }
+}
@@ -0,0 +1,159 @@
+package com.worldedu.worldeducation.email.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import com.worldedu.worldeducation.email.util.TokenBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Small pool of connected, authenticated SMTP transports.
+ *
+ * JavaMailSender opens a new connection (TCP + STARTTLS + AUTH) for every send. Here each
+ * borrower gets an already-open transport and pushes a whole batch of messages through it.
+ * Connections are recycled after app.email.smtp.messages-per-connection messages (providers
+ * cap this) or once idle longer than app.email.smtp.idle-timeout-seconds, and a connection
+ * dropped by the server is reopened once before a message is counted as failed.
+ * All sends on this node share one app.email.smtp.max-messages-per-second limit, so bulk
+ * runs stay inside the provider's quota.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SmtpTransportPool {
+
+    /** Receives the outcome of each message in a batch; error is null on success. */
+    @FunctionalInterface
+    public interface DeliveryCallback {
+        void onResult(int index, Exception error);
+    }
+
+    private final JavaMailSenderImpl mailSender;
+
+    @Value("${app.email.smtp.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.email.smtp.messages-per-connection:100}")
+    private int messagesPerConnection;
+
+    @Value("${app.email.smtp.idle-timeout-seconds:60}")
+    private long idleTimeoutSeconds;
+
+    @Value("${app.email.smtp.max-messages-per-second:10}")
+    private double maxMessagesPerSecond;
+
+    private static final class PooledTransport {
+        private Transport transport;
+        private int sent;
+        private long lastUsedAt;
+    }
+
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private Semaphore permits;
+    private TokenBucket rateLimiter;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(poolSize, true);
+        rateLimiter = new TokenBucket(maxMessagesPerSecond);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            close(pooled);
+        }
+    }
+
+    /**
+     * Send a batch over a single pooled connection, reporting each message's outcome.
+     * Blocks while all transports are in use.
+     */
+    public void send(List<MimeMessage> messages, DeliveryCallback callback) throws InterruptedException {
+        permits.acquire();
+        PooledTransport pooled = borrow();
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                MimeMessage message = messages.get(i);
+                rateLimiter.acquire();
+                try {
+                    sendOne(pooled, message);
+                    callback.onResult(i, null);
+                } catch (Exception e) {
+                    callback.onResult(i, e);
+                }
+            }
+        } finally {
+            release(pooled);
+            permits.release();
+        }
+    }
+
+    private void sendOne(PooledTransport pooled, MimeMessage message) throws MessagingException {
+        message.saveChanges();
+        if (pooled.sent >= messagesPerConnection) {
+            close(pooled);
+        }
+        ensureConnected(pooled);
+        try {
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            if (pooled.transport.isConnected()) throw e;
+            // Server dropped the connection (idle timeout, per-connection cap) — reopen once
+            log.debug("SMTP connection lost, reconnecting: {}", e.getMessage());
+            close(pooled);
+            ensureConnected(pooled);
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+        }
+        pooled.sent++;
+        pooled.lastUsedAt = System.currentTimeMillis();
+    }
+
+    private PooledTransport borrow() {
+        long staleBefore = System.currentTimeMillis() - idleTimeoutSeconds * 1000;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (pooled.lastUsedAt >= staleBefore) return pooled;
+            close(pooled);
+        }
+        return new PooledTransport();
+    }
+
+    private void release(PooledTransport pooled) {
+        if (pooled.transport != null && pooled.transport.isConnected()) {
+            // Most recently used first, so spare connections age out instead of all staying warm
+            idle.offerFirst(pooled);
+        }
+    }
+
+    private void ensureConnected(PooledTransport pooled) throws MessagingException {
+        if (pooled.transport != null && pooled.transport.isConnected()) return;
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        pooled.transport = transport;
+        pooled.sent = 0;
+        pooled.lastUsedAt = System.currentTimeMillis();
+    }
+
+    private void close(PooledTransport pooled) {
+        if (pooled.transport == null) return;
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+        pooled.transport = null;
+        pooled.sent = 0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.worldedu.worldeducation.email.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into literal and placeholder segments.
+ *
+ * Placeholders are written {{name}}. Rendering is a single pass that appends
+ * segments to the caller's buffer — no regex, no String.format, no re-parsing.
+ * When escapeHtml is set, substituted values (never literals) are HTML-escaped.
+ */
+public final class CompiledTemplate {
+
+    private final String name;
+    private final String[] literals;
+    private final String[] placeholders;
+    private final boolean escapeHtml;
+    private final int sizeHint;
+
+    private CompiledTemplate(String name, String[] literals, String[] placeholders, boolean escapeHtml, int sizeHint) {
+        this.name = name;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.escapeHtml = escapeHtml;
+        this.sizeHint = sizeHint;
+    }
+
+    /**
+     * Parse a template source.
+     * @throws IllegalArgumentException on an unterminated or empty placeholder
+     */
+    public static CompiledTemplate compile(String name, String source, boolean escapeHtml) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) break;
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder in template " + name + " at offset " + open);
+            }
+            String key = source.substring(open + 2, close).trim();
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder in template " + name + " at offset " + open);
+            }
+            literals.add(source.substring(pos, open));
+            placeholders.add(key);
+            pos = close + 2;
+        }
+        literals.add(source.substring(pos));
+
+        return new CompiledTemplate(name, literals.toArray(String[]::new), placeholders.toArray(String[]::new),
+                escapeHtml, source.length() + 64);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Expected output size, used to pre-size buffers. */
+    public int getSizeHint() {
+        return sizeHint;
+    }
+
+    /**
+     * Append the rendered template to out. Missing variables render as empty.
+     */
+    public void renderTo(StringBuilder out, Map<String, ?> variables) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            Object value = variables.get(placeholders[i]);
+            if (value != null) {
+                if (escapeHtml) {
+                    appendEscaped(out, value.toString());
+                } else {
+                    out.append(value);
+                }
+            }
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.worldedu.worldeducation.email.template;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Email templates compiled once at startup.
+ *
+ * Templates live in classpath:templates/email/{template}/{locale}.{subject|txt|html}.
+ * A request for a locale falls back from language-country to language to
+ * app.email.default-locale. Rendering reuses a per-thread output buffer, so a render
+ * allocates little more than its result strings.
+ */
+@Service
+@Slf4j
+public class EmailTemplateService {
+
+    public static final String VERIFICATION = "verification";
+    public static final String PASSWORD_RESET = "password-reset";
+    public static final String WELCOME = "welcome";
+
+    private static final List<String> REQUIRED_TEMPLATES = List.of(VERIFICATION, PASSWORD_RESET, WELCOME);
+    private static final String TEMPLATE_LOCATION = "classpath*:templates/email/*/*.*";
+
+    // Buffers that grew past this are dropped rather than pinned to the thread
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+
+    @Value("${app.email.default-locale:en}")
+    private String defaultLocale;
+
+    @Value("${app.name:World Education}")
+    private String appName;
+
+    private static final class TemplateSet {
+        private CompiledTemplate subject;
+        private CompiledTemplate text;
+        private CompiledTemplate html;
+    }
+
+    // template name -> locale tag -> compiled variants
+    private final Map<String, Map<String, TemplateSet>> templates = new HashMap<>();
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    @PostConstruct
+    void loadTemplates() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_LOCATION);
+        int compiled = 0;
+
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            String templateName = parentDirectoryName(resource);
+            if (filename == null || templateName == null) continue;
+
+            int dot = filename.lastIndexOf('.');
+            String localeTag = filename.substring(0, dot);
+            String variant = filename.substring(dot + 1);
+
+            String source;
+            try (InputStream in = resource.getInputStream()) {
+                source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            String key = templateName + "/" + filename;
+            TemplateSet set = templates.computeIfAbsent(templateName, k -> new HashMap<>())
+                    .computeIfAbsent(localeTag, k -> new TemplateSet());
+            switch (variant) {
+                case "subject" -> set.subject = CompiledTemplate.compile(key, source.strip(), false);
+                case "txt" -> set.text = CompiledTemplate.compile(key, source, false);
+                case "html" -> set.html = CompiledTemplate.compile(key, source, true);
+                default -> {
+                    log.warn("Ignoring unknown email template file: {}", key);
+                    continue;
+                }
+            }
+            compiled++;
+        }
+
+        for (String required : REQUIRED_TEMPLATES) {
+            TemplateSet set = templates.getOrDefault(required, Map.of()).get(defaultLocale);
+            if (set == null || set.subject == null || set.text == null) {
+                throw new IllegalStateException("Missing email template " + required + " for default locale " + defaultLocale);
+            }
+        }
+        log.info("Compiled {} email template files for {} templates", compiled, templates.size());
+    }
+
+    /**
+     * Render subject, plain text and (if present) HTML for the closest available locale.
+     */
+    public RenderedEmail render(String templateName, Locale locale, Map<String, ?> variables) {
+        TemplateSet set = resolve(templateName, locale);
+        Map<String, Object> vars = new HashMap<>(variables);
+        vars.putIfAbsent("appName", appName);
+
+        return new RenderedEmail(
+                renderOne(set.subject, vars),
+                renderOne(set.text, vars),
+                set.html != null ? renderOne(set.html, vars) : null
+        );
+    }
+
+    private TemplateSet resolve(String templateName, Locale locale) {
+        Map<String, TemplateSet> byLocale = templates.get(templateName);
+        if (byLocale == null) {
+            throw new IllegalArgumentException("Unknown email template: " + templateName);
+        }
+        if (locale != null) {
+            TemplateSet set = complete(byLocale.get(locale.toLanguageTag()));
+            if (set != null) return set;
+            set = complete(byLocale.get(locale.getLanguage()));
+            if (set != null) return set;
+        }
+        return byLocale.get(defaultLocale);
+    }
+
+    private static TemplateSet complete(TemplateSet set) {
+        return set != null && set.subject != null && set.text != null ? set : null;
+    }
+
+    private String renderOne(CompiledTemplate template, Map<String, ?> vars) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(template.getSizeHint());
+        template.renderTo(buffer, vars);
+        String result = buffer.toString();
+
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return result;
+    }
+
+    private static String parentDirectoryName(Resource resource) {
+        try {
+            String path = resource.getURL().getPath();
+            int end = path.lastIndexOf('/');
+            int start = path.lastIndexOf('/', end - 1);
+            return end > 0 ? path.substring(start + 1, end) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
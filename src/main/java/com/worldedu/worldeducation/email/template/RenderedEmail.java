@@ -0,0 +1,7 @@
+package com.worldedu.worldeducation.email.template;
+
+/**
+ * Output of {@link EmailTemplateService#render}. html is null when the template has no HTML variant.
+ */
+public record RenderedEmail(String subject, String text, String html) {
+}
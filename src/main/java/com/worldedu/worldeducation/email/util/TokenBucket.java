@@ -0,0 +1,46 @@
+package com.worldedu.worldeducation.email.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking token-bucket rate limiter.
+ *
+ * Refills at permitsPerSecond up to a burst of the same size. {@link #acquire()} reserves
+ * a token under the lock and sleeps outside it, so waiting callers do not serialise on
+ * the monitor.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take one token, waiting as long as needed.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+            tokens -= 1;
+            // A negative balance is a reservation: wait until it would have been refilled
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
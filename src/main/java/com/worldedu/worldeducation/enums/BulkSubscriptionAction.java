@@ -0,0 +1,14 @@
+package com.worldedu.worldeducation.enums;
+
+/**
+ * Bulk operations on user subject/topic subscriptions.
+ * GRANT - create (or reactivate) a subscription to one target for each given customer
+ * ACTIVATE / DEACTIVATE - set is_active on every matching subscription
+ * TOGGLE - flip is_active on every matching subscription
+ */
+public enum BulkSubscriptionAction {
+    GRANT,
+    ACTIVATE,
+    DEACTIVATE,
+    TOGGLE
+}
@@ -0,0 +1,15 @@
+package com.worldedu.worldeducation.enums;
+
+/**
+ * Enum for background catalog delete job status
+ * PENDING - Queued, waiting for the delete worker
+ * RUNNING - Claimed by a worker and walking the subtree
+ * COMPLETED - Subtree and target row removed
+ * FAILED - Stopped on an error; requesting the delete again resumes where it left off
+ */
+public enum CatalogDeleteJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
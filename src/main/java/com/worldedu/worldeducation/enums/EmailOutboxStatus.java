@@ -0,0 +1,15 @@
+package com.worldedu.worldeducation.enums;
+
+/**
+ * Enum for email outbox delivery status
+ * PENDING - Waiting to be sent (or waiting for its next retry)
+ * SENDING - Claimed by a delivery worker
+ * SENT - Accepted by the SMTP server
+ * DEAD - Gave up after the maximum number of attempts
+ */
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,11 @@
+package com.worldedu.worldeducation.enums;
+
+/**
+ * Output formats for admin data exports.
+ * CSV - RFC 4180 with a header row
+ * NDJSON - one JSON object per line
+ */
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
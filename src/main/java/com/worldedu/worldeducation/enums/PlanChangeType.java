@@ -0,0 +1,16 @@
+package com.worldedu.worldeducation.enums;
+
+/**
+ * Enum for subscription_plan_history.change_type
+ * PRICE_UPDATE, DURATION_CHANGE, DEACTIVATED - as specified in DbSchema.txt
+ * CREATED, REACTIVATED, UPDATED (name, currency, days, target) and DELETED cover the remaining admin plan mutations
+ */
+public enum PlanChangeType {
+    CREATED,
+    PRICE_UPDATE,
+    DURATION_CHANGE,
+    DEACTIVATED,
+    REACTIVATED,
+    UPDATED,
+    DELETED
+}
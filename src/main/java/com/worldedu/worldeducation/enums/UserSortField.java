@@ -0,0 +1,11 @@
+package com.worldedu.worldeducation.enums;
+
+/**
+ * Sort keys supported by the admin user listing.
+ * Every sort is tie-broken by customerId so keyset cursors are stable.
+ */
+public enum UserSortField {
+    CREATED_AT,
+    USER_ID,
+    CUSTOMER_ID
+}
@@ -0,0 +1,19 @@
+package com.worldedu.worldeducation.exception;
+
+/**
+ * Thrown when a bounded resource (e.g. the password hashing pool) is saturated.
+ * Mapped to 503 Service Unavailable with a Retry-After header.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,87 @@
+package com.worldedu.worldeducation.metrics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin dashboard snapshot, assembled from in-memory counters.
+ * Class counts roll up the subject and topic subscriptions beneath each class.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardMetricsDTO {
+
+    private long totalActiveSubscriptions;
+
+    private int signupWindowDays;
+    private long signupsInWindow;
+
+    /** Classes, subjects and topics with at least one active subscription, busiest first. */
+    private List<TargetCount> classes;
+    private List<TargetCount> subjects;
+    private List<TargetCount> topics;
+
+    /** New signups per day over the window, oldest first. */
+    private List<DailyCount> signupsByDay;
+
+    /** Every plan with its projected revenue (price x active subscriptions on its target). */
+    private List<PlanRevenue> plans;
+
+    /**
+     * Sum of projected revenue over active subject and topic plans, per currency. Class plans
+     * are listed above but left out here, as their subscriptions are those of the subjects and
+     * topics beneath them.
+     */
+    private Map<String, BigDecimal> projectedRevenueByCurrency;
+
+    /** When the counters were last rebuilt from the database; changes made on other nodes since then are not included. */
+    private LocalDateTime rebuiltAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TargetCount {
+        private Long id;
+        private String name;
+        /** Owning class for a subject, owning subject for a topic; null for a class. */
+        private Long parentId;
+        private long activeSubscriptions;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DailyCount {
+        private LocalDate date;
+        private long signups;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PlanRevenue {
+        private Long planId;
+        private String planName;
+        /** CLASS | SUBJECT | TOPIC */
+        private String targetType;
+        private Long targetId;
+        private Boolean isActive;
+        private BigDecimal price;
+        private String currency;
+        private long activeSubscriptions;
+        private BigDecimal projectedRevenue;
+    }
+}
@@ -0,0 +1,333 @@
+package com.worldedu.worldeducation.metrics.service;
+
+import com.worldedu.worldeducation.auth.repository.UserRepository;
+import com.worldedu.worldeducation.metrics.dto.DashboardMetricsDTO;
+import com.worldedu.worldeducation.subject.entity.EdClass;
+import com.worldedu.worldeducation.subject.entity.EdSubject;
+import com.worldedu.worldeducation.subject.repository.EdClassRepository;
+import com.worldedu.worldeducation.subject.repository.EdSubjectRepository;
+import com.worldedu.worldeducation.subject.repository.UserSubjectSubscriptionRepository;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan.TargetType;
+import com.worldedu.worldeducation.subscription.repository.SubscriptionPlanRepository;
+import com.worldedu.worldeducation.topic.entity.EdTopic;
+import com.worldedu.worldeducation.topic.repository.EdTopicRepository;
+import com.worldedu.worldeducation.topic.repository.UserTopicSubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Admin dashboard metrics kept in memory and maintained incrementally.
+ *
+ * Active subscription counts per subject and topic, and signups per day, are loaded once at
+ * startup and then bumped by TopicService (subscribe), AdminService (toggle), SignUpService
+ * (signup) and BulkSubscriptionService as those changes commit. Class roll-ups and projected
+ * plan revenue are derived from these counters and a small catalog snapshot (names, parents,
+ * plans), so serving the dashboard never scans the subscription or user tables.
+ *
+ * Admin edits patch the one catalog row they changed; only bulk imports and deletes reload it.
+ *
+ * Counters only see changes committed on this node. With several nodes, each node's dashboard
+ * misses the other nodes' subscriptions, signups and catalog edits until its next scheduled
+ * rebuild, so figures lag by at most app.metrics.rebuild-minutes (10 by default); the rebuild
+ * endpoint forces one. A change that commits while a rebuild is swapping counters or the
+ * catalog in can be missed the same way and is corrected by the following rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardMetricsService {
+
+    private final UserRepository userRepository;
+    private final EdClassRepository edClassRepository;
+    private final EdSubjectRepository edSubjectRepository;
+    private final EdTopicRepository edTopicRepository;
+    private final UserSubjectSubscriptionRepository userSubjectSubscriptionRepository;
+    private final UserTopicSubscriptionRepository userTopicSubscriptionRepository;
+    private final SubscriptionPlanRepository subscriptionPlanRepository;
+
+    @Value("${app.metrics.signup-days:90}")
+    private int signupDays;
+
+    private volatile Counters counters = new Counters();
+    private volatile Catalog catalog = new Catalog();
+    private volatile LocalDateTime rebuiltAt;
+
+    /** Subscriptions counted per target; signups per calendar day. */
+    private record Counters(Map<Long, LongAdder> subjects,
+                            Map<Long, LongAdder> topics,
+                            NavigableMap<LocalDate, LongAdder> signups) {
+        Counters() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /** Names / parents / plans by id; patched per row on admin edits, replaced whole on reload. */
+    private record Catalog(Map<Long, String> classes, Map<Long, Node> subjects, Map<Long, Node> topics,
+                           Map<Long, SubscriptionPlan> plans) {
+        Catalog() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                    new ConcurrentHashMap<>());
+        }
+    }
+
+    private record Node(String name, Long parentId) {
+    }
+
+    /**
+     * Full rebuild: counters from grouped counts over the subscription and user tables, plus the catalog.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.metrics.rebuild-minutes:10}",
+               initialDelayString = "${app.metrics.rebuild-minutes:10}",
+               timeUnit = TimeUnit.MINUTES)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        Counters fresh = new Counters();
+        for (Object[] row : userSubjectSubscriptionRepository.countActiveGroupedBySubject()) {
+            adder(fresh.subjects(), ((Number) row[0]).longValue()).add(((Number) row[1]).longValue());
+        }
+        for (Object[] row : userTopicSubscriptionRepository.countActiveGroupedByTopic()) {
+            adder(fresh.topics(), ((Number) row[0]).longValue()).add(((Number) row[1]).longValue());
+        }
+        LocalDate from = LocalDate.now().minusDays(signupDays - 1L);
+        for (Object[] row : userRepository.countSignupsGroupedByDay(from.atStartOfDay())) {
+            adder(fresh.signups(), toLocalDate(row[0])).add(((Number) row[1]).longValue());
+        }
+
+        catalog = loadCatalog();
+        counters = fresh;
+        rebuiltAt = LocalDateTime.now();
+        log.info("Dashboard metrics rebuilt ({} subjects, {} topics, {} signup days) in {} ms",
+                fresh.subjects().size(), fresh.topics().size(), fresh.signups().size(),
+                System.currentTimeMillis() - start);
+    }
+
+    // ============ Incremental maintenance ============
+
+    /**
+     * Apply a change in active subscriptions to a subject or topic once the surrounding transaction commits.
+     */
+    public void recordSubscriptionChange(TargetType type, Long targetId, long delta) {
+        if (targetId == null || delta == 0) return;
+        afterCommit(() -> {
+            Counters current = counters;
+            switch (type) {
+                case SUBJECT -> adder(current.subjects(), targetId).add(delta);
+                case TOPIC -> adder(current.topics(), targetId).add(delta);
+                default -> throw new IllegalArgumentException("Subscriptions are held on subjects and topics only");
+            }
+        });
+    }
+
+    public void recordSignup(LocalDateTime createdAt) {
+        LocalDate day = (createdAt != null ? createdAt : LocalDateTime.now()).toLocalDate();
+        afterCommit(() -> adder(counters.signups(), day).increment());
+    }
+
+    /**
+     * Reload names, parents and plans after a bulk catalog change (import, background delete).
+     * Counters are untouched: class roll-ups follow a moved subject or topic automatically at read time.
+     */
+    public void refreshCatalog() {
+        afterCommit(() -> catalog = loadCatalog());
+    }
+
+    /** Record a created or edited class once the surrounding transaction commits. */
+    public void classChanged(EdClass edClass) {
+        Long id = edClass.getClassId();
+        String name = edClass.getClassName();
+        afterCommit(() -> catalog.classes().put(id, name));
+    }
+
+    /** Record a created, renamed or moved subject once the surrounding transaction commits. */
+    public void subjectChanged(EdSubject subject) {
+        Long id = subject.getSubjectId();
+        Node node = new Node(subject.getSubjectName(), subject.getClassId());
+        afterCommit(() -> catalog.subjects().put(id, node));
+    }
+
+    /** Record a created, renamed or moved topic once the surrounding transaction commits. */
+    public void topicChanged(EdTopic topic) {
+        Long id = topic.getTopicId();
+        Node node = new Node(topic.getTopicName(), topic.getSubjectId());
+        afterCommit(() -> catalog.topics().put(id, node));
+    }
+
+    /** Record a created or edited plan once the surrounding transaction commits. */
+    public void planChanged(SubscriptionPlan plan) {
+        afterCommit(() -> catalog.plans().put(plan.getSubscriptionId(), plan));
+    }
+
+    /** Drop a deleted plan once the surrounding transaction commits. */
+    public void planRemoved(Long planId) {
+        afterCommit(() -> catalog.plans().remove(planId));
+    }
+
+    // ============ Dashboard ============
+
+    public DashboardMetricsDTO getDashboard() {
+        Counters current = counters;
+        Catalog cat = catalog;
+
+        Map<Long, Long> subjectCounts = snapshot(current.subjects());
+        Map<Long, Long> topicCounts = snapshot(current.topics());
+        Map<Long, Long> classCounts = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<Long, Long> e : subjectCounts.entrySet()) {
+            Node subject = cat.subjects().get(e.getKey());
+            if (subject != null) classCounts.merge(subject.parentId(), e.getValue(), Long::sum);
+            total += e.getValue();
+        }
+        for (Map.Entry<Long, Long> e : topicCounts.entrySet()) {
+            Node topic = cat.topics().get(e.getKey());
+            Node subject = topic != null ? cat.subjects().get(topic.parentId()) : null;
+            if (subject != null) classCounts.merge(subject.parentId(), e.getValue(), Long::sum);
+            total += e.getValue();
+        }
+
+        LocalDate from = LocalDate.now().minusDays(signupDays - 1L);
+        List<DashboardMetricsDTO.DailyCount> signups = new ArrayList<>();
+        long signupTotal = 0;
+        for (Map.Entry<LocalDate, LongAdder> e : current.signups().tailMap(from, true).entrySet()) {
+            long count = e.getValue().sum();
+            signups.add(DashboardMetricsDTO.DailyCount.builder().date(e.getKey()).signups(count).build());
+            signupTotal += count;
+        }
+
+        List<DashboardMetricsDTO.PlanRevenue> plans = new ArrayList<>(cat.plans().size());
+        Map<String, BigDecimal> revenueByCurrency = new TreeMap<>();
+        List<SubscriptionPlan> catalogPlans = new ArrayList<>(cat.plans().values());
+        catalogPlans.sort(Comparator.comparing(SubscriptionPlan::getSubscriptionId));
+        for (SubscriptionPlan plan : catalogPlans) {
+            Long targetId = plan.getTargetId();
+            long subscriptions = switch (plan.getTargetType()) {
+                case CLASS -> classCounts.getOrDefault(targetId, 0L);
+                case SUBJECT -> subjectCounts.getOrDefault(targetId, 0L);
+                case TOPIC -> topicCounts.getOrDefault(targetId, 0L);
+            };
+            BigDecimal price = plan.getPrice() != null ? plan.getPrice() : BigDecimal.ZERO;
+            BigDecimal projected = price.multiply(BigDecimal.valueOf(subscriptions));
+            // A class plan's count is the subject and topic subscriptions beneath it, which the
+            // subject and topic plans already account for; totalling both would count them twice
+            if (Boolean.TRUE.equals(plan.getIsActive()) && plan.getTargetType() != TargetType.CLASS) {
+                revenueByCurrency.merge(plan.getCurrency() != null ? plan.getCurrency() : "USD", projected, BigDecimal::add);
+            }
+            plans.add(DashboardMetricsDTO.PlanRevenue.builder()
+                    .planId(plan.getSubscriptionId())
+                    .planName(plan.getPlanName())
+                    .targetType(plan.getTargetType().name())
+                    .targetId(targetId)
+                    .isActive(plan.getIsActive())
+                    .price(plan.getPrice())
+                    .currency(plan.getCurrency())
+                    .activeSubscriptions(subscriptions)
+                    .projectedRevenue(projected)
+                    .build());
+        }
+
+        return DashboardMetricsDTO.builder()
+                .totalActiveSubscriptions(total)
+                .signupWindowDays(signupDays)
+                .signupsInWindow(signupTotal)
+                .classes(toTargetCounts(classCounts, id -> cat.classes().containsKey(id)
+                        ? new Node(cat.classes().get(id), null) : null))
+                .subjects(toTargetCounts(subjectCounts, id -> cat.subjects().get(id)))
+                .topics(toTargetCounts(topicCounts, id -> cat.topics().get(id)))
+                .signupsByDay(signups)
+                .plans(plans)
+                .projectedRevenueByCurrency(revenueByCurrency)
+                .rebuiltAt(rebuiltAt)
+                .build();
+    }
+
+    // ============ Helper Methods ============
+
+    private Catalog loadCatalog() {
+        Catalog loaded = new Catalog();
+        for (Object[] row : edClassRepository.findIdAndName()) {
+            loaded.classes().put((Long) row[0], (String) row[1]);
+        }
+        for (Object[] row : edSubjectRepository.findIdClassIdAndName()) {
+            loaded.subjects().put((Long) row[0], new Node((String) row[2], (Long) row[1]));
+        }
+        for (Object[] row : edTopicRepository.findIdSubjectIdAndName()) {
+            loaded.topics().put((Long) row[0], new Node((String) row[2], (Long) row[1]));
+        }
+        for (SubscriptionPlan plan : subscriptionPlanRepository.findAll()) {
+            loaded.plans().put(plan.getSubscriptionId(), plan);
+        }
+        return loaded;
+    }
+
+    /** Entries whose target still exists in the catalog and has active subscriptions, busiest first. */
+    private static List<DashboardMetricsDTO.TargetCount> toTargetCounts(Map<Long, Long> counts,
+                                                                         Function<Long, Node> lookup) {
+        List<DashboardMetricsDTO.TargetCount> result = new ArrayList<>();
+        for (Map.Entry<Long, Long> e : counts.entrySet()) {
+            Node node = lookup.apply(e.getKey());
+            if (node == null || e.getValue() <= 0) continue;
+            result.add(DashboardMetricsDTO.TargetCount.builder()
+                    .id(e.getKey())
+                    .name(node.name())
+                    .parentId(node.parentId())
+                    .activeSubscriptions(e.getValue())
+                    .build());
+        }
+        result.sort(Comparator.comparingLong(DashboardMetricsDTO.TargetCount::getActiveSubscriptions).reversed()
+                .thenComparing(DashboardMetricsDTO.TargetCount::getId));
+        return result;
+    }
+
+    private static Map<Long, Long> snapshot(Map<Long, LongAdder> counters) {
+        Map<Long, Long> values = new HashMap<>(counters.size() * 2);
+        counters.forEach((id, adder) -> values.put(id, adder.sum()));
+        return values;
+    }
+
+    private static <K> LongAdder adder(Map<K, LongAdder> counters, K key) {
+        return counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only count what has actually committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
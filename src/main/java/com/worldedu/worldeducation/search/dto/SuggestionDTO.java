@@ -0,0 +1,22 @@
+package com.worldedu.worldeducation.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single typeahead suggestion.
+ * type is CLASS, SUBJECT or TOPIC; path is the parent hierarchy (e.g. "Grade 5 > Physics").
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionDTO {
+    private String type;
+    private Long id;
+    private String name;
+    private String path;
+    private Long popularity;
+}
@@ -0,0 +1,174 @@
+package com.worldedu.worldeducation.search.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Prefix trie over catalog names used for search-as-you-type.
+ *
+ * Every entry is indexed under each word start of its normalised name, so
+ * "Force and Motion" is reachable from "for", "and" and "mot".
+ * Each node tracks the highest weight found in its subtree, which lets
+ * {@link #topK(String, int)} run a best-first walk that stops after K hits
+ * instead of collecting the whole subtree.
+ *
+ * Not thread-safe — callers guard it with a read/write lock.
+ */
+public class SuggestionTrie {
+
+    /** Immutable indexed item. key is unique per entity, e.g. "TOPIC:42". */
+    public record Entry(String key, String type, Long id, String name, String path, long weight) {
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private List<Entry> entries;
+        private long maxWeight = -1;
+    }
+
+    private final Node root = new Node();
+    private final Map<String, Entry> byKey = new HashMap<>();
+
+    public int size() {
+        return byKey.size();
+    }
+
+    public Entry get(String key) {
+        return byKey.get(key);
+    }
+
+    /**
+     * Insert or replace an entry (matched by key).
+     */
+    public void put(Entry entry) {
+        remove(entry.key());
+        byKey.put(entry.key(), entry);
+
+        for (String term : terms(entry.name())) {
+            Node node = root;
+            node.maxWeight = Math.max(node.maxWeight, entry.weight());
+            for (int i = 0; i < term.length(); i++) {
+                node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+                node.maxWeight = Math.max(node.maxWeight, entry.weight());
+            }
+            if (node.entries == null) {
+                node.entries = new ArrayList<>(1);
+            }
+            node.entries.add(entry);
+        }
+    }
+
+    /**
+     * Remove an entry and prune any nodes left empty.
+     */
+    public void remove(String key) {
+        Entry existing = byKey.remove(key);
+        if (existing == null) return;
+
+        for (String term : terms(existing.name())) {
+            Node[] path = new Node[term.length() + 1];
+            path[0] = root;
+            Node node = root;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = node.children.get(term.charAt(i));
+                path[i + 1] = node;
+            }
+            if (node == null || node.entries == null) continue;
+
+            node.entries.removeIf(e -> e.key().equals(key));
+            if (node.entries.isEmpty()) {
+                node.entries = null;
+            }
+
+            // Recompute subtree maxima bottom-up, dropping empty leaves on the way
+            for (int i = term.length(); i >= 0; i--) {
+                Node current = path[i];
+                long max = -1;
+                if (current.entries != null) {
+                    for (Entry e : current.entries) max = Math.max(max, e.weight());
+                }
+                for (Node child : current.children.values()) max = Math.max(max, child.maxWeight);
+                current.maxWeight = max;
+
+                if (i > 0 && current.entries == null && current.children.isEmpty()) {
+                    path[i - 1].children.remove(term.charAt(i - 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Highest-weighted entries whose name has a word starting with the given prefix.
+     */
+    public List<Entry> topK(String prefix, int k) {
+        List<Entry> result = new ArrayList<>(k);
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || k <= 0) return result;
+
+        Node node = root;
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.children.get(normalized.charAt(i));
+        }
+        if (node == null) return result;
+
+        // Queue holds either a Node (bounded by its subtree max) or a concrete Entry
+        PriorityQueue<Object[]> queue = new PriorityQueue<>((a, b) -> Long.compare((long) b[0], (long) a[0]));
+        queue.add(new Object[]{node.maxWeight, node});
+        Set<String> seen = new HashSet<>();
+
+        while (!queue.isEmpty() && result.size() < k) {
+            Object item = queue.poll()[1];
+            if (item instanceof Entry entry) {
+                if (seen.add(entry.key())) result.add(entry);
+            } else {
+                Node current = (Node) item;
+                if (current.entries != null) {
+                    for (Entry e : current.entries) queue.add(new Object[]{e.weight(), e});
+                }
+                for (Node child : current.children.values()) {
+                    queue.add(new Object[]{child.maxWeight, child});
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lower-cases and collapses anything that is not a letter or digit into single spaces.
+     */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space && !sb.isEmpty()) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    /** Suffixes of the normalised name starting at each word boundary. */
+    private static Set<String> terms(String name) {
+        String normalized = normalize(name);
+        Set<String> terms = new HashSet<>();
+        if (normalized.isEmpty()) return terms;
+        terms.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ') terms.add(normalized.substring(i));
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,338 @@
+package com.worldedu.worldeducation.search.service;
+
+import com.worldedu.worldeducation.search.dto.SuggestionDTO;
+import com.worldedu.worldeducation.search.index.SuggestionTrie;
+import com.worldedu.worldeducation.subject.entity.EdClass;
+import com.worldedu.worldeducation.subject.entity.EdSubject;
+import com.worldedu.worldeducation.subject.repository.EdClassRepository;
+import com.worldedu.worldeducation.subject.repository.EdSubjectRepository;
+import com.worldedu.worldeducation.subject.repository.UserSubjectSubscriptionRepository;
+import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan.TargetType;
+import com.worldedu.worldeducation.topic.entity.EdTopic;
+import com.worldedu.worldeducation.topic.repository.EdTopicRepository;
+import com.worldedu.worldeducation.topic.repository.UserTopicSubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory typeahead over class, subject and topic names.
+ *
+ * The trie is built once at startup and then kept current by AdminService
+ * (catalog create/update/delete, subscription toggles) and TopicService (new subscriptions
+ * bump popularity), so suggest() never touches the database. Incremental changes are applied
+ * only once the caller's transaction commits, and changes made while a rebuild is running
+ * are replayed onto the new trie before it is swapped in.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionService {
+
+    private final EdClassRepository edClassRepository;
+    private final EdSubjectRepository edSubjectRepository;
+    private final EdTopicRepository edTopicRepository;
+    private final UserSubjectSubscriptionRepository userSubjectSubscriptionRepository;
+    private final UserTopicSubscriptionRepository userTopicSubscriptionRepository;
+
+    @Value("${app.search.suggest.default-limit:8}")
+    private int defaultLimit;
+
+    @Value("${app.search.suggest.max-limit:20}")
+    private int maxLimit;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private SuggestionTrie trie = new SuggestionTrie();
+
+    /** Changes applied while a rebuild runs, replayed onto the new trie. Guarded by lock; null when idle. */
+    private List<Consumer<SuggestionTrie>> changesDuringRebuild;
+    private final Object rebuildMonitor = new Object();
+
+    /**
+     * Top-K suggestions for the typed prefix, most popular first.
+     */
+    public List<SuggestionDTO> suggest(String query, Integer limit) {
+        int k = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+
+        List<SuggestionTrie.Entry> entries;
+        lock.readLock().lock();
+        try {
+            entries = trie.topK(query, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return entries.stream()
+                .map(e -> SuggestionDTO.builder()
+                        .type(e.type())
+                        .id(e.id())
+                        .name(e.name())
+                        .path(e.path())
+                        .popularity(e.weight())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Full rebuild from the catalog. Builds off-lock and swaps the finished trie in,
+     * after replaying any incremental change made since the rebuild started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                doRebuild();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private void doRebuild() {
+        long start = System.currentTimeMillis();
+
+        Map<Long, EdClass> classes = edClassRepository.findAll().stream()
+                .collect(Collectors.toMap(EdClass::getClassId, Function.identity()));
+        Map<Long, EdSubject> subjects = edSubjectRepository.findAll().stream()
+                .collect(Collectors.toMap(EdSubject::getSubjectId, Function.identity()));
+        List<EdTopic> topics = edTopicRepository.findAll();
+
+        Map<Long, Long> subjectWeights = toCountMap(userSubjectSubscriptionRepository.countActiveGroupedBySubject());
+        Map<Long, Long> topicWeights = toCountMap(userTopicSubscriptionRepository.countActiveGroupedByTopic());
+        Map<Long, Long> classWeights = new HashMap<>();
+        for (EdSubject subject : subjects.values()) {
+            classWeights.merge(subject.getClassId(), subjectWeights.getOrDefault(subject.getSubjectId(), 0L), Long::sum);
+        }
+
+        SuggestionTrie fresh = new SuggestionTrie();
+        for (EdClass cls : classes.values()) {
+            if (!Boolean.TRUE.equals(cls.getIsActive())) continue;
+            fresh.put(classEntry(cls, classWeights.getOrDefault(cls.getClassId(), 0L)));
+        }
+        for (EdSubject subject : subjects.values()) {
+            if (!Boolean.TRUE.equals(subject.getIsActive())) continue;
+            fresh.put(subjectEntry(subject, classes.get(subject.getClassId()),
+                    subjectWeights.getOrDefault(subject.getSubjectId(), 0L)));
+        }
+        for (EdTopic topic : topics) {
+            if (!Boolean.TRUE.equals(topic.getIsActive())) continue;
+            EdSubject subject = subjects.get(topic.getSubjectId());
+            EdClass cls = subject != null ? classes.get(subject.getClassId()) : null;
+            fresh.put(topicEntry(topic, subject, cls, topicWeights.getOrDefault(topic.getTopicId(), 0L)));
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            // Re-applying a put or remove is harmless; a popularity bump that the snapshot
+            // already counted may be counted twice, which is fine for a ranking hint
+            replayed = changesDuringRebuild.size();
+            changesDuringRebuild.forEach(change -> change.accept(fresh));
+            trie = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggestion index rebuilt with {} entries ({} changes replayed) in {} ms",
+                fresh.size(), replayed, System.currentTimeMillis() - start);
+    }
+
+    // ============ Incremental maintenance ============
+
+    /**
+     * Index (or de-index if inactive) a class once the caller commits. A rename re-paths its subjects and topics.
+     */
+    public void indexClass(EdClass cls) {
+        afterCommit(() -> {
+            SuggestionTrie.Entry existing = get(key(TargetType.CLASS, cls.getClassId()));
+            boolean renamed = existing != null && !existing.name().equals(cls.getClassName());
+            apply(t -> {
+                String key = key(TargetType.CLASS, cls.getClassId());
+                if (Boolean.TRUE.equals(cls.getIsActive())) {
+                    t.put(classEntry(cls, weightOf(t.get(key))));
+                } else {
+                    t.remove(key);
+                }
+            });
+            if (renamed) {
+                for (EdSubject subject : edSubjectRepository.findByClassId(cls.getClassId())) {
+                    indexSubject(subject, cls);
+                }
+            }
+        });
+    }
+
+    /**
+     * Index (or de-index if inactive) a subject once the caller commits. A rename or move re-paths its topics.
+     */
+    public void indexSubject(EdSubject subject) {
+        afterCommit(() -> indexSubject(subject, edClassRepository.findById(subject.getClassId()).orElse(null)));
+    }
+
+    public void indexTopic(EdTopic topic) {
+        afterCommit(() -> {
+            EdSubject subject = edSubjectRepository.findById(topic.getSubjectId()).orElse(null);
+            EdClass cls = subject != null ? edClassRepository.findById(subject.getClassId()).orElse(null) : null;
+            indexTopic(topic, subject, cls);
+        });
+    }
+
+    public void remove(TargetType type, Long id) {
+        afterCommit(() -> apply(t -> t.remove(key(type, id))));
+    }
+
+    /**
+     * Move popularity by delta (+1 subscribe / activate, -1 deactivate) once the caller commits,
+     * so entries rise and fall without a rebuild. Subject changes also move the owning class,
+     * whose popularity is the sum of its subjects'.
+     */
+    public void recordSubscriptionChange(TargetType type, Long id, long delta) {
+        if (id == null || delta == 0) return;
+        afterCommit(() -> {
+            apply(t -> adjustWeight(t, key(type, id), delta));
+            if (type == TargetType.SUBJECT) {
+                edSubjectRepository.findById(id).ifPresent(subject ->
+                        apply(t -> adjustWeight(t, key(TargetType.CLASS, subject.getClassId()), delta)));
+            }
+        });
+    }
+
+    private void indexSubject(EdSubject subject, EdClass cls) {
+        String key = key(TargetType.SUBJECT, subject.getSubjectId());
+        SuggestionTrie.Entry updated = subjectEntry(subject, cls, 0);
+        SuggestionTrie.Entry existing = get(key);
+        boolean repath = existing != null
+                && !(existing.name().equals(updated.name()) && existing.path().equals(updated.path()));
+
+        apply(t -> {
+            if (Boolean.TRUE.equals(subject.getIsActive())) {
+                t.put(subjectEntry(subject, cls, weightOf(t.get(key))));
+            } else {
+                t.remove(key);
+            }
+        });
+
+        if (repath) {
+            for (EdTopic topic : edTopicRepository.findBySubjectId(subject.getSubjectId())) {
+                indexTopic(topic, subject, cls);
+            }
+        }
+    }
+
+    private void indexTopic(EdTopic topic, EdSubject subject, EdClass cls) {
+        String key = key(TargetType.TOPIC, topic.getTopicId());
+        apply(t -> {
+            if (Boolean.TRUE.equals(topic.getIsActive())) {
+                t.put(topicEntry(topic, subject, cls, weightOf(t.get(key))));
+            } else {
+                t.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Apply a change to the live trie, and remember it for the new trie if a rebuild is running.
+     */
+    private void apply(Consumer<SuggestionTrie> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(trie);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private SuggestionTrie.Entry get(String key) {
+        lock.readLock().lock();
+        try {
+            return trie.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void adjustWeight(SuggestionTrie t, String key, long delta) {
+        SuggestionTrie.Entry existing = t.get(key);
+        if (existing != null) {
+            t.put(new SuggestionTrie.Entry(existing.key(), existing.type(), existing.id(),
+                    existing.name(), existing.path(), Math.max(0L, existing.weight() + delta)));
+        }
+    }
+
+    // ============ Helper Methods ============
+
+    private SuggestionTrie.Entry classEntry(EdClass cls, long weight) {
+        return new SuggestionTrie.Entry(key(TargetType.CLASS, cls.getClassId()), TargetType.CLASS.name(),
+                cls.getClassId(), cls.getClassName(), "", weight);
+    }
+
+    private SuggestionTrie.Entry subjectEntry(EdSubject subject, EdClass cls, long weight) {
+        String path = cls != null ? cls.getClassName() : "Unknown Class";
+        return new SuggestionTrie.Entry(key(TargetType.SUBJECT, subject.getSubjectId()), TargetType.SUBJECT.name(),
+                subject.getSubjectId(), subject.getSubjectName(), path, weight);
+    }
+
+    private SuggestionTrie.Entry topicEntry(EdTopic topic, EdSubject subject, EdClass cls, long weight) {
+        String path = (cls != null ? cls.getClassName() : "Unknown Class") + " > "
+                + (subject != null ? subject.getSubjectName() : "Unknown Subject");
+        return new SuggestionTrie.Entry(key(TargetType.TOPIC, topic.getTopicId()), TargetType.TOPIC.name(),
+                topic.getTopicId(), topic.getTopicName(), path, weight);
+    }
+
+    private static long weightOf(SuggestionTrie.Entry entry) {
+        return entry != null ? entry.weight() : 0L;
+    }
+
+    private static String key(TargetType type, Long id) {
+        return type.name() + ":" + id;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rolled-back create or rename must not leave a phantom suggestion behind
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
@@ -1,8 +1,10 @@
 package com.worldedu.worldeducation.security.jwt;
 
-import com.worldedu.worldeducation.auth.repository.UserRepository;
-import com.worldedu.worldeducation.auth.repository.UserSessionRepository;
 import com.worldedu.worldeducation.auth.entity.User;
+import com.worldedu.worldeducation.enums.UserCategory;
+import com.worldedu.worldeducation.security.principal.PrincipalCache;
+import com.worldedu.worldeducation.security.session.SessionActivityTracker;
+import com.worldedu.worldeducation.security.session.SessionStateCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,8 +27,9 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
-    private final UserSessionRepository userSessionRepository;
+    private final PrincipalCache principalCache;
+    private final SessionStateCache sessionStateCache;
+    private final SessionActivityTracker sessionActivityTracker;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -35,66 +38,104 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String userId = null;
-        String jwt = null;
-
-        // Extract JWT from Authorization header
+        // Verify the JWT exactly once — signature, expiry and all claims in a single pass
+        ParsedToken token = null;
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
             try {
-                userId = jwtUtil.extractUserId(jwt);
+                token = jwtUtil.parse(authorizationHeader.substring(7));
             } catch (Exception e) {
-                log.error("Error extracting userId from token: {}", e.getMessage());
+                log.error("Invalid JWT: {}", e.getMessage());
             }
         }
 
-        // Validate token and set authentication
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            if (jwtUtil.validateToken(jwt)) {
-
-                // Check if the session embedded in the token is still active.
-                // This enforces single-session login: when a student logs in on a new device,
-                // all previous sessions are deactivated, making their tokens invalid here.
-                try {
-                    Long sessionId = jwtUtil.extractSessionId(jwt);
-                    if (sessionId != null) {
-                        boolean sessionActive = userSessionRepository.existsBySessionIdAndIsActive(sessionId, true);
-                        if (!sessionActive) {
-                            log.warn("Session {} is no longer active — returning SESSION_TERMINATED for user {}", sessionId, userId);
-                            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                            response.setContentType("application/json;charset=UTF-8");
-                            response.getWriter().write(
-                                "{\"success\":false,\"code\":\"SESSION_TERMINATED\"," +
-                                "\"message\":\"Your session was ended because you signed in from another device.\"}"
-                            );
-                            return; // Short-circuit — do NOT continue the filter chain
-                        }
+        if (token != null && token.isAccessToken() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Short-lived access token: trusted on signature alone, no DB work.
+            // Revocations made on this node still apply immediately; elsewhere they
+            // take effect when the token expires and the refresh is refused.
+            Long sessionId = token.sessionId();
+            if (sessionId != null && sessionStateCache.isRevoked(sessionId)) {
+                log.warn("Session {} is no longer active — rejecting request for user {}", sessionId, token.userId());
+                writeSessionEnded(response, sessionId);
+                return;
+            }
+            if (sessionId != null) {
+                sessionActivityTracker.touch(sessionId);
+            }
+            authenticate(request, principalFromToken(token));
+        } else if (token != null && token.tokenType() == null && token.userId() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Legacy long-lived token issued before access/refresh tokens — validated against the session
+            String userId = token.userId();
+
+            // Check if the session embedded in the token is still active.
+            // This enforces single-session login: when a student logs in on a new device,
+            // all previous sessions are deactivated, making their tokens invalid here.
+            try {
+                Long sessionId = token.sessionId();
+                if (sessionId != null) {
+                    boolean sessionActive = sessionStateCache.isActive(sessionId);
+                    if (!sessionActive) {
+                        log.warn("Session {} is no longer active — rejecting request for user {}", sessionId, userId);
+                        writeSessionEnded(response, sessionId);
+                        return; // Short-circuit — do NOT continue the filter chain
                     }
-                } catch (Exception e) {
-                    log.debug("Could not check session validity, allowing request through: {}", e.getMessage());
+                    sessionActivityTracker.touch(sessionId);
                 }
+            } catch (Exception e) {
+                log.debug("Could not check session validity, allowing request through: {}", e.getMessage());
+            }
 
-                User user = userRepository.findByUserId(userId).orElse(null);
-
-                if (user != null && !user.getAccountLocked()) {
-                    // Using user category directly (ADMIN, STUDENT) without "ROLE_" prefix
-                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority(user.getUserCategory().name());
-                    UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(
-                            user,
-                            null,
-                            Collections.singletonList(authority)
-                        );
-
-                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            User user = principalCache.get(userId).orElse(null);
 
-                    log.debug("Authenticated user: {} with authority: {}", userId, user.getUserCategory());
-                }
+            if (user != null && !user.getAccountLocked()) {
+                authenticate(request, user);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, User user) {
+        // Using user category directly (ADMIN, STUDENT) without "ROLE_" prefix
+        SimpleGrantedAuthority authority = new SimpleGrantedAuthority(user.getUserCategory().name());
+        UsernamePasswordAuthenticationToken authenticationToken =
+            new UsernamePasswordAuthenticationToken(
+                user,
+                null,
+                Collections.singletonList(authority)
+            );
+
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+
+        log.debug("Authenticated user: {} with authority: {}", user.getUserId(), user.getUserCategory());
+    }
+
+    /**
+     * Detached principal built from access-token claims. Controllers only read
+     * customerId, userId and userCategory from it, all of which the token carries.
+     */
+    private User principalFromToken(ParsedToken token) {
+        User user = new User();
+        user.setCustomerId(token.customerId());
+        user.setUserId(token.userId());
+        user.setUserCategory(UserCategory.valueOf(token.userCategory()));
+        return user;
+    }
+
+    private void writeSessionEnded(HttpServletResponse response, Long sessionId) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json;charset=UTF-8");
+        if (sessionStateCache.isIdleExpired(sessionId)) {
+            response.getWriter().write(
+                "{\"success\":false,\"code\":\"SESSION_EXPIRED\"," +
+                "\"message\":\"Your session expired after a period of inactivity. Please sign in again.\"}"
+            );
+            return;
+        }
+        response.getWriter().write(
+            "{\"success\":false,\"code\":\"SESSION_TERMINATED\"," +
+            "\"message\":\"Your session was ended because you signed in from another device.\"}"
+        );
+    }
 }
@@ -1,8 +1,10 @@
 package com.worldedu.worldeducation.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -12,60 +14,97 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 @Slf4j
 public class JwtUtil {
 
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret:worldeducation-super-secret-key-for-jwt-token-generation-minimum-512-bits}")
     private String secret;
 
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
-    private Long expiration;
+    @Value("${jwt.access-expiration:900000}") // 15 minutes in milliseconds
+    private Long accessExpiration;
 
-    /**
-     * Generate JWT token for a user (legacy — no session binding)
-     */
-    public String generateToken(String userId, Long customerId, String userCategory) {
-        return generateToken(userId, customerId, userCategory, null);
+    @Value("${jwt.refresh-expiration:604800000}") // 7 days in milliseconds
+    private Long refreshExpiration;
+
+    // Built once — HMAC key derivation and parser construction are not free per request
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     /**
-     * Generate JWT token with session binding.
-     * Embeds sessionId so every request can be validated against the DB session.
+     * Generate a short-lived access token bound to a session.
+     * Carries everything the filter needs, so requests are authenticated by signature alone.
      */
     public String generateToken(String userId, Long customerId, String userCategory, Long sessionId) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put("typ", TOKEN_TYPE_ACCESS);
         claims.put("customerId", customerId);
         claims.put("userCategory", userCategory);
-        if (sessionId != null) {
-            claims.put("sessionId", sessionId);
-        }
-        return createToken(claims, userId);
+        claims.put("sessionId", sessionId);
+        return createToken(claims, userId, accessExpiration, null);
+    }
+
+    /**
+     * Generate a refresh token for the session. tokenId (jti) is what the session row
+     * stores a hash of, so each refresh token can be used exactly once.
+     */
+    public String generateRefreshToken(String userId, Long sessionId, String tokenId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("typ", TOKEN_TYPE_REFRESH);
+        claims.put("sessionId", sessionId);
+        return createToken(claims, userId, refreshExpiration, tokenId);
+    }
+
+    /**
+     * Random, unguessable id for a new refresh token
+     */
+    public String newTokenId() {
+        return UUID.randomUUID().toString();
+    }
+
+    public long getAccessExpirationSeconds() {
+        return accessExpiration / 1000;
+    }
+
+    public long getRefreshExpirationMillis() {
+        return refreshExpiration;
     }
 
     /**
      * Create JWT token with claims
      */
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, long ttlMillis, String tokenId) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
+        Date expiryDate = new Date(now.getTime() + ttlMillis);
 
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
+                .id(tokenId)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * Get signing key from secret
+     * Verify signature and expiry once and return every claim the filter needs.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public ParsedToken parse(String token) {
+        return ParsedToken.from(extractAllClaims(token));
     }
 
     /**
@@ -93,14 +132,7 @@ public class JwtUtil {
      * Extract session ID from token (null if not present — legacy tokens without session binding)
      */
     public Long extractSessionId(String token) {
-        return extractClaim(token, claims -> {
-            Object val = claims.get("sessionId");
-            if (val == null) return null;
-            if (val instanceof Long) return (Long) val;
-            if (val instanceof Integer) return ((Integer) val).longValue();
-            if (val instanceof Number) return ((Number) val).longValue();
-            return null;
-        });
+        return parse(token).sessionId();
     }
 
     /**
@@ -122,11 +154,7 @@ public class JwtUtil {
      * Extract all claims from token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
@@ -0,0 +1,48 @@
+package com.worldedu.worldeducation.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have already been verified.
+ * Produced once per request by {@link JwtUtil#parse(String)} so the filter never re-parses the token.
+ */
+public record ParsedToken(
+        String userId,
+        Long customerId,
+        String userCategory,
+        Long sessionId,
+        String tokenType,
+        String tokenId,
+        Date issuedAt,
+        Date expiration
+) {
+
+    static ParsedToken from(Claims claims) {
+        return new ParsedToken(
+                claims.getSubject(),
+                toLong(claims.get("customerId")),
+                claims.get("userCategory", String.class),
+                toLong(claims.get("sessionId")),
+                claims.get("typ", String.class),
+                claims.getId(),
+                claims.getIssuedAt(),
+                claims.getExpiration()
+        );
+    }
+
+    public boolean isAccessToken() {
+        return JwtUtil.TOKEN_TYPE_ACCESS.equals(tokenType);
+    }
+
+    public boolean isRefreshToken() {
+        return JwtUtil.TOKEN_TYPE_REFRESH.equals(tokenType);
+    }
+
+    /** Numeric claims come back as Integer or Long depending on their size. */
+    private static Long toLong(Object val) {
+        if (val instanceof Number number) return number.longValue();
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.worldedu.worldeducation.security.principal;
+
+import com.worldedu.worldeducation.auth.entity.User;
+import com.worldedu.worldeducation.auth.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of authenticated principals keyed by userId, so a warm user
+ * costs the JWT filter no DB work.
+ *
+ * Anything that changes what the filter checks (account lock, password, category)
+ * must call {@link #invalidate(String)}. The TTL is a safety net for changes made
+ * on other nodes or directly in the DB.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${app.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.principal-cache.max-entries:50000}")
+    private int maxEntries;
+
+    private record CachedPrincipal(User user, long expiresAt) {
+    }
+
+    private final ConcurrentHashMap<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    /**
+     * Cached principal for the userId, loading it from the DB on a miss.
+     */
+    public Optional<User> get(String userId) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return Optional.of(cached.user());
+        }
+
+        Optional<User> loaded = userRepository.findByUserId(userId);
+        if (loaded.isPresent()) {
+            if (principals.size() >= maxEntries) {
+                principals.values().removeIf(p -> p.expiresAt() <= now);
+                if (principals.size() >= maxEntries) {
+                    log.warn("Principal cache full ({} entries) — clearing", principals.size());
+                    principals.clear();
+                }
+            }
+            principals.put(userId, new CachedPrincipal(loaded.get(), now + ttlSeconds * 1000));
+        } else {
+            principals.remove(userId);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null && principals.remove(userId) != null) {
+            log.debug("Principal cache invalidated for user: {}", userId);
+        }
+    }
+}
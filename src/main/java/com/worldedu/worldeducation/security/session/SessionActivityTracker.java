@@ -0,0 +1,119 @@
+package com.worldedu.worldeducation.security.session;
+
+import com.worldedu.worldeducation.auth.repository.UserSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind tracking of user_sessions.last_activity_at.
+ *
+ * The JWT filter calls {@link #touch(Long)} on every authenticated request, which only
+ * updates an in-memory map. A scheduler coalesces those touches, groups them by their
+ * timestamp truncated to the second and writes one UPDATE ... WHERE session_id IN (...) per
+ * group and chunk, so every session keeps its own last-activity time and request latency
+ * never includes a write.
+ *
+ * The same component enforces the optional idle policy: when app.session.idle-timeout-minutes
+ * is above zero, sessions with no activity for that long are deactivated and marked as
+ * idle-expired in the session cache. It is off by default.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionActivityTracker {
+
+    private static final int FLUSH_CHUNK_SIZE = 1000;
+
+    private final UserSessionRepository userSessionRepository;
+    private final SessionStateCache sessionStateCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.session.idle-timeout-minutes:0}")
+    private long idleTimeoutMinutes;
+
+    // sessionId -> epoch millis of the latest request seen on this node
+    private final ConcurrentHashMap<Long, Long> pendingTouches = new ConcurrentHashMap<>();
+
+    public void touch(Long sessionId) {
+        pendingTouches.put(sessionId, System.currentTimeMillis());
+    }
+
+    /**
+     * Write coalesced touches. Entries touched again during the flush stay queued for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.session.activity-flush-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void flush() {
+        if (pendingTouches.isEmpty()) return;
+
+        // Second-resolution buckets: a flush window spans only a few dozen distinct seconds,
+        // so this stays a handful of statements while each session keeps its own time
+        Map<Long, List<Long>> bySecond = new HashMap<>();
+        for (Map.Entry<Long, Long> entry : pendingTouches.entrySet()) {
+            if (!pendingTouches.remove(entry.getKey(), entry.getValue())) continue;
+            bySecond.computeIfAbsent(entry.getValue() / 1000, k -> new ArrayList<>()).add(entry.getKey());
+        }
+
+        int written = 0;
+        for (Map.Entry<Long, List<Long>> group : bySecond.entrySet()) {
+            LocalDateTime at = toDateTime(group.getKey() * 1000);
+            List<Long> ids = group.getValue();
+            for (int i = 0; i < ids.size(); i += FLUSH_CHUNK_SIZE) {
+                written += userSessionRepository.updateLastActivity(
+                        ids.subList(i, Math.min(i + FLUSH_CHUNK_SIZE, ids.size())), at);
+            }
+        }
+        log.debug("Flushed last activity for {} sessions in {} groups", written, bySecond.size());
+    }
+
+    /**
+     * Deactivate sessions idle longer than the configured window.
+     */
+    @Scheduled(fixedDelayString = "${app.session.idle-check-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void expireIdleSessions() {
+        if (idleTimeoutMinutes <= 0) return;
+
+        // Make sure recent activity from this node is visible before judging idleness
+        flush();
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(idleTimeoutMinutes);
+        List<Long> idleIds = userSessionRepository.findIdleActiveSessionIds(cutoff);
+        if (idleIds.isEmpty()) return;
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int expired = 0;
+        for (int i = 0; i < idleIds.size(); i += FLUSH_CHUNK_SIZE) {
+            List<Long> chunk = idleIds.subList(i, Math.min(i + FLUSH_CHUNK_SIZE, idleIds.size()));
+            // Another node may have touched some of these since the scan; only rows still idle
+            // under the lock are deactivated, and only those are marked in the session cache
+            List<Long> deactivated = tx.execute(status -> {
+                List<Long> stillIdle = userSessionRepository.lockIdleSessionIds(chunk, cutoff);
+                if (!stillIdle.isEmpty()) {
+                    userSessionRepository.deactivateSessions(stillIdle);
+                }
+                return stillIdle;
+            });
+            deactivated.forEach(sessionStateCache::expireIdle);
+            expired += deactivated.size();
+        }
+        log.info("Expired {} sessions idle since before {}", expired, cutoff);
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
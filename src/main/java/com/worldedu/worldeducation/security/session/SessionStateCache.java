@@ -0,0 +1,122 @@
+package com.worldedu.worldeducation.security.session;
+
+import com.worldedu.worldeducation.auth.repository.UserSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of user_sessions.is_active used by the JWT filter.
+ *
+ * - Active sessions are cached for a short TTL, after which the DB is re-checked.
+ *   The TTL bounds how stale another node's revocation can look from here.
+ * - Revocations made on this node (logout, single-device login) are recorded
+ *   synchronously and always win over a cached "active", so they take effect immediately.
+ * - Idle expiries are revocations too, but are remembered separately so the client can be
+ *   told its session timed out rather than that it was signed in elsewhere.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionStateCache {
+
+    private final UserSessionRepository userSessionRepository;
+
+    @Value("${app.session-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${app.session-cache.revoked-retention-seconds:3600}")
+    private long revokedRetentionSeconds;
+
+    @Value("${app.session-cache.max-entries:100000}")
+    private int maxEntries;
+
+    // sessionId -> epoch millis until which the cached state is trusted
+    private final ConcurrentHashMap<Long, Long> activeUntil = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> revokedUntil = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> idleExpiredUntil = new ConcurrentHashMap<>();
+
+    /**
+     * True if the session is active. Hits the DB only on a cache miss or after the TTL lapses.
+     */
+    public boolean isActive(Long sessionId) {
+        long now = System.currentTimeMillis();
+
+        Long revoked = revokedUntil.get(sessionId);
+        if (revoked != null) {
+            if (revoked > now) return false;
+            revokedUntil.remove(sessionId, revoked);
+        }
+
+        Long until = activeUntil.get(sessionId);
+        if (until != null && until > now) return true;
+
+        boolean active = userSessionRepository.existsBySessionIdAndIsActive(sessionId, true);
+        if (active) {
+            put(activeUntil, sessionId, now + ttlSeconds * 1000);
+        } else {
+            activeUntil.remove(sessionId);
+            put(revokedUntil, sessionId, now + revokedRetentionSeconds * 1000);
+        }
+        return active;
+    }
+
+    /**
+     * True if this node has seen the session revoked. Never touches the DB —
+     * used for short-lived access tokens, whose lifetime already bounds revocation latency.
+     */
+    public boolean isRevoked(Long sessionId) {
+        Long revoked = revokedUntil.get(sessionId);
+        return revoked != null && revoked > System.currentTimeMillis();
+    }
+
+    /**
+     * Record a freshly created session so its first request skips the DB.
+     */
+    public void markActive(Long sessionId) {
+        revokedUntil.remove(sessionId);
+        idleExpiredUntil.remove(sessionId);
+        put(activeUntil, sessionId, System.currentTimeMillis() + ttlSeconds * 1000);
+    }
+
+    /**
+     * Record a revocation. Takes effect on this node immediately.
+     */
+    public void revoke(Long sessionId) {
+        activeUntil.remove(sessionId);
+        idleExpiredUntil.remove(sessionId);
+        put(revokedUntil, sessionId, System.currentTimeMillis() + revokedRetentionSeconds * 1000);
+    }
+
+    /**
+     * Record a revocation caused by the idle timeout.
+     */
+    public void expireIdle(Long sessionId) {
+        revoke(sessionId);
+        put(idleExpiredUntil, sessionId, System.currentTimeMillis() + revokedRetentionSeconds * 1000);
+    }
+
+    /**
+     * True if this node ended the session for inactivity. Other nodes only know it is inactive.
+     */
+    public boolean isIdleExpired(Long sessionId) {
+        Long expired = idleExpiredUntil.get(sessionId);
+        return expired != null && expired > System.currentTimeMillis();
+    }
+
+    private void put(ConcurrentHashMap<Long, Long> map, Long sessionId, long until) {
+        if (map.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            map.values().removeIf(expiry -> expiry <= now);
+            if (map.size() >= maxEntries) {
+                // Still full of live entries — drop them; misses fall back to the DB
+                log.warn("Session cache full ({} entries) — clearing", map.size());
+                map.clear();
+            }
+        }
+        map.put(sessionId, until);
+    }
+}
@@ -1,6 +1,9 @@
 package com.worldedu.worldeducation.student.controller;
 
 import com.worldedu.worldeducation.auth.entity.User;
+import com.worldedu.worldeducation.exception.ServiceBusyException;
+import com.worldedu.worldeducation.search.dto.SuggestionDTO;
+import com.worldedu.worldeducation.search.service.SuggestionService;
 import com.worldedu.worldeducation.student.dto.*;
 import com.worldedu.worldeducation.student.service.StudentService;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +21,7 @@ import java.util.Map;
 public class StudentController {
 
     private final StudentService studentService;
+    private final SuggestionService suggestionService;
 
     // Get all available subscription plans
     @GetMapping("/subscription-plans")
@@ -67,17 +71,29 @@ public class StudentController {
         try {
             studentService.changePassword(user.getCustomerId(), request);
             return ResponseEntity.ok(Map.of("message", "Password changed successfully"));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
-    // Search topics
+    // Search topics — ranked, paginated; pass the returned nextCursor to get the next page
     @GetMapping("/search-topics")
-    public ResponseEntity<List<TopicSearchResultDTO>> searchTopics(
+    public ResponseEntity<TopicSearchPageResponse> searchTopics(
             @RequestParam String query,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
             @AuthenticationPrincipal User user) {
-        List<TopicSearchResultDTO> results = studentService.searchTopics(user.getCustomerId(), query);
-        return ResponseEntity.ok(results);
+        TopicSearchPageResponse page = studentService.searchTopics(user.getCustomerId(), query, limit, cursor);
+        return ResponseEntity.ok(page);
+    }
+
+    // Typeahead suggestions for classes, subjects and topics (served from memory)
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(suggestionService.suggest(q, limit));
     }
 }
@@ -0,0 +1,23 @@
+package com.worldedu.worldeducation.student.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of ranked topic search results.
+ * Pass nextCursor back as the cursor parameter to fetch the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TopicSearchPageResponse {
+    private List<TopicSearchResultDTO> results;
+    private Integer pageSize;
+    private Boolean hasMore;
+    private String nextCursor;
+}
@@ -2,8 +2,12 @@ package com.worldedu.worldeducation.student.service;
 
 import com.worldedu.worldeducation.auth.entity.User;
 import com.worldedu.worldeducation.auth.entity.UserProfile;
+import com.worldedu.worldeducation.auth.repository.UserCredentialRepository.UserCredentials;
 import com.worldedu.worldeducation.auth.repository.UserProfileRepository;
 import com.worldedu.worldeducation.auth.repository.UserRepository;
+import com.worldedu.worldeducation.auth.service.PasswordHashingService;
+import com.worldedu.worldeducation.auth.service.UserExistenceIndex;
+import com.worldedu.worldeducation.security.principal.PrincipalCache;
 import com.worldedu.worldeducation.student.dto.*;
 import com.worldedu.worldeducation.subject.entity.EdClass;
 import com.worldedu.worldeducation.subject.entity.EdSubject;
@@ -19,15 +23,25 @@ import com.worldedu.worldeducation.topic.repository.EdTopicRepository;
 import com.worldedu.worldeducation.topic.repository.UserTopicSubscriptionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -43,6 +57,13 @@ public class StudentService {
     private final UserRepository userRepository;
     private final UserProfileRepository userProfileRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingService passwordHashingService;
+    private final UserExistenceIndex userExistenceIndex;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
 
     // Get all available subscription plans
     public List<AvailableSubscriptionPlanDTO> getAvailableSubscriptionPlans(Long customerId) {
@@ -197,65 +218,145 @@ public class StudentService {
         if (request.getAddress() != null) profile.setAddress(request.getAddress());
 
         userProfileRepository.save(profile);
+        if (request.getEmail() != null) {
+            userExistenceIndex.add(null, request.getEmail());
+        }
 
         return getUserProfile(customerId);
     }
 
-    // Change password
-    @Transactional
+    // Change password — both BCrypt steps run on the hashing pool before the short update transaction,
+    // so waiting for a hashing thread never holds a database connection
     public void changePassword(Long customerId, ChangePasswordRequest request) {
-        User user = userRepository.findById(customerId)
+        UserCredentials credentials = userRepository.findCredentialsByCustomerId(customerId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Verify old password
-        if (!passwordEncoder.matches(request.getOldPassword(), user.getPasswordHash())) {
+        boolean oldPasswordMatches = passwordHashingService.run(
+                () -> passwordEncoder.matches(request.getOldPassword(), credentials.passwordHash()));
+        if (!oldPasswordMatches) {
             throw new RuntimeException("Current password is incorrect");
         }
 
-        // Update to new password
-        String newPasswordHash = passwordEncoder.encode(request.getNewPassword());
-        user.setPasswordHash(newPasswordHash);
-        user.setUpdatedAt(LocalDateTime.now());
-
-        userRepository.save(user);
+        // Update to new password, unless it changed while the old one was being checked
+        String newPasswordHash = passwordHashingService.run(() -> passwordEncoder.encode(request.getNewPassword()));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = userRepository.findById(customerId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            if (!user.getPasswordHash().equals(credentials.passwordHash())) {
+                throw new RuntimeException("Current password is incorrect");
+            }
+            user.setPasswordHash(newPasswordHash);
+            user.setUpdatedAt(LocalDateTime.now());
+            userRepository.save(user);
+        });
+        principalCache.invalidate(credentials.userId());
     }
 
-    // Search topics
-    public List<TopicSearchResultDTO> searchTopics(Long customerId, String searchTerm) {
-        List<EdTopic> topics = edTopicRepository.searchTopics(searchTerm);
-        List<TopicSearchResultDTO> result = new ArrayList<>();
+    // Search topics — ranked by relevance, keyset-paginated, parents and subscriptions batch-loaded per page
+    public TopicSearchPageResponse searchTopics(Long customerId, String searchTerm, Integer limit, String cursor) {
+        String term = searchTerm == null ? "" : searchTerm.trim().toLowerCase(Locale.ROOT);
+        int pageSize = limit == null ? DEFAULT_SEARCH_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+
+        int afterRank = -1;
+        String afterName = "";
+        Long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            afterRank = Integer.parseInt(parts[0]);
+            afterId = Long.parseLong(parts[1]);
+            afterName = parts[2];
+        }
 
+        // Fetch one extra row to know whether another page exists
+        List<Object[]> rows = edTopicRepository.searchTopicsRanked(
+                term, escapeLike(term), afterRank, afterName, afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        List<EdTopic> topics = rows.stream().map(row -> (EdTopic) row[0]).toList();
+
+        // Batch-load parent subjects and classes for the whole page
+        Set<Long> subjectIds = topics.stream().map(EdTopic::getSubjectId).collect(Collectors.toSet());
+        Map<Long, EdSubject> subjects = edSubjectRepository.findAllById(subjectIds).stream()
+                .collect(Collectors.toMap(EdSubject::getSubjectId, Function.identity()));
+        Set<Long> classIds = subjects.values().stream().map(EdSubject::getClassId).collect(Collectors.toSet());
+        Map<Long, EdClass> classes = edClassRepository.findAllById(classIds).stream()
+                .collect(Collectors.toMap(EdClass::getClassId, Function.identity()));
+
+        // Preload the caller's active subscriptions once — a subject subscription covers all its topics
+        Set<Long> subscribedTopicIds = userTopicSubscriptionRepository.findByCustomerIdAndIsActiveTrue(customerId).stream()
+                .map(UserTopicSubscription::getTopicId)
+                .collect(Collectors.toSet());
+        Set<Long> subscribedSubjectIds = userSubjectSubscriptionRepository.findByCustomerIdAndIsActiveTrue(customerId).stream()
+                .map(UserSubjectSubscription::getSubjectId)
+                .collect(Collectors.toSet());
+
+        List<TopicSearchResultDTO> result = new ArrayList<>(topics.size());
         for (EdTopic topic : topics) {
             TopicSearchResultDTO dto = new TopicSearchResultDTO();
             dto.setTopicId(topic.getTopicId());
             dto.setTopicName(topic.getTopicName());
-            dto.setTopicDescription(""); // EdTopic doesn't have description field
+            dto.setTopicDescription(topic.getDescription() != null ? topic.getDescription() : "");
             dto.setSubjectId(topic.getSubjectId());
 
-            // Get subject and class info
-            Optional<EdSubject> subject = edSubjectRepository.findById(topic.getSubjectId());
-            if (subject.isPresent()) {
-                dto.setSubjectName(subject.get().getSubjectName());
-                dto.setClassId(subject.get().getClassId());
-
-                Optional<EdClass> edClass = edClassRepository.findById(subject.get().getClassId());
-                edClass.ifPresent(value -> dto.setClassName(value.getClassName()));
+            EdSubject subject = subjects.get(topic.getSubjectId());
+            if (subject != null) {
+                dto.setSubjectName(subject.getSubjectName());
+                dto.setClassId(subject.getClassId());
+                EdClass edClass = classes.get(subject.getClassId());
+                if (edClass != null) {
+                    dto.setClassName(edClass.getClassName());
+                }
             }
 
-            // Check if user is subscribed to this topic
-            boolean isSubscribed = userTopicSubscriptionRepository
-                    .findByCustomerIdAndTopicId(customerId, topic.getTopicId())
-                    .map(UserTopicSubscription::getIsActive)
-                    .orElse(false);
-            dto.setIsSubscribed(isSubscribed);
-
+            dto.setIsSubscribed(subscribedTopicIds.contains(topic.getTopicId())
+                    || subscribedSubjectIds.contains(topic.getSubjectId()));
             result.add(dto);
         }
 
-        return result;
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = rows.get(rows.size() - 1);
+            EdTopic lastTopic = (EdTopic) last[0];
+            nextCursor = encodeCursor(((Number) last[1]).intValue(), lastTopic.getTopicId(), lastTopic.getTopicName());
+        }
+
+        return TopicSearchPageResponse.builder()
+                .results(result)
+                .pageSize(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     // Helper methods
+
+    /** Escape LIKE wildcards so '%' and '_' in the search term match literally. */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private String encodeCursor(int rank, Long topicId, String topicName) {
+        String raw = rank + ":" + topicId + ":" + topicName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) throw new IllegalArgumentException("Invalid search cursor");
+            Integer.parseInt(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+    }
     private AvailableSubscriptionPlanDTO convertToDTO(Long customerId, SubscriptionPlan plan) {
         AvailableSubscriptionPlanDTO dto = new AvailableSubscriptionPlanDTO();
         dto.setSubscriptionId(plan.getSubscriptionId());
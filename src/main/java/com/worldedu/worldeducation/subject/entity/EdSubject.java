@@ -4,11 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ed_subjects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "ed_subjects", indexes = {
+        @Index(name = "idx_ed_subjects_class", columnList = "class_id, subject_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,6 +2,7 @@ package com.worldedu.worldeducation.subject.repository;
 
 import com.worldedu.worldeducation.subject.entity.EdClass;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +11,8 @@ import java.util.List;
 public interface EdClassRepository extends JpaRepository<EdClass, Long> {
     
     List<EdClass> findByIsActiveTrue();
+
+    // Rows of [classId, className]
+    @Query("SELECT c.classId, c.className FROM EdClass c")
+    List<Object[]> findIdAndName();
 }
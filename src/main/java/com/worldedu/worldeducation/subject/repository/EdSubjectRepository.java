@@ -2,6 +2,7 @@ package com.worldedu.worldeducation.subject.repository;
 
 import com.worldedu.worldeducation.subject.entity.EdSubject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +13,8 @@ public interface EdSubjectRepository extends JpaRepository<EdSubject, Long> {
     List<EdSubject> findByClassIdAndIsActiveTrue(Long classId);
     
     List<EdSubject> findByClassId(Long classId);
+
+    // Rows of [subjectId, classId, subjectName]
+    @Query("SELECT s.subjectId, s.classId, s.subjectName FROM EdSubject s")
+    List<Object[]> findIdClassIdAndName();
 }
@@ -2,8 +2,11 @@ package com.worldedu.worldeducation.subject.repository;
 
 import com.worldedu.worldeducation.subject.entity.UserSubjectSubscription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +22,13 @@ public interface UserSubjectSubscriptionRepository extends JpaRepository<UserSub
     boolean existsByCustomerIdAndSubjectIdAndIsActiveTrue(Long customerId, Long subjectId);
 
     boolean existsByCustomerIdAndSubjectIdAndIsActiveFalse(Long customerId, Long subjectId);
+
+    // Rows of [subjectId, activeSubscriberCount]
+    @Query("SELECT s.subjectId, COUNT(s) FROM UserSubjectSubscription s WHERE s.isActive = true GROUP BY s.subjectId")
+    List<Object[]> countActiveGroupedBySubject();
+
+    // Rows of [customerId, activeSubscriptionCount] for the given customers only
+    @Query("SELECT s.customerId, COUNT(s) FROM UserSubjectSubscription s " +
+           "WHERE s.isActive = true AND s.customerId IN :customerIds GROUP BY s.customerId")
+    List<Object[]> countActiveGroupedByCustomer(@Param("customerIds") Collection<Long> customerIds);
 }
@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class UserSubscriptionDTO {
     private Long subscriptionId;
+    private String subscriptionType;
     private Long customerId;
     private String userId;
     private String userName;
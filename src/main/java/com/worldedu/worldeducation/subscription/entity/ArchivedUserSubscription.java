@@ -0,0 +1,53 @@
+package com.worldedu.worldeducation.subscription.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A subject or topic subscription moved out of the live tables when its subject or topic was deleted.
+ * Written by the background catalog delete worker with INSERT ... SELECT.
+ */
+@Entity
+@Table(name = "archived_user_subscriptions", indexes = {
+        @Index(name = "idx_archived_user_subs_customer", columnList = "customer_id"),
+        @Index(name = "idx_archived_user_subs_job", columnList = "delete_job_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedUserSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "archive_id")
+    private Long archiveId;
+
+    // SUBJECT or TOPIC
+    @Column(name = "subscription_type", nullable = false, length = 20)
+    private String subscriptionType;
+
+    @Column(name = "subscription_id", nullable = false)
+    private Long subscriptionId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "subscribed_at")
+    private LocalDateTime subscribedAt;
+
+    @Column(name = "is_active")
+    private Boolean isActive;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "delete_job_id")
+    private Long deleteJobId;
+}
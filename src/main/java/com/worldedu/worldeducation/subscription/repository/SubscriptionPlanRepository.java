@@ -1,7 +1,11 @@
 package com.worldedu.worldeducation.subscription.repository;
 
 import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,16 +14,34 @@ import java.util.Optional;
 @Repository
 public interface SubscriptionPlanRepository extends JpaRepository<SubscriptionPlan, Long> {
 
-    // Typed queries — one per entity type for real FK integrity
+    // Typed queries — one per entity type for real FK integrity.
+    // Cacheable: results are kept in the query cache as plan ids and resolved through the
+    // SubscriptionPlan region; any write to subscription_plans through Hibernate invalidates them.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SubscriptionPlan> findByClassId(Long classId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SubscriptionPlan> findBySubjectId(Long subjectId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SubscriptionPlan> findByTopicId(Long topicId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<SubscriptionPlan> findByClassIdAndIsActiveTrue(Long classId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<SubscriptionPlan> findBySubjectIdAndIsActiveTrue(Long subjectId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<SubscriptionPlan> findByTopicIdAndIsActiveTrue(Long topicId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SubscriptionPlan> findByTargetType(SubscriptionPlan.TargetType targetType);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SubscriptionPlan> findByIsActiveTrue();
+
+    // Rows of [targetType, classId, subjectId, topicId] for every active plan
+    @Query("SELECT p.targetType, p.classId, p.subjectId, p.topicId FROM SubscriptionPlan p WHERE p.isActive = true")
+    List<Object[]> findActiveTargets();
 }
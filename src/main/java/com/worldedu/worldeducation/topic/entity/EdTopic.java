@@ -4,11 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ed_topics")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "ed_topics", indexes = {
+        @Index(name = "idx_ed_topics_subject", columnList = "subject_id, topic_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
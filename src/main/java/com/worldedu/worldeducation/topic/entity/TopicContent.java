@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "topic_contents")
+@Table(name = "topic_contents", indexes = {
+        @Index(name = "idx_topic_contents_topic", columnList = "topic_id, content_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -8,7 +8,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_topic_subscriptions")
+@Table(name = "user_topic_subscriptions", indexes = {
+        @Index(name = "idx_user_topic_subs_customer_active", columnList = "customer_id, is_active"),
+        @Index(name = "idx_user_topic_subs_subscribed", columnList = "subscribed_at, subscription_id"),
+        @Index(name = "idx_user_topic_subs_target", columnList = "topic_id, subscribed_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
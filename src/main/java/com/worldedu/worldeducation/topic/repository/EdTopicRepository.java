@@ -1,11 +1,13 @@
 package com.worldedu.worldeducation.topic.repository;
 
 import com.worldedu.worldeducation.topic.entity.EdTopic;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,8 +16,46 @@ public interface EdTopicRepository extends JpaRepository<EdTopic, Long> {
     List<EdTopic> findBySubjectIdAndIsActiveTrue(Long subjectId);
     
     List<EdTopic> findBySubjectId(Long subjectId);
+
+    // Rows of [subjectId, topicName] — names only, for duplicate checks during bulk import
+    @Query("SELECT t.subjectId, t.topicName FROM EdTopic t WHERE t.subjectId IN :subjectIds")
+    List<Object[]> findNamesBySubjectIdIn(@Param("subjectIds") Collection<Long> subjectIds);
+
+    // Rows of [topicId, subjectId, topicName]
+    @Query("SELECT t.topicId, t.subjectId, t.topicName FROM EdTopic t")
+    List<Object[]> findIdSubjectIdAndName();
     
     @Query("SELECT t FROM EdTopic t WHERE t.isActive = true AND " +
            "(LOWER(t.topicName) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     List<EdTopic> searchTopics(@Param("searchTerm") String searchTerm);
+
+    /**
+     * Relevance of a topic name to a lower-cased term:
+     * 0 = exact match, 1 = name prefix, 2 = word prefix, 3 = substring.
+     * :pattern is the term with LIKE wildcards escaped.
+     */
+    String RELEVANCE = "(CASE WHEN LOWER(t.topicName) = :term THEN 0 " +
+            "WHEN LOWER(t.topicName) LIKE CONCAT(:pattern, '%') ESCAPE '\\' THEN 1 " +
+            "WHEN LOWER(t.topicName) LIKE CONCAT('% ', :pattern, '%') ESCAPE '\\' THEN 2 ELSE 3 END)";
+
+    /**
+     * Keyset-paginated search ordered by (relevance, topicName, topicId), as rows of [topic, relevance].
+     * Returns rows strictly after the given cursor position; pass afterRank = -1 for the first page.
+     * The cursor must carry the relevance returned here, not one recomputed outside the database,
+     * so that it follows the column collation exactly.
+     *
+     * The substring match cannot use an index, so every page scans the active topics.
+     */
+    @Query("SELECT t, " + RELEVANCE + " FROM EdTopic t WHERE t.isActive = true " +
+           "AND LOWER(t.topicName) LIKE CONCAT('%', :pattern, '%') ESCAPE '\\' " +
+           "AND (" + RELEVANCE + " > :afterRank " +
+           "OR (" + RELEVANCE + " = :afterRank AND (t.topicName > :afterName " +
+           "OR (t.topicName = :afterName AND t.topicId > :afterId)))) " +
+           "ORDER BY " + RELEVANCE + ", t.topicName, t.topicId")
+    List<Object[]> searchTopicsRanked(@Param("term") String term,
+                                      @Param("pattern") String pattern,
+                                      @Param("afterRank") int afterRank,
+                                      @Param("afterName") String afterName,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
 }
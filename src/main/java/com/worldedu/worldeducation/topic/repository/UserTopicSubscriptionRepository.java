@@ -2,8 +2,11 @@ package com.worldedu.worldeducation.topic.repository;
 
 import com.worldedu.worldeducation.topic.entity.UserTopicSubscription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +22,13 @@ public interface UserTopicSubscriptionRepository extends JpaRepository<UserTopic
     boolean existsByCustomerIdAndTopicIdAndIsActiveTrue(Long customerId, Long topicId);
 
     List<UserTopicSubscription> findByCustomerIdAndIsActiveFalse(Long customerId);
+
+    // Rows of [topicId, activeSubscriberCount]
+    @Query("SELECT s.topicId, COUNT(s) FROM UserTopicSubscription s WHERE s.isActive = true GROUP BY s.topicId")
+    List<Object[]> countActiveGroupedByTopic();
+
+    // Rows of [customerId, activeSubscriptionCount] for the given customers only
+    @Query("SELECT s.customerId, COUNT(s) FROM UserTopicSubscription s " +
+           "WHERE s.isActive = true AND s.customerId IN :customerIds GROUP BY s.customerId")
+    List<Object[]> countActiveGroupedByCustomer(@Param("customerIds") Collection<Long> customerIds);
 }
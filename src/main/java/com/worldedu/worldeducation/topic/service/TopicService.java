@@ -18,6 +18,8 @@ import com.worldedu.worldeducation.subject.repository.EdClassRepository;
 import com.worldedu.worldeducation.subject.repository.EdSubjectRepository;
 import com.worldedu.worldeducation.subject.repository.UserSubjectSubscriptionRepository;
 import com.worldedu.worldeducation.enums.UserCategory;
+import com.worldedu.worldeducation.metrics.service.DashboardMetricsService;
+import com.worldedu.worldeducation.search.service.SuggestionService;
 import com.worldedu.worldeducation.subscription.entity.SubscriptionPlan;
 import com.worldedu.worldeducation.subscription.repository.SubscriptionPlanRepository;
 import lombok.RequiredArgsConstructor;
@@ -46,6 +48,8 @@ public class TopicService {
     private final TopicContentRepository topicContentRepository;
     private final UserSubjectSubscriptionRepository userSubjectSubscriptionRepository;
     private final SubscriptionPlanRepository subscriptionPlanRepository;
+    private final SuggestionService suggestionService;
+    private final DashboardMetricsService dashboardMetricsService;
 
     /**
      * Get opted and unopted topics for a subject
@@ -468,6 +472,8 @@ public class TopicService {
         sub.setSubscribedAt(LocalDateTime.now());
         sub.setIsActive(true);
         userSubjectSubscriptionRepository.save(sub);
+        suggestionService.recordSubscriptionChange(SubscriptionPlan.TargetType.SUBJECT, subjectId, 1);
+        dashboardMetricsService.recordSubscriptionChange(SubscriptionPlan.TargetType.SUBJECT, subjectId, 1);
     }
 
     /**
@@ -490,6 +496,8 @@ public class TopicService {
         sub.setSubscribedAt(LocalDateTime.now());
         sub.setIsActive(true);
         userTopicSubscriptionRepository.save(sub);
+        suggestionService.recordSubscriptionChange(SubscriptionPlan.TargetType.TOPIC, topicId, 1);
+        dashboardMetricsService.recordSubscriptionChange(SubscriptionPlan.TargetType.TOPIC, topicId, 1);
     }
 
     private TopicSubscriptionOptionsDTO.PlanOption toPlanOption(
@@ -0,0 +1,85 @@
+package com.worldedu.worldeducation.admin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv));
+    }
+
+    @Test
+    void readsPlainRecordsOneAtATime() throws IOException {
+        CsvReader csv = reader("subject,topic\nMaths,Algebra\n");
+
+        assertEquals(List.of("subject", "topic"), csv.next());
+        assertEquals(List.of("Maths", "Algebra"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void lastRecordNeedNotEndWithANewline() throws IOException {
+        CsvReader csv = reader("a,b\nc,d");
+
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("c", "d"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertEquals(List.of("", "b", ""), reader(",b,\n").next());
+    }
+
+    @Test
+    void handlesCrLfAndSkipsBlankLines() throws IOException {
+        CsvReader csv = reader("a,b\r\n\r\n\nc,d\r\n");
+
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("c", "d"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasEscapedQuotesAndNewlines() throws IOException {
+        CsvReader csv = reader("\"Smith, Ada\",\"say \"\"hi\"\"\",\"line one\nline two\"\nnext,row\n");
+
+        assertEquals(List.of("Smith, Ada", "say \"hi\"", "line one\nline two"), csv.next());
+        assertEquals(List.of("next", "row"), csv.next());
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of("5\" ruler", "x"), reader("5\" ruler,x\n").next());
+    }
+
+    @Test
+    void reportsTheLineEachRecordStartedOn() throws IOException {
+        CsvReader csv = reader("header\n\"two\nlines\"\n\nlast\n");
+
+        csv.next();
+        assertEquals(1, csv.getRecordLine());
+        csv.next();
+        assertEquals(2, csv.getRecordLine());
+        csv.next();
+        assertEquals(5, csv.getRecordLine());
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuotedField() throws IOException {
+        CsvReader csv = reader("ok\n\"never closed,\nmore");
+        csv.next();
+
+        IOException e = assertThrows(IOException.class, csv::next);
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+    }
+}
@@ -0,0 +1,119 @@
+package com.worldedu.worldeducation.audit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(4, new RingBuffer<String>(3).capacity());
+        assertEquals(1024, new RingBuffer<String>(1000).capacity());
+        assertEquals(1024, new RingBuffer<String>(1024).capacity());
+    }
+
+    @Test
+    void drainsOldestFirstUpToMax() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertEquals(5, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        assertEquals(2, buffer.drainTo(drained, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertEquals(0, buffer.drainTo(drained, 10));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void offerFailsWhenFullAndRecoversAfterADrain() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(99));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 1);
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    void keepsOrderAcrossManyWraps() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(buffer.offer(i));
+            if (i % 3 == 2) buffer.drainTo(drained, 4);
+        }
+        buffer.drainTo(drained, 4);
+
+        assertEquals(1_000, drained.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, (int) drained.get(i));
+        }
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepTheirOwnOrder() throws Exception {
+        RingBuffer<long[]> buffer = new RingBuffer<>(256);
+        int producers = 4;
+        int perProducer = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        long[] nextExpected = new long[producers];
+        int received = 0;
+        List<long[]> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 64);
+            for (long[] element : batch) {
+                int producer = (int) element[0];
+                assertEquals(nextExpected[producer], element[1], "producer " + producer);
+                nextExpected[producer]++;
+            }
+            received += batch.size();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, received);
+        assertEquals(0, buffer.size());
+    }
+}
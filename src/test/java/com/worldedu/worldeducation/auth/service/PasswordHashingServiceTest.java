@@ -0,0 +1,114 @@
+package com.worldedu.worldeducation.auth.service;
+
+import com.worldedu.worldeducation.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Stands in for the request threads calling into the pool
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PasswordHashingService service;
+
+    private PasswordHashingService start(int threads, int queueCapacity, long timeoutMs) {
+        service = new PasswordHashingService(meterRegistry);
+        ReflectionTestUtils.setField(service, "threads", threads);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "timeoutMs", timeoutMs);
+        ReflectionTestUtils.setField(service, "retryAfterSeconds", 3);
+        service.init();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (service != null) service.shutdown();
+    }
+
+    @Test
+    void runsTheTaskOnThePoolAndReturnsItsResult() {
+        start(2, 4, 5_000);
+
+        String thread = service.run(() -> Thread.currentThread().getName());
+
+        assertTrue(thread.startsWith("password-hash-"));
+        assertEquals(1, meterRegistry.get("auth.password_hashing.hash_time").timer().count());
+        assertEquals(1, meterRegistry.get("auth.password_hashing.queue_time").timer().count());
+    }
+
+    @Test
+    void rejectsWithRetryAfterOnceThePoolAndQueueAreFull() throws Exception {
+        start(1, 1, 5_000);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> service.run(() -> {
+            running.countDown();
+            return await(release);
+        }), callers);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> service.run(() -> true), callers);
+        waitForQueueDepth(1);
+
+        ServiceBusyException rejected = assertThrows(ServiceBusyException.class, () -> service.run(() -> true));
+
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.password_hashing.rejected").counter().count(), 0.0);
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void givesUpWithServiceBusyWhenTheTaskOutlivesTheTimeout() {
+        start(1, 1, 50);
+        CountDownLatch never = new CountDownLatch(1);
+
+        assertThrows(ServiceBusyException.class, () -> service.run(() -> await(never)));
+    }
+
+    @Test
+    void rethrowsTheTasksOwnRuntimeException() {
+        start(1, 1, 5_000);
+        IllegalArgumentException failure = new IllegalArgumentException("bad hash");
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> service.run(() -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password_hashing.queue_depth").gauge().value() < depth) {
+            if (System.nanoTime() > deadline) throw new AssertionError("task never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.worldedu.worldeducation.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertFalse(filter.mightContain("ada@worldeducation.test"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void neverReportsAnAddedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("user" + i + "@worldeducation.test");
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@worldeducation.test"), "lost user" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("present-" + i);
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("absent-" + i)) falsePositives++;
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false-positive rate " + rate);
+    }
+
+    @Test
+    void concurrentPutsDoNotLoseBits() throws Exception {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        int threads = 8;
+        int perThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    filter.put("id-" + (offset + i));
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        for (int i = 0; i < threads * perThread; i++) {
+            assertTrue(filter.mightContain("id-" + i), "lost id-" + i);
+        }
+    }
+}
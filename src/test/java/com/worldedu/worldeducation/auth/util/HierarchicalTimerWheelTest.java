@@ -0,0 +1,90 @@
+package com.worldedu.worldeducation.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimerWheelTest {
+
+    private static final long TICK = 100;
+    private static final long T = 1_700_000_000_000L;
+
+    // 16 slots per level, two levels: 256 ticks before items go to overflow
+    private final HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 4, 2, T);
+
+    @Test
+    void expiresOnTheDeadlineTickRoundedUp() {
+        wheel.schedule("a", T + 250);
+
+        assertTrue(wheel.advance(T + 200).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(T + 300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextAdvance() {
+        wheel.schedule("late", T - 500);
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of("late"), wheel.advance(T));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesFromTheUpperLevel() {
+        wheel.schedule("b", T + 40 * TICK);
+
+        assertTrue(wheel.advance(T + 39 * TICK).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("b"), wheel.advance(T + 40 * TICK));
+    }
+
+    @Test
+    void deadlinesBeyondTheTopLevelWaitInOverflow() {
+        wheel.schedule("c", T + 300 * TICK);
+
+        assertTrue(wheel.advance(T + 299 * TICK).isEmpty());
+        assertEquals(List.of("c"), wheel.advance(T + 300 * TICK));
+    }
+
+    @Test
+    void oneLargeAdvanceReturnsEverythingDue() {
+        wheel.schedule("near", T + 2 * TICK);
+        wheel.schedule("mid", T + 50 * TICK);
+        wheel.schedule("far", T + 1_000 * TICK);
+        wheel.schedule("later", T + 2_000 * TICK);
+
+        List<String> expired = wheel.advance(T + 1_000 * TICK);
+
+        assertEquals(3, expired.size());
+        assertTrue(expired.containsAll(List.of("near", "mid", "far")));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void everyItemExpiresExactlyOnItsTick() {
+        Random random = new Random(42);
+        Map<String, Long> deadlineTicks = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = T + 1 + random.nextInt(800 * (int) TICK);
+            wheel.schedule("item" + i, deadline);
+            deadlineTicks.put("item" + i, (deadline + TICK - 1) / TICK);
+        }
+
+        int expired = 0;
+        for (long tick = T / TICK + 1; tick <= T / TICK + 800; tick++) {
+            for (String item : wheel.advance(tick * TICK)) {
+                assertEquals((long) deadlineTicks.get(item), tick, item);
+                expired++;
+            }
+        }
+        assertEquals(5_000, expired);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,84 @@
+package com.worldedu.worldeducation.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlidingWindowCounterTest {
+
+    // Aligned to a 10 s bucket boundary
+    private static final long T = 1_700_000_000_000L;
+
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(60_000, 6);
+
+    @Test
+    void incrementReturnsTheRunningTotal() {
+        assertEquals(1, counter.increment(T));
+        assertEquals(2, counter.increment(T + 1));
+        assertEquals(3, counter.increment(T + 9_999));
+        assertEquals(3, counter.count(T + 9_999));
+    }
+
+    @Test
+    void eventsLeaveTheWindowBucketByBucket() {
+        counter.increment(T);
+        counter.increment(T + 10_000);
+        counter.increment(T + 20_000);
+
+        assertEquals(3, counter.count(T + 59_999));
+        assertEquals(2, counter.count(T + 60_000));
+        assertEquals(1, counter.count(T + 70_000));
+        assertEquals(0, counter.count(T + 80_000));
+    }
+
+    @Test
+    void aStaleBucketIsRolledOverWhenReused() {
+        counter.increment(T);
+        counter.increment(T);
+
+        // Same slot one full window later
+        assertEquals(1, counter.increment(T + 60_000));
+    }
+
+    @Test
+    void resetClearsEveryBucket() {
+        counter.increment(T);
+        counter.increment(T + 10_000);
+
+        counter.reset();
+
+        assertEquals(0, counter.count(T + 10_000));
+    }
+
+    @Test
+    void concurrentIncrementsAreNeverLost() throws InterruptedException {
+        int threads = 8;
+        int perThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    counter.increment(T + 5_000);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, counter.count(T + 5_000));
+    }
+}
@@ -0,0 +1,105 @@
+package com.worldedu.worldeducation.email.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for tests: accepts every command without authentication,
+ * counts connections and delivered messages, and can hang up after a set number of
+ * messages per connection to mimic a provider's per-connection cap.
+ */
+class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger messageCount = new AtomicInteger();
+    private volatile int dropAfterMessages = Integer.MAX_VALUE;
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        connections.execute(this::acceptLoop);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    int connections() {
+        return connectionCount.get();
+    }
+
+    int messages() {
+        return messageCount.get();
+    }
+
+    /** Close each connection right after accepting this many messages on it. */
+    void dropAfterMessages(int messages) {
+        dropAfterMessages = messages;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost fake SMTP ready");
+            int accepted = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message body is discarded
+                        }
+                        messageCount.incrementAndGet();
+                        reply(out, "250 OK queued");
+                        if (++accepted >= dropAfterMessages) return;
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private static void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
@@ -0,0 +1,177 @@
+package com.worldedu.worldeducation.email.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the pool against {@link FakeSmtpServer} on a loopback port, so connection reuse,
+ * recycling and reconnects are checked over real SMTP sessions.
+ */
+class SmtpTransportPoolTest {
+
+    private FakeSmtpServer server;
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.port());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (pool != null) pool.shutdown();
+        server.close();
+    }
+
+    private void startPool(int poolSize, int messagesPerConnection, double maxMessagesPerSecond) {
+        pool = new SmtpTransportPool(mailSender);
+        ReflectionTestUtils.setField(pool, "poolSize", poolSize);
+        ReflectionTestUtils.setField(pool, "messagesPerConnection", messagesPerConnection);
+        ReflectionTestUtils.setField(pool, "idleTimeoutSeconds", 60L);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerSecond", maxMessagesPerSecond);
+        pool.init();
+    }
+
+    private List<MimeMessage> messages(int count) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+            helper.setFrom("noreply@worldeducation.test");
+            helper.setTo("student" + i + "@worldeducation.test");
+            helper.setSubject("Reminder " + i);
+            helper.setText("Your subscription expires soon.");
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    /** Sends the batch and returns how many messages reported success. */
+    private int send(List<MimeMessage> batch) throws InterruptedException {
+        AtomicInteger delivered = new AtomicInteger();
+        pool.send(batch, (index, error) -> {
+            if (error == null) delivered.incrementAndGet();
+        });
+        return delivered.get();
+    }
+
+    @Test
+    void sendsAWholeBatchOverOneConnection() throws Exception {
+        startPool(2, 100, 10_000);
+
+        assertEquals(25, send(messages(25)));
+
+        assertEquals(25, server.messages());
+        assertEquals(1, server.connections());
+    }
+
+    @Test
+    void reusesTheConnectionForTheNextBatch() throws Exception {
+        startPool(2, 100, 10_000);
+
+        send(messages(5));
+        send(messages(5));
+
+        assertEquals(10, server.messages());
+        assertEquals(1, server.connections());
+    }
+
+    @Test
+    void recyclesTheConnectionAfterMessagesPerConnection() throws Exception {
+        startPool(1, 10, 10_000);
+
+        assertEquals(25, send(messages(25)));
+
+        assertEquals(25, server.messages());
+        assertEquals(3, server.connections());
+    }
+
+    @Test
+    void reconnectsWhenTheServerHangsUp() throws Exception {
+        startPool(1, 100, 10_000);
+        server.dropAfterMessages(4);
+
+        assertEquals(10, send(messages(10)));
+
+        assertEquals(10, server.messages());
+        assertEquals(3, server.connections());
+    }
+
+    @Test
+    void holdsAllSendersToTheSharedRate() throws Exception {
+        startPool(4, 100, 20);
+        ExecutorService senders = Executors.newFixedThreadPool(4);
+        try {
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                List<MimeMessage> batch = messages(10);
+                results.add(senders.submit(() -> send(batch)));
+            }
+            int delivered = 0;
+            for (Future<Integer> result : results) {
+                delivered += result.get(30, TimeUnit.SECONDS);
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // 40 messages at 20/s with a burst of 20: the second 20 wait about a second
+            assertEquals(40, delivered);
+            assertTrue(elapsedMs >= 800, "took only " + elapsedMs + " ms");
+            assertTrue(server.connections() <= 4);
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+
+    @Test
+    void reportsThroughputAgainstTheLocalServer() throws Exception {
+        startPool(4, 100, 1_000_000);
+        int batches = 20;
+        int perBatch = 50;
+        ExecutorService senders = Executors.newFixedThreadPool(4);
+        try {
+            List<List<MimeMessage>> work = new ArrayList<>(batches);
+            for (int b = 0; b < batches; b++) {
+                work.add(messages(perBatch));
+            }
+
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (List<MimeMessage> batch : work) {
+                results.add(senders.submit(() -> send(batch)));
+            }
+            int delivered = 0;
+            for (Future<Integer> result : results) {
+                delivered += result.get(60, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            assertEquals(batches * perBatch, delivered);
+            assertTrue(server.connections() <= 4 * ((batches * perBatch) / 100 + 1));
+            System.out.printf("SMTP pool: %d messages over %d connections in %.2f s (%.0f messages/s)%n",
+                    delivered, server.connections(), seconds, delivered / seconds);
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+}
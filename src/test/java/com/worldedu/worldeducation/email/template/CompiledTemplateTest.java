@@ -0,0 +1,81 @@
+package com.worldedu.worldeducation.email.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledTemplateTest {
+
+    private static String render(CompiledTemplate template, Map<String, ?> variables) {
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, variables);
+        return out.toString();
+    }
+
+    @Test
+    void substitutesEveryPlaceholder() {
+        CompiledTemplate template = CompiledTemplate.compile("t", "Hi {{name}}, code {{ code }}.", false);
+
+        assertEquals("Hi Ada, code 123456.", render(template, Map.of("name", "Ada", "code", 123456)));
+    }
+
+    @Test
+    void rendersAdjacentAndRepeatedPlaceholders() {
+        CompiledTemplate template = CompiledTemplate.compile("t", "{{a}}{{b}}-{{a}}", false);
+
+        assertEquals("xy-x", render(template, Map.of("a", "x", "b", "y")));
+    }
+
+    @Test
+    void rendersAMissingVariableAsEmpty() {
+        CompiledTemplate template = CompiledTemplate.compile("t", "[{{missing}}]", false);
+
+        assertEquals("[]", render(template, new HashMap<>()));
+    }
+
+    @Test
+    void rendersATemplateWithoutPlaceholdersVerbatim() {
+        CompiledTemplate template = CompiledTemplate.compile("t", "Plain text only", false);
+
+        assertEquals("Plain text only", render(template, Map.of()));
+    }
+
+    @Test
+    void escapesSubstitutedValuesButNotTheTemplateMarkup() {
+        CompiledTemplate template = CompiledTemplate.compile("t", "<p>{{name}}</p>", true);
+
+        assertEquals("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot; &#39;s&lt;/b&gt;</p>",
+                render(template, Map.of("name", "<b>Tom & \"Jerry\" 's</b>")));
+    }
+
+    @Test
+    void leavesValuesAloneInPlainText() {
+        CompiledTemplate template = CompiledTemplate.compile("t", "{{name}}", false);
+
+        assertEquals("<b>&", render(template, Map.of("name", "<b>&")));
+    }
+
+    @Test
+    void appendsToTheCallersBuffer() {
+        CompiledTemplate template = CompiledTemplate.compile("t", "{{x}}!", false);
+        StringBuilder out = new StringBuilder("> ");
+
+        template.renderTo(out, Map.of("x", "ok"));
+
+        assertEquals("> ok!", out.toString());
+    }
+
+    @Test
+    void rejectsAnUnterminatedPlaceholder() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "Hi {{name", false));
+    }
+
+    @Test
+    void rejectsAnEmptyPlaceholder() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "Hi {{ }}", false));
+    }
+}
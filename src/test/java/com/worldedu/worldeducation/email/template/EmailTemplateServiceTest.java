@@ -0,0 +1,92 @@
+package com.worldedu.worldeducation.email.template;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads the real templates from src/main/resources plus a French welcome variant
+ * (subject and text only) from src/test/resources.
+ */
+class EmailTemplateServiceTest {
+
+    private EmailTemplateService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new EmailTemplateService();
+        ReflectionTestUtils.setField(service, "defaultLocale", "en");
+        ReflectionTestUtils.setField(service, "appName", "World Education");
+        service.loadTemplates();
+    }
+
+    @Test
+    void rendersSubjectTextAndHtml() {
+        RenderedEmail email = service.render(EmailTemplateService.VERIFICATION, Locale.ENGLISH,
+                Map.of("code", "482913", "validityMinutes", 15));
+
+        assertEquals("World Education - Email Verification Code", email.subject());
+        assertTrue(email.text().contains("Your verification code is: 482913"));
+        assertTrue(email.text().contains("expire in 15 minutes"));
+        assertNotNull(email.html());
+        assertTrue(email.html().contains(">482913</p>"));
+    }
+
+    @Test
+    void escapesValuesInHtmlOnly() {
+        RenderedEmail email = service.render(EmailTemplateService.WELCOME, Locale.ENGLISH,
+                Map.of("firstName", "<Ada>", "userId", "ada"));
+
+        assertTrue(email.text().contains("Hello <Ada>,"));
+        assertTrue(email.html().contains("&lt;Ada&gt;"));
+    }
+
+    @Test
+    void prefersTheRequestedLanguage() {
+        RenderedEmail email = service.render(EmailTemplateService.WELCOME, Locale.forLanguageTag("fr-CA"),
+                Map.of("firstName", "Ada", "userId", "ada"));
+
+        assertEquals("Bienvenue sur World Education, Ada", email.subject());
+        assertTrue(email.text().contains("Votre identifiant est ada."));
+        assertNull(email.html());
+    }
+
+    @Test
+    void fallsBackToTheDefaultLocale() {
+        RenderedEmail email = service.render(EmailTemplateService.PASSWORD_RESET, Locale.forLanguageTag("de-DE"),
+                Map.of("code", "111111", "validityMinutes", 10));
+
+        assertNotNull(email.subject());
+        assertTrue(email.text().contains("111111"));
+    }
+
+    @Test
+    void anExplicitAppNameOverridesTheDefault() {
+        RenderedEmail email = service.render(EmailTemplateService.WELCOME, null,
+                Map.of("firstName", "Ada", "userId", "ada", "appName", "WE Labs"));
+
+        assertEquals("Welcome to WE Labs!", email.subject());
+    }
+
+    @Test
+    void rejectsAnUnknownTemplate() {
+        assertThrows(IllegalArgumentException.class, () -> service.render("no-such-template", Locale.ENGLISH, Map.of()));
+    }
+
+    @Test
+    void refusesToStartWithoutTheDefaultLocale() {
+        EmailTemplateService misconfigured = new EmailTemplateService();
+        ReflectionTestUtils.setField(misconfigured, "defaultLocale", "xx");
+
+        assertThrows(IllegalStateException.class, misconfigured::loadTemplates);
+    }
+}
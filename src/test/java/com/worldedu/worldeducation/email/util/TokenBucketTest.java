@@ -0,0 +1,80 @@
+package com.worldedu.worldeducation.email.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void aFullBucketServesItsBurstWithoutWaiting() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(50);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            bucket.acquire();
+        }
+
+        assertTrue(elapsedMillis(start) < 200, "burst should not wait");
+    }
+
+    @Test
+    void sustainedAcquiresAreHeldToTheRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100);
+        for (int i = 0; i < 100; i++) {
+            bucket.acquire();
+        }
+
+        // Burst used up: 50 more need about half a second of refill
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            bucket.acquire();
+        }
+        long elapsed = elapsedMillis(start);
+
+        assertTrue(elapsed >= 400, "took only " + elapsed + " ms");
+        assertTrue(elapsed < 2_000, "took " + elapsed + " ms");
+    }
+
+    @Test
+    void concurrentCallersShareTheRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100);
+        for (int i = 0; i < 100; i++) {
+            bucket.acquire();
+        }
+
+        long start = System.nanoTime();
+        Thread[] callers = new Thread[4];
+        for (int t = 0; t < callers.length; t++) {
+            callers[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 15; i++) {
+                        bucket.acquire();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            callers[t].start();
+        }
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        long elapsed = elapsedMillis(start);
+
+        // 60 permits at 100/s, however they are split between threads
+        assertTrue(elapsed >= 500, "took only " + elapsed + " ms");
+    }
+
+    @Test
+    void rejectsANonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0));
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
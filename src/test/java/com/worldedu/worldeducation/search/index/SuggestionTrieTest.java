@@ -0,0 +1,105 @@
+package com.worldedu.worldeducation.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionTrieTest {
+
+    private static SuggestionTrie.Entry topic(long id, String name, long weight) {
+        return new SuggestionTrie.Entry("TOPIC:" + id, "TOPIC", id, name, "Physics", weight);
+    }
+
+    private static List<String> keys(List<SuggestionTrie.Entry> entries) {
+        return entries.stream().map(SuggestionTrie.Entry::key).toList();
+    }
+
+    @Test
+    void matchesEveryWordStart() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(topic(1, "Force and Motion", 5));
+
+        assertEquals(List.of("TOPIC:1"), keys(trie.topK("for", 10)));
+        assertEquals(List.of("TOPIC:1"), keys(trie.topK("and", 10)));
+        assertEquals(List.of("TOPIC:1"), keys(trie.topK("MOT", 10)));
+        assertEquals(List.of("TOPIC:1"), keys(trie.topK("force and m", 10)));
+        assertTrue(trie.topK("otion", 10).isEmpty());
+    }
+
+    @Test
+    void returnsHighestWeightsFirstAndStopsAtK() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(topic(1, "Magnetism", 3));
+        trie.put(topic(2, "Magnetic Fields", 9));
+        trie.put(topic(3, "Magnets", 6));
+        trie.put(topic(4, "Mass", 100));
+
+        assertEquals(List.of("TOPIC:2", "TOPIC:3"), keys(trie.topK("magn", 2)));
+        assertEquals(List.of("TOPIC:4", "TOPIC:2", "TOPIC:3", "TOPIC:1"), keys(trie.topK("m", 10)));
+    }
+
+    @Test
+    void listsAnEntryOnceWhenSeveralOfItsWordsMatch() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(topic(1, "Waves and Wavelength", 4));
+
+        assertEquals(List.of("TOPIC:1"), keys(trie.topK("wav", 10)));
+    }
+
+    @Test
+    void putReplacesByKey() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(topic(1, "Optics", 5));
+        trie.put(topic(1, "Light", 7));
+
+        assertEquals(1, trie.size());
+        assertTrue(trie.topK("opt", 10).isEmpty());
+        assertEquals("Light", trie.get("TOPIC:1").name());
+        assertEquals(List.of("TOPIC:1"), keys(trie.topK("li", 10)));
+    }
+
+    @Test
+    void loweringAWeightReordersResults() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(topic(1, "Energy", 10));
+        trie.put(topic(2, "Entropy", 5));
+
+        trie.put(topic(1, "Energy", 1));
+
+        assertEquals(List.of("TOPIC:2", "TOPIC:1"), keys(trie.topK("en", 10)));
+    }
+
+    @Test
+    void removePrunesTheEntry() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(topic(1, "Gravity", 5));
+        trie.put(topic(2, "Graphs", 2));
+
+        trie.remove("TOPIC:1");
+        trie.remove("TOPIC:99");
+
+        assertNull(trie.get("TOPIC:1"));
+        assertEquals(1, trie.size());
+        assertEquals(List.of("TOPIC:2"), keys(trie.topK("gra", 10)));
+        assertTrue(trie.topK("grav", 10).isEmpty());
+    }
+
+    @Test
+    void blankPrefixOrZeroLimitReturnsNothing() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(topic(1, "Atoms", 1));
+
+        assertTrue(trie.topK("  ", 10).isEmpty());
+        assertTrue(trie.topK("a", 0).isEmpty());
+    }
+
+    @Test
+    void normalizeCollapsesPunctuationAndCase() {
+        assertEquals("newton s laws 2nd", SuggestionTrie.normalize("  Newton's Laws -- (2nd) "));
+        assertEquals("", SuggestionTrie.normalize(null));
+    }
+}
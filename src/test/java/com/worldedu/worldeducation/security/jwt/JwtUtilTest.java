@@ -0,0 +1,87 @@
+package com.worldedu.worldeducation.security.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-for-jwt-util-tests-that-is-at-least-512-bits-long-0123456789";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil(SECRET, 900_000L);
+    }
+
+    private static JwtUtil newJwtUtil(String secret, long accessExpirationMillis) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "accessExpiration", accessExpirationMillis);
+        ReflectionTestUtils.setField(util, "refreshExpiration", 604_800_000L);
+        util.init();
+        return util;
+    }
+
+    @Test
+    void parseReturnsEveryClaimOfAnAccessToken() {
+        String token = jwtUtil.generateToken("alice", 42L, "STUDENT", 7L);
+
+        ParsedToken parsed = jwtUtil.parse(token);
+
+        assertEquals("alice", parsed.userId());
+        assertEquals(42L, parsed.customerId());
+        assertEquals("STUDENT", parsed.userCategory());
+        assertEquals(7L, parsed.sessionId());
+        assertTrue(parsed.isAccessToken());
+        assertFalse(parsed.isRefreshToken());
+        assertNull(parsed.tokenId());
+        assertTrue(parsed.expiration().after(parsed.issuedAt()));
+    }
+
+    @Test
+    void parseReturnsTheTokenIdOfARefreshToken() {
+        String tokenId = jwtUtil.newTokenId();
+        String token = jwtUtil.generateRefreshToken("alice", 7L, tokenId);
+
+        ParsedToken parsed = jwtUtil.parse(token);
+
+        assertTrue(parsed.isRefreshToken());
+        assertEquals(tokenId, parsed.tokenId());
+        assertEquals(7L, parsed.sessionId());
+        assertNull(parsed.customerId());
+    }
+
+    @Test
+    void parseRejectsATamperedToken() {
+        String token = jwtUtil.generateToken("alice", 42L, "STUDENT", 7L);
+        String[] parts = token.split("\\.");
+        String forged = jwtUtil.generateToken("mallory", 1L, "ADMIN", 7L).split("\\.")[1];
+
+        assertThrows(JwtException.class, () -> jwtUtil.parse(parts[0] + "." + forged + "." + parts[2]));
+    }
+
+    @Test
+    void parseRejectsATokenSignedWithAnotherKey() {
+        String token = newJwtUtil(SECRET + "-other", 900_000L).generateToken("alice", 42L, "STUDENT", 7L);
+
+        assertThrows(JwtException.class, () -> jwtUtil.parse(token));
+    }
+
+    @Test
+    void parseRejectsAnExpiredToken() {
+        String token = newJwtUtil(SECRET, -1_000L).generateToken("alice", 42L, "STUDENT", 7L);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parse(token));
+        assertFalse(jwtUtil.validateToken(token));
+    }
+}